@@ -0,0 +1,43 @@
+package com.epilogo.epilogo.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repositorios en memoria para los benchmarks: cada método se responde con la función registrada para su nombre, sin
+ * base de datos ni mocks, para que la medición sea solo CPU y asignación del código de servicio. Un método sin
+ * respuesta registrada lanza {@link UnsupportedOperationException}, así un benchmark no mide por error un camino que
+ * no ha preparado.
+ */
+public final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    public static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (self, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return repositoryType.getSimpleName() + "Stub";
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "equals":
+                            return self == args[0];
+                        default:
+                            Function<Object[], Object> answer = answers.get(method.getName());
+                            if (answer == null) {
+                                throw new UnsupportedOperationException(repositoryType.getSimpleName() + "."
+                                        + method.getName() + " no está preparado en el benchmark");
+                            }
+                            return answer.apply(args);
+                    }
+                });
+        return repositoryType.cast(proxy);
+    }
+
+    public static <T> T unused(Class<T> repositoryType) {
+        return stub(repositoryType, Map.of());
+    }
+}
@@ -0,0 +1,45 @@
+package com.epilogo.epilogo.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Book#updateBookStatus()} se ejecuta en cada persistencia y en cada cambio de existencias.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookBenchmark {
+
+    private Book book;
+    private int tick;
+
+    @Setup
+    public void setUp() {
+        book = Book.builder()
+                .title("Cien años de soledad")
+                .totalAmount(10)
+                .availableAmount(10)
+                .build();
+    }
+
+    @Benchmark
+    public Book.BookStatus updateBookStatus() {
+        // Recorre disponible, pocas copias y agotado para que ninguna rama quede sin medir
+        book.setAvailableAmount(tick++ % 11);
+        return book.getBookStatus();
+    }
+}
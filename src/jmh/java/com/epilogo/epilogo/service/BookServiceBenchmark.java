@@ -0,0 +1,133 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.BookDTO;
+import com.epilogo.epilogo.model.Author;
+import com.epilogo.epilogo.model.Book;
+import com.epilogo.epilogo.model.Category;
+import com.epilogo.epilogo.model.S3File;
+import com.epilogo.epilogo.model.S3File.EntityType;
+import com.epilogo.epilogo.repository.AuthorRepository;
+import com.epilogo.epilogo.repository.BookRepository;
+import com.epilogo.epilogo.repository.CategoryRepository;
+import com.epilogo.epilogo.repository.ReservationRepository;
+import com.epilogo.epilogo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.epilogo.epilogo.benchmark.RepositoryStubs.stub;
+import static com.epilogo.epilogo.benchmark.RepositoryStubs.unused;
+
+/**
+ * Mapeo de una página de libros a {@link BookDTO.BookResponse} a través de {@link BookService#searchBooks}, con los
+ * repositorios en memoria: mide el coste por página de la conversión a DTO, no el de las consultas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+
+    private static final long CATEGORY_ID = 1L;
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private BookService bookService;
+    private BookDTO.BookSearchRequest request;
+
+    @Setup
+    public void setUp() {
+        Author author = Author.builder()
+                .authorId(1L)
+                .authorName("Gabriel García Márquez")
+                .currentImage(image(EntityType.AUTHOR, 1L))
+                .books(new ArrayList<>())
+                .build();
+        Category category = Category.builder()
+                .categoryId(CATEGORY_ID)
+                .categoryName("Novela")
+                .currentImage(image(EntityType.CATEGORY, CATEGORY_ID))
+                .books(new ArrayList<>())
+                .build();
+
+        List<Book> books = new ArrayList<>(pageSize);
+        List<Object[]> activeReservations = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Book book = Book.builder()
+                    .bookId(id)
+                    .title("Libro " + id)
+                    .description("Descripción del libro " + id)
+                    .isbn("978-84-376-04" + id)
+                    .author(author)
+                    .category(category)
+                    .totalAmount(5)
+                    .availableAmount((int) (id % 6))
+                    .currentImage(image(EntityType.BOOK, id))
+                    .publicationYear(1967)
+                    .reservations(new ArrayList<>())
+                    .build();
+            book.updateBookStatus();
+            books.add(book);
+            activeReservations.add(new Object[]{id, id % 3});
+        }
+
+        BookRepository bookRepository = stub(BookRepository.class, Map.of(
+                "findByCategoryCategoryId", args -> page(books, (Pageable) args[1])));
+        ReservationRepository reservationRepository = stub(ReservationRepository.class, Map.of(
+                "countActiveReservationsByBookIds", args -> activeReservations));
+
+        bookService = new BookService(bookRepository,
+                unused(AuthorRepository.class),
+                unused(CategoryRepository.class),
+                reservationRepository,
+                unused(UserRepository.class),
+                new S3Service(null, null, event -> { }),
+                event -> { });
+
+        request = BookDTO.BookSearchRequest.builder()
+                .categoryId(CATEGORY_ID)
+                .size(pageSize)
+                .build();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Page<BookDTO.BookResponse> searchBooksPage() {
+        return bookService.searchBooks(request);
+    }
+
+    private static Page<Book> page(List<Book> books, Pageable pageable) {
+        return new PageImpl<>(books, pageable, books.size() * 10L);
+    }
+
+    private static S3File image(EntityType entityType, Long entityId) {
+        return S3File.builder()
+                .fileId(entityId)
+                .entityType(entityType)
+                .entityId(entityId)
+                .s3Key(entityType.name().toLowerCase() + "/" + entityId + ".webp")
+                .s3Url("https://epilogo.s3.amazonaws.com/" + entityType.name().toLowerCase() + "/" + entityId + ".webp")
+                .isPublic(true)
+                .build();
+    }
+}
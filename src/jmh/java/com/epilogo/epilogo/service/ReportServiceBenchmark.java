@@ -0,0 +1,98 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.ReportDTO;
+import com.epilogo.epilogo.model.Author;
+import com.epilogo.epilogo.model.Book;
+import com.epilogo.epilogo.model.Reservation;
+import com.epilogo.epilogo.model.User;
+import com.epilogo.epilogo.repository.ReservationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.epilogo.epilogo.benchmark.RepositoryStubs.stub;
+
+/**
+ * Generación de los reportes HTML y CSV de reservas (filtrado, conversión a filas y escritura del documento) sobre
+ * un repositorio en memoria. El PDF queda fuera: su coste lo domina la compilación de la plantilla de JasperReports.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportServiceBenchmark {
+
+    private static final Reservation.ReservationStatus[] STATUSES = Reservation.ReservationStatus.values();
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private ReportService reportService;
+    private ReportDTO.ReportRequest htmlRequest;
+    private ReportDTO.ReportRequest csvRequest;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        Author author = Author.builder().authorId(1L).authorName("Isabel Allende").books(new ArrayList<>()).build();
+
+        List<Reservation> reservations = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            User user = User.builder()
+                    .userId(id % 500)
+                    .userName("lector" + (id % 500))
+                    .email("lector" + (id % 500) + "@epilogo.com")
+                    .build();
+            Book book = Book.builder()
+                    .bookId(id % 2000)
+                    .title("La casa de los espíritus, vol. " + (id % 2000))
+                    .isbn("978-84-01-" + (id % 2000))
+                    .author(author)
+                    .build();
+            Reservation.ReservationStatus status = STATUSES[(int) (id % STATUSES.length)];
+            LocalDate reservationDate = today.minusDays(id % 90);
+            reservations.add(Reservation.builder()
+                    .reservationId(id)
+                    .user(user)
+                    .book(book)
+                    .reservationDate(reservationDate)
+                    .expectedReturnDate(reservationDate.plusDays(14))
+                    .actualReturnDate(status == Reservation.ReservationStatus.COMPLETED ? reservationDate.plusDays(10) : null)
+                    .status(status)
+                    .build());
+        }
+
+        reportService = new ReportService(stub(ReservationRepository.class, Map.of(
+                "findAll", args -> reservations)));
+
+        htmlRequest = ReportDTO.ReportRequest.builder().format(ReportDTO.ReportFormat.HTML).build();
+        csvRequest = ReportDTO.ReportRequest.builder().format(ReportDTO.ReportFormat.CSV).build();
+    }
+
+    @Benchmark
+    public ByteArrayResource htmlReport() {
+        return reportService.generateReport(htmlRequest);
+    }
+
+    @Benchmark
+    public ByteArrayResource csvReport() {
+        return reportService.generateReport(csvRequest);
+    }
+}
@@ -0,0 +1,43 @@
+package com.epilogo.epilogo.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link S3Service#isPublicFile(String)} usa {@link String#matches(String)}, que compila la expresión regular en cada
+ * llamada; se ejecuta al subir cada archivo y al refrescar cada URL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class S3ServiceBenchmark {
+
+    @Param({".jpg", ".webp", ".pdf"})
+    public String extension;
+
+    private S3Service s3Service;
+
+    @Setup
+    public void setUp() {
+        s3Service = new S3Service(null, null, event -> { });
+    }
+
+    @Benchmark
+    public boolean isPublicFile() {
+        return s3Service.isPublicFile(extension);
+    }
+}
@@ -0,0 +1,168 @@
+package com.epilogo.epilogo.cache;
+
+import com.epilogo.epilogo.event.DomainEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caché LRU, acotada en bytes, de respuestas JSON ya serializadas (y opcionalmente comprimidas con gzip).
+ * <p>
+ * La invalidación es perezosa: cada fuente de datos ({@link DomainEvent.Source}) tiene un contador de
+ * generación que se incrementa con cada evento, y cada entrada recuerda las generaciones de las fuentes de las que
+ * depende en el momento en que empezó a calcularse. Una entrada con alguna generación desfasada ya no es válida.
+ */
+@Component
+@Slf4j
+@Hidden
+public class ResponseCache {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final long maxSizeBytes;
+    private final long ttlMillis;
+
+    private final AtomicLongArray generations = new AtomicLongArray(DomainEvent.Source.values().length);
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(128, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ResponseCache(@Value("${catalog.response-cache.max-size-bytes:16777216}") long maxSizeBytes,
+                         @Value("${catalog.response-cache.ttl:PT5M}") Duration ttl) {
+        this.maxSizeBytes = maxSizeBytes;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public record Entry(byte[] body, byte[] gzipBody, Map<String, String> headers,
+                        EnumSet<DomainEvent.Source> dependsOn, long[] generations, long createdAt) {
+
+        long size() {
+            return body.length + (gzipBody != null ? gzipBody.length : 0);
+        }
+    }
+
+    /**
+     * Generaciones actuales; se capturan antes de calcular la respuesta que se va a guardar.
+     */
+    public long[] snapshot() {
+        long[] snapshot = new long[generations.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = generations.get(i);
+        }
+        return snapshot;
+    }
+
+    public Entry get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && !isValid(entry)) {
+                remove(key);
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    public void put(String key, byte[] body, Map<String, String> headers,
+                    EnumSet<DomainEvent.Source> dependsOn, long[] snapshot) {
+        byte[] gzipBody = body.length >= GZIP_MIN_BYTES ? gzip(body) : null;
+        Entry entry = new Entry(body, gzipBody, Map.copyOf(headers), dependsOn, snapshot, System.currentTimeMillis());
+
+        synchronized (this) {
+            // Si llegó un evento mientras se calculaba la respuesta, ya nace caducada: no se guarda
+            if (!isValid(entry) || entry.size() > maxSizeBytes) {
+                return;
+            }
+            remove(key);
+            entries.put(key, entry);
+            totalBytes += entry.size();
+            evictIfNeeded();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        if (event instanceof DomainEvent.Resync) {
+            for (int i = 0; i < generations.length(); i++) {
+                generations.incrementAndGet(i);
+            }
+            log.debug("Response cache invalidated for all sources");
+        } else if (event.source() != null) {
+            generations.incrementAndGet(event.source().ordinal());
+            log.debug("Response cache invalidated for source {}", event.source());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean isValid(Entry entry) {
+        if (System.currentTimeMillis() - entry.createdAt() > ttlMillis) {
+            return false;
+        }
+        for (DomainEvent.Source source : entry.dependsOn()) {
+            if (generations.get(source.ordinal()) != entry.generations()[source.ordinal()]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.size();
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxSizeBytes && iterator.hasNext()) {
+            totalBytes -= iterator.next().getValue().size();
+            iterator.remove();
+        }
+    }
+
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
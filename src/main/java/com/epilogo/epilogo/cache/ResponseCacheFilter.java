@@ -0,0 +1,191 @@
+package com.epilogo.epilogo.cache;
+
+import com.epilogo.epilogo.event.DomainEvent.Source;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Sirve desde {@link ResponseCache} las respuestas JSON de los GET públicos más consultados del catálogo.
+ * <p>
+ * Solo se atiende el tráfico anónimo: las respuestas de libros dependen del usuario (reservas propias) y las
+ * autenticadas llevan otra política de Cache-Control. Se registra como filtro de servlet normal, por lo que se ejecuta
+ * después de la cadena de Spring Security y el contexto de seguridad ya está resuelto.
+ */
+@Component
+@Slf4j
+@Hidden
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final List<String> STORED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY);
+
+    /**
+     * Endpoints cacheables y las fuentes de datos de las que depende su respuesta. El orden importa: las rutas
+     * literales van antes que las de identificador.
+     */
+    private static final Map<Pattern, EnumSet<Source>> ENDPOINTS = new LinkedHashMap<>();
+
+    static {
+        ENDPOINTS.put(Pattern.compile("/api/categories"), EnumSet.of(Source.CATEGORY));
+        ENDPOINTS.put(Pattern.compile("/api/categories/popular"), EnumSet.of(Source.CATEGORY, Source.BOOK, Source.RESERVATION));
+        ENDPOINTS.put(Pattern.compile("/api/categories/\\d+"), EnumSet.of(Source.CATEGORY, Source.BOOK, Source.AUTHOR));
+        ENDPOINTS.put(Pattern.compile("/api/authors(/search)?"), EnumSet.of(Source.AUTHOR));
+        ENDPOINTS.put(Pattern.compile("/api/authors/popular"), EnumSet.of(Source.AUTHOR, Source.BOOK, Source.RESERVATION));
+        ENDPOINTS.put(Pattern.compile("/api/authors/\\d+"), EnumSet.of(Source.AUTHOR, Source.BOOK));
+        ENDPOINTS.put(Pattern.compile("/api/books/popular"), EnumSet.of(Source.BOOK, Source.AUTHOR, Source.RESERVATION));
+        ENDPOINTS.put(Pattern.compile("/api/books(/\\d+)?"), EnumSet.allOf(Source.class));
+    }
+
+    private final ResponseCache responseCache;
+    private final boolean enabled;
+    private final int maxPage;
+
+    public ResponseCacheFilter(ResponseCache responseCache,
+                               @Value("${catalog.response-cache.enabled:true}") boolean enabled,
+                               @Value("${catalog.response-cache.max-page:2}") int maxPage) {
+        this.responseCache = responseCache;
+        this.enabled = enabled;
+        this.maxPage = maxPage;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !HttpMethod.GET.matches(request.getMethod()) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EnumSet<Source> dependsOn = dependenciesOf(request);
+        if (dependsOn == null || !isAnonymous() || !isCacheableQuery(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(request);
+        ResponseCache.Entry entry = responseCache.get(key);
+        if (entry != null) {
+            serve(request, response, entry);
+            return;
+        }
+
+        // Las generaciones se capturan antes de ejecutar el controlador para no guardar datos ya invalidados
+        long[] snapshot = responseCache.snapshot();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && isJson(wrapper.getContentType())) {
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (String name : STORED_HEADERS) {
+                    String value = HttpHeaders.CONTENT_TYPE.equals(name) ? wrapper.getContentType() : wrapper.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, value);
+                    }
+                }
+                responseCache.put(key, wrapper.getContentAsByteArray(), headers, dependsOn, snapshot);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void serve(HttpServletRequest request, HttpServletResponse response, ResponseCache.Entry entry)
+            throws IOException {
+        entry.headers().forEach(response::setHeader);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String etag = entry.headers().get(HttpHeaders.ETAG);
+        if (etag != null && new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        byte[] body = entry.body();
+        if (entry.gzipBody() != null && acceptsGzip(request)) {
+            body = entry.gzipBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private EnumSet<Source> dependenciesOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<Pattern, EnumSet<Source>> endpoint : ENDPOINTS.entrySet()) {
+            if (endpoint.getKey().matcher(path).matches()) {
+                return endpoint.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Las búsquedas libres y las páginas profundas tienen una tasa de acierto muy baja: no merece la pena ocupar
+     * memoria con ellas.
+     */
+    private boolean isCacheableQuery(HttpServletRequest request) {
+        if (!request.getRequestURI().endsWith("/api/books")) {
+            return true;
+        }
+        String query = request.getParameter("query");
+        if (query != null && !query.isBlank()) {
+            return false;
+        }
+        String page = request.getParameter("page");
+        try {
+            return page == null || Integer.parseInt(page) < maxPage;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || authentication instanceof AnonymousAuthenticationToken;
+    }
+
+    private String cacheKey(HttpServletRequest request) {
+        // Parámetros ordenados para que ?a=1&b=2 y ?b=2&a=1 compartan entrada
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                key.append('&').append(name).append('=').append(value);
+            }
+        });
+        return key.toString();
+    }
+
+    private boolean isJson(String contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+}
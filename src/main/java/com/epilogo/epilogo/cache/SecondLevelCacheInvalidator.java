@@ -0,0 +1,50 @@
+package com.epilogo.epilogo.cache;
+
+import com.epilogo.epilogo.event.DomainEvent;
+import com.epilogo.epilogo.event.PgNotifyEventRelay;
+import com.epilogo.epilogo.model.Author;
+import com.epilogo.epilogo.model.Category;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+/**
+ * Mantiene coherente la caché de segundo nivel de Hibernate entre nodos. Las escrituras locales ya la actualizan
+ * (READ_WRITE); aquí solo se desalojan las entradas afectadas por eventos recibidos de otras instancias.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Hidden
+public class SecondLevelCacheInvalidator {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (!PgNotifyEventRelay.isRemoteDispatch()) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.getCache();
+        switch (event) {
+            case DomainEvent.AuthorChanged changed -> cache.evict(Author.class, changed.authorId());
+            case DomainEvent.CategoryChanged changed -> cache.evict(Category.class, changed.categoryId());
+            case DomainEvent.ImageChanged changed when changed.source() == DomainEvent.Source.AUTHOR ->
+                    cache.evict(Author.class, changed.entityId());
+            case DomainEvent.ImageChanged changed when changed.source() == DomainEvent.Source.CATEGORY ->
+                    cache.evict(Category.class, changed.entityId());
+            case DomainEvent.Resync resync -> {
+                cache.evictAll();
+                log.info("Second-level cache cleared after domain event resync");
+            }
+            default -> {
+            }
+        }
+    }
+}
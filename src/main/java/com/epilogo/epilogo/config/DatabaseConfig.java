@@ -1,11 +1,11 @@
 package com.epilogo.epilogo.config;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import io.swagger.v3.oas.annotations.Hidden;
 
@@ -31,18 +31,34 @@ public class DatabaseConfig {
     @Value("${DB_PASSWORD:postgres}")
     private String dbPassword;
 
+    @Value("${DB_POOL_MAX_SIZE:10}")
+    private int maxPoolSize;
+
+    @Value("${DB_POOL_CONNECTION_TIMEOUT_MS:5000}")
+    private long connectionTimeoutMs;
+
+    /**
+     * Pool acotado: con hilos virtuales no hay límite de peticiones concurrentes en Tomcat, así que es el pool el que
+     * limita la concurrencia contra la base de datos. Las peticiones que no consiguen conexión esperan aparcadas
+     * sin ocupar hilos de plataforma.
+     */
     @Bean
     @Primary
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        HikariDataSource dataSource = new HikariDataSource();
         dataSource.setDriverClassName("org.postgresql.Driver");
 
         String jdbcUrl = String.format("jdbc:postgresql://%s:%s/%s", dbHost, dbPort, dbName);
         System.out.println("Connecting to database URL: " + jdbcUrl);
 
-        dataSource.setUrl(jdbcUrl);
+        dataSource.setJdbcUrl(jdbcUrl);
         dataSource.setUsername(dbUsername);
         dataSource.setPassword(dbPassword);
+        dataSource.setMaximumPoolSize(maxPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        dataSource.setPoolName("epilogo-pool");
+        // El driver reescribe cada lote de INSERT como un único INSERT multi-fila
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
 
         return dataSource;
     }
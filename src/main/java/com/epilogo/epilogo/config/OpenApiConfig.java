@@ -1,5 +1,6 @@
 package com.epilogo.epilogo.config;
 
+import com.epilogo.epilogo.idempotency.IdempotencyFilter;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
 import io.swagger.v3.oas.annotations.info.Info;
@@ -11,7 +12,10 @@ import io.swagger.v3.oas.annotations.servers.Server;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.HeaderParameter;
 
+import org.springdoc.core.customizers.OpenApiCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -80,4 +84,27 @@ public class OpenApiConfig {
                                 .version("1.0")
                                 .description("API para gestión y reserva de libros de biblioteca digital"));
         }
-}
\ No newline at end of file
+
+        /**
+         * Documenta la cabecera Idempotency-Key en los POST que atiende {@link IdempotencyFilter}
+         */
+        @Bean
+        public OpenApiCustomizer idempotencyKeyHeader() {
+                return openApi -> {
+                        if (openApi.getPaths() == null) {
+                                return;
+                        }
+                        openApi.getPaths().forEach((path, item) -> {
+                                if (item.getPost() != null && IdempotencyFilter.appliesTo(path)) {
+                                        item.getPost().addParametersItem(new HeaderParameter()
+                                                .name(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER)
+                                                .required(false)
+                                                .description("Clave única del cliente para esta operación. Los reintentos con la misma clave " +
+                                                        "devuelven la respuesta original (cabecera " + IdempotencyFilter.REPLAYED_HEADER +
+                                                        ") sin repetir la operación; con otra petición, 422; si la original sigue en curso, 409")
+                                                .schema(new StringSchema().maxLength(255)));
+                                }
+                        });
+                };
+        }
+}
@@ -0,0 +1,41 @@
+package com.epilogo.epilogo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * En producción el esquema solo lo modifican las migraciones de Flyway. Si la configuración de Hibernate
+ * pidiera crear o alterar tablas (ddl-auto=update, create...), el arranque falla antes de que se construya
+ * el EntityManagerFactory y, por tanto, antes de tocar la base de datos.
+ */
+@Component
+@Profile("render")
+@Slf4j
+@Hidden
+public class SchemaManagementGuard implements HibernatePropertiesCustomizer {
+
+    private static final Set<String> ALLOWED_ACTIONS = Set.of("none", "validate");
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        check(hibernateProperties, AvailableSettings.HBM2DDL_AUTO);
+        check(hibernateProperties, AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION);
+        log.info("Schema management guard passed: Hibernate will not alter the database schema");
+    }
+
+    private void check(Map<String, Object> hibernateProperties, String setting) {
+        Object action = hibernateProperties.get(setting);
+        if (action != null && !ALLOWED_ACTIONS.contains(action.toString().trim().toLowerCase())) {
+            throw new IllegalStateException("La propiedad " + setting + "=" + action +
+                    " modificaría el esquema en producción; usa una migración de Flyway y ddl-auto=validate");
+        }
+    }
+}
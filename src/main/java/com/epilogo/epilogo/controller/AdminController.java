@@ -0,0 +1,83 @@
+package com.epilogo.epilogo.controller;
+
+import com.epilogo.epilogo.dto.CacheDTO;
+import com.epilogo.epilogo.dto.S3FileDTO;
+import com.epilogo.epilogo.service.CacheStatisticsService;
+import com.epilogo.epilogo.service.StorageGcService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administración", description = "API para tareas de mantenimiento del sistema")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private final StorageGcService storageGcService;
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @PostMapping("/storage/gc")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Ejecutar limpieza de archivos", description = "Marca y elimina archivos reemplazados o huérfanos (solo accesible para administradores)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limpieza ejecutada correctamente",
+                    content = @Content(schema = @Schema(implementation = S3FileDTO.StorageGcReport.class))),
+            @ApiResponse(responseCode = "400", description = "Ya hay una limpieza en curso", content = @Content),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos de administrador", content = @Content)
+    })
+    public ResponseEntity<S3FileDTO.StorageGcReport> runStorageGc(
+            @Parameter(description = "Solo informar de lo que se eliminaría, sin borrar nada", example = "true")
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        return ResponseEntity.ok(storageGcService.collect(dryRun));
+    }
+
+    @GetMapping("/storage/gc")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Consultar última limpieza de archivos", description = "Devuelve el informe de la última limpieza ejecutada (solo accesible para administradores)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Informe obtenido correctamente",
+                    content = @Content(schema = @Schema(implementation = S3FileDTO.StorageGcReport.class))),
+            @ApiResponse(responseCode = "204", description = "Aún no se ha ejecutado ninguna limpieza", content = @Content),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos de administrador", content = @Content)
+    })
+    public ResponseEntity<S3FileDTO.StorageGcReport> getStorageGcReport() {
+        S3FileDTO.StorageGcReport report = storageGcService.getLastReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Consultar estadísticas de caché", description = "Devuelve la proporción de aciertos de la caché de segundo nivel y de consultas (solo accesible para administradores)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas correctamente",
+                    content = @Content(schema = @Schema(implementation = CacheDTO.CacheStatisticsResponse.class))),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos de administrador", content = @Content)
+    })
+    public ResponseEntity<CacheDTO.CacheStatisticsResponse> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getStatistics());
+    }
+
+    @DeleteMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reiniciar estadísticas de caché", description = "Pone a cero los contadores de la caché (solo accesible para administradores)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Estadísticas reiniciadas correctamente"),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos de administrador", content = @Content)
+    })
+    public ResponseEntity<Void> resetCacheStatistics() {
+        cacheStatisticsService.resetStatistics();
+        return ResponseEntity.noContent().build();
+    }
+}
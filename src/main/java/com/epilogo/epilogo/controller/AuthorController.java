@@ -2,6 +2,7 @@ package com.epilogo.epilogo.controller;
 
 import com.epilogo.epilogo.dto.AuthorDTO;
 import com.epilogo.epilogo.service.AuthorService;
+import com.epilogo.epilogo.service.CatalogVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,6 +25,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
 import java.util.List;
 
+import static com.epilogo.epilogo.utils.ConditionalResponses.conditional;
+
 @RestController
 @RequestMapping("/api/authors")
 @RequiredArgsConstructor
@@ -31,24 +35,29 @@ import java.util.List;
 public class AuthorController {
 
     private final AuthorService authorService;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping("/{authorId}")
     @Operation(summary = "Obtener autor por ID", description = "Devuelve información completa de un autor y sus libros")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Autor encontrado",
                     content = @Content(schema = @Schema(implementation = AuthorDTO.AuthorResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El autor no ha cambiado", content = @Content),
             @ApiResponse(responseCode = "404", description = "Autor no encontrado", content = @Content)
     })
     public ResponseEntity<AuthorDTO.AuthorResponse> getAuthorById(
             @Parameter(description = "ID del autor", required = true, example = "1")
-            @PathVariable Long authorId) {
-        return ResponseEntity.ok(authorService.getAuthorById(authorId));
+            @PathVariable Long authorId,
+            WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.catalogVersion(false, "authors", authorId),
+                () -> authorService.getAuthorById(authorId));
     }
 
     @GetMapping("/search")
     @Operation(summary = "Buscar autores por nombre", description = "Busca autores que coincidan parcialmente con el nombre proporcionado")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Búsqueda realizada correctamente")
+            @ApiResponse(responseCode = "200", description = "Búsqueda realizada correctamente"),
+            @ApiResponse(responseCode = "304", description = "El resultado no ha cambiado", content = @Content)
     })
     public ResponseEntity<Page<AuthorDTO.AuthorSummary>> findAuthorsByName(
             @Parameter(description = "Texto a buscar en los nombres de autores", required = true, example = "García")
@@ -56,15 +65,21 @@ public class AuthorController {
             @Parameter(description = "Número de página (desde 0)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Tamaño de página", example = "10")
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(authorService.findAuthorsByName(name, page, size));
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.catalogVersion(false, "authors/search", name, page, size),
+                () -> authorService.findAuthorsByName(name, page, size));
     }
 
     @GetMapping
     @Operation(summary = "Listar todos los autores", description = "Obtiene una lista resumida de todos los autores")
-    @ApiResponse(responseCode = "200", description = "Lista de autores obtenida correctamente")
-    public ResponseEntity<List<AuthorDTO.AuthorSummary>> getAllAuthors() {
-        return ResponseEntity.ok(authorService.getAllAuthors());
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de autores obtenida correctamente"),
+            @ApiResponse(responseCode = "304", description = "La lista no ha cambiado", content = @Content)
+    })
+    public ResponseEntity<List<AuthorDTO.AuthorSummary>> getAllAuthors(WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.catalogVersion(false, "authors"),
+                authorService::getAllAuthors);
     }
 
     @PostMapping
@@ -138,10 +153,15 @@ public class AuthorController {
 
     @GetMapping("/popular")
     @Operation(summary = "Obtener autores más populares", description = "Obtiene los autores más populares basado en reservas recientes")
-    @ApiResponse(responseCode = "200", description = "Lista de autores populares obtenida correctamente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de autores populares obtenida correctamente"),
+            @ApiResponse(responseCode = "304", description = "La lista no ha cambiado", content = @Content)
+    })
     public ResponseEntity<List<AuthorDTO.AuthorSummary>> getMostPopularAuthors(
             @Parameter(description = "Número máximo de autores a devolver", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(authorService.getMostPopularAuthors(limit));
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.rankingVersion("authors/popular", limit),
+                () -> authorService.getMostPopularAuthors(limit));
     }
 }
\ No newline at end of file
@@ -1,16 +1,23 @@
 package com.epilogo.epilogo.controller;
 
 import com.epilogo.epilogo.dto.BookDTO;
+import com.epilogo.epilogo.service.AvailabilityCalendarService;
+import com.epilogo.epilogo.service.AvailabilityStreamService;
+import com.epilogo.epilogo.service.BookImportService;
 import com.epilogo.epilogo.service.BookService;
+import com.epilogo.epilogo.service.CatalogVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,8 +28,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
+import static com.epilogo.epilogo.utils.ConditionalResponses.conditional;
+
 @RestController
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
@@ -31,27 +43,39 @@ import java.util.List;
 public class BookController {
 
     private final BookService bookService;
+    private final CatalogVersionService catalogVersionService;
+    private final AvailabilityStreamService availabilityStreamService;
+    private final AvailabilityCalendarService availabilityCalendarService;
+    private final BookImportService bookImportService;
 
     @GetMapping("/{bookId}")
     @Operation(summary = "Obtener libro por ID", description = "Devuelve información completa de un libro")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Libro encontrado",
                     content = @Content(schema = @Schema(implementation = BookDTO.BookResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El libro no ha cambiado", content = @Content),
             @ApiResponse(responseCode = "404", description = "Libro no encontrado", content = @Content)
     })
     public ResponseEntity<BookDTO.BookResponse> getBookById(
             @Parameter(description = "ID del libro", required = true, example = "1")
-            @PathVariable Long bookId) {
-        return ResponseEntity.ok(bookService.getBookById(bookId));
+            @PathVariable Long bookId,
+            WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.bookVersion(bookId),
+                () -> bookService.getBookById(bookId));
     }
 
     @GetMapping
     @Operation(summary = "Buscar libros", description = "Busca libros según diferentes criterios con paginación")
-    @ApiResponse(responseCode = "200", description = "Búsqueda realizada correctamente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda realizada correctamente"),
+            @ApiResponse(responseCode = "304", description = "El resultado no ha cambiado", content = @Content)
+    })
     public ResponseEntity<Page<BookDTO.BookResponse>> searchBooks(
             @Parameter(description = "Criterios de búsqueda")
-            @ModelAttribute BookDTO.BookSearchRequest request) {
-        return ResponseEntity.ok(bookService.searchBooks(request));
+            @ModelAttribute BookDTO.BookSearchRequest request,
+            WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.catalogVersion(true, "books", request),
+                () -> bookService.searchBooks(request));
     }
 
     @PostMapping
@@ -70,6 +94,34 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(bookService.createBook(request));
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
+    @Operation(summary = "Importar libros desde CSV",
+            description = "Importa libros en bloque desde un CSV con cabecera: title, author, category y totalAmount son obligatorias; " +
+                    "description, isbn, availableAmount y publicationYear, opcionales. Los autores y categorías se buscan por nombre y se crean si no existen")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación realizada; las filas rechazadas se detallan en la respuesta",
+                    content = @Content(schema = @Schema(implementation = BookDTO.BookImportResult.class))),
+            @ApiResponse(responseCode = "400", description = "Fichero vacío o cabecera incompleta", content = @Content),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos suficientes", content = @Content)
+    })
+    public ResponseEntity<BookDTO.BookImportResult> importBooksCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(bookImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
+    @Operation(summary = "Importar libros desde NDJSON",
+            description = "Importa libros en bloque desde NDJSON, un objeto BookImportRow por línea")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación realizada; las filas rechazadas se detallan en la respuesta",
+                    content = @Content(schema = @Schema(implementation = BookDTO.BookImportResult.class))),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos suficientes", content = @Content)
+    })
+    public ResponseEntity<BookDTO.BookImportResult> importBooksNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(bookImportService.importNdjson(body));
+    }
+
     @PutMapping("/{bookId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
     @Operation(summary = "Actualizar libro", description = "Actualiza los datos de un libro existente")
@@ -124,10 +176,50 @@ public class BookController {
 
     @GetMapping("/popular")
     @Operation(summary = "Obtener libros más populares", description = "Obtiene los libros más reservados recientemente")
-    @ApiResponse(responseCode = "200", description = "Lista de libros populares obtenida correctamente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de libros populares obtenida correctamente"),
+            @ApiResponse(responseCode = "304", description = "La lista no ha cambiado", content = @Content)
+    })
     public ResponseEntity<List<BookDTO.BookSummary>> getMostPopularBooks(
             @Parameter(description = "Número máximo de libros a devolver", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(bookService.getMostPopularBooks(limit));
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.rankingVersion("books/popular", limit),
+                () -> bookService.getMostPopularBooks(limit));
+    }
+
+    @GetMapping("/{bookId}/availability")
+    @Operation(summary = "Calendario de disponibilidad del libro",
+            description = "Ejemplares libres cada día entre from y to (por defecto, desde hoy y durante 30 días) según las reservas pendientes y activas, " +
+                    "agrupados en tramos. Sirve para elegir las fechas de una reserva por adelantado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calendario obtenido correctamente",
+                    content = @Content(schema = @Schema(implementation = BookDTO.BookAvailabilityCalendar.class))),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido o demasiado largo", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Libro no encontrado", content = @Content)
+    })
+    public ResponseEntity<BookDTO.BookAvailabilityCalendar> getAvailabilityCalendar(
+            @Parameter(description = "ID del libro", required = true, example = "1")
+            @PathVariable Long bookId,
+            @Parameter(description = "Primer día del rango (por defecto, hoy)", example = "2023-06-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Último día del rango (por defecto, 30 días desde from)", example = "2023-06-30")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(availabilityCalendarService.getCalendar(bookId, from, to));
+    }
+
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Seguir la disponibilidad de libros",
+            description = "Abre un flujo Server-Sent Events que envía primero la disponibilidad actual de cada libro indicado y después cada cambio confirmado (eventos 'availability')")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo abierto",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = BookDTO.BookAvailabilityUpdate.class))),
+            @ApiResponse(responseCode = "400", description = "Lista de libros vacía o demasiado larga, o demasiadas conexiones abiertas", content = @Content)
+    })
+    public SseEmitter streamAvailability(
+            @Parameter(description = "IDs de los libros a seguir", required = true, example = "1,2,3")
+            @RequestParam List<Long> ids) {
+        return availabilityStreamService.subscribe(ids);
     }
-}
\ No newline at end of file
+}
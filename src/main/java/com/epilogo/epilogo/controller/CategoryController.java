@@ -2,6 +2,7 @@ package com.epilogo.epilogo.controller;
 
 import com.epilogo.epilogo.dto.CategoryDTO;
 import com.epilogo.epilogo.service.CategoryService;
+import com.epilogo.epilogo.service.CatalogVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -9,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +24,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
 import java.util.List;
 
+import static com.epilogo.epilogo.utils.ConditionalResponses.conditional;
+
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
@@ -30,25 +34,33 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping("/{categoryId}")
     @Operation(summary = "Obtener categoría por ID", description = "Devuelve información completa de una categoría y sus libros")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Categoría encontrada",
                     content = @Content(schema = @Schema(implementation = CategoryDTO.CategoryResponse.class))),
+            @ApiResponse(responseCode = "304", description = "La categoría no ha cambiado", content = @Content),
             @ApiResponse(responseCode = "404", description = "Categoría no encontrada", content = @Content)
     })
     public ResponseEntity<CategoryDTO.CategoryResponse> getCategoryById(
             @Parameter(description = "ID de la categoría", required = true, example = "1")
-            @PathVariable Long categoryId) {
-        return ResponseEntity.ok(categoryService.getCategoryById(categoryId));
+            @PathVariable Long categoryId,
+            WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.catalogVersion(false, "categories", categoryId),
+                () -> categoryService.getCategoryById(categoryId));
     }
 
     @GetMapping
     @Operation(summary = "Listar todas las categorías", description = "Obtiene una lista resumida de todas las categorías")
-    @ApiResponse(responseCode = "200", description = "Lista de categorías obtenida correctamente")
-    public ResponseEntity<List<CategoryDTO.CategorySummary>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de categorías obtenida correctamente"),
+            @ApiResponse(responseCode = "304", description = "La lista no ha cambiado", content = @Content)
+    })
+    public ResponseEntity<List<CategoryDTO.CategorySummary>> getAllCategories(WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.catalogVersion(false, "categories"),
+                categoryService::getAllCategories);
     }
 
     @PostMapping
@@ -122,10 +134,15 @@ public class CategoryController {
 
     @GetMapping("/popular")
     @Operation(summary = "Obtener categorías más populares", description = "Obtiene las categorías más populares basado en reservas recientes")
-    @ApiResponse(responseCode = "200", description = "Lista de categorías populares obtenida correctamente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de categorías populares obtenida correctamente"),
+            @ApiResponse(responseCode = "304", description = "La lista no ha cambiado", content = @Content)
+    })
     public ResponseEntity<List<CategoryDTO.CategorySummary>> getMostPopularCategories(
             @Parameter(description = "Número máximo de categorías a devolver", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(categoryService.getMostPopularCategories(limit));
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        return conditional(webRequest, catalogVersionService.rankingVersion("categories/popular", limit),
+                () -> categoryService.getMostPopularCategories(limit));
     }
 }
\ No newline at end of file
@@ -1,5 +1,10 @@
 package com.epilogo.epilogo.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -9,6 +14,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.Date;
@@ -17,17 +23,28 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/health")
+@RequiredArgsConstructor
 @Tag(name = "Health Check", description = "API para verificar el estado del servicio")
 public class HealthCheckController {
 
+    private final HealthEndpoint healthEndpoint;
+
     @GetMapping
-    @Operation(summary = "Verificar estado", description = "Devuelve información sobre el estado del servicio")
-    @ApiResponse(responseCode = "200", description = "Servicio disponible",
-            content = @Content(schema = @Schema(implementation = Map.class)))
+    @Operation(summary = "Verificar estado", description = "Devuelve el estado agregado del servicio (base de datos, disco, etc.) según Actuator")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Servicio disponible",
+                    content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "503", description = "Algún componente del servicio no está disponible",
+                    content = @Content(schema = @Schema(implementation = Map.class)))
+    })
     public ResponseEntity<Map<String, Object>> healthCheck() {
+        HealthComponent health = healthEndpoint.health();
+
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", health.getStatus().getCode());
         response.put("timestamp", new Date());
-        return ResponseEntity.ok(response);
+
+        HttpStatus httpStatus = Status.UP.equals(health.getStatus()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(httpStatus).body(response);
     }
-}
\ No newline at end of file
+}
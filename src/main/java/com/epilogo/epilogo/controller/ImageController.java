@@ -0,0 +1,71 @@
+package com.epilogo.epilogo.controller;
+
+import com.epilogo.epilogo.service.ImageCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proxy de imágenes públicas servidas desde la caché en disco de {@link ImageCacheService}.
+ * <p>
+ * La imagen se devuelve como {@link FileSystemResource} y Spring la copia por bloques a la respuesta, sin sendfile ni
+ * mapeo en memoria. Son ficheros pequeños y la copia no pesa frente a la red; a cambio Spring resuelve Content-Length,
+ * Range/206 y las precondiciones de ETag, mientras que el sendfile de Tomcat solo lo usa su servlet de estáticos. El
+ * fichero sigue reservado en la caché hasta que termina la petición, así que no se expulsa a mitad de la copia.
+ */
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+@Tag(name = "Imágenes", description = "Proxy de imágenes con URLs estables y cacheables")
+public class ImageController {
+
+    private final ImageCacheService imageCacheService;
+
+    @GetMapping("/{fileId}")
+    @Operation(summary = "Obtener imagen", description = "Devuelve el contenido de un archivo público. Soporta ETag, If-None-Match y peticiones Range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imagen encontrada"),
+            @ApiResponse(responseCode = "206", description = "Contenido parcial (petición Range)"),
+            @ApiResponse(responseCode = "304", description = "La imagen no ha cambiado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Imagen no encontrada", content = @Content)
+    })
+    public ResponseEntity<Resource> getImage(
+            @Parameter(description = "ID del archivo", required = true, example = "1")
+            @PathVariable Long fileId) {
+        ImageCacheService.CachedImage image = imageCacheService.getImage(fileId);
+        // El cuerpo se escribe después de devolver la respuesta: la reserva del archivo se libera al terminar la petición
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                "imageCacheLease." + fileId, () -> imageCacheService.release(fileId), RequestAttributes.SCOPE_REQUEST);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(image.etag())
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(image.file().getFileType() != null ?
+                        MediaType.parseMediaType(image.file().getFileType()) : MediaType.APPLICATION_OCTET_STREAM);
+
+        if (image.file().getUploadDate() != null) {
+            response.lastModified(image.file().getUploadDate().atZone(ZoneId.systemDefault()));
+        }
+
+        return response.body(new FileSystemResource(image.path()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.epilogo.epilogo.controller;
+
+import com.epilogo.epilogo.storage.LocalBlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Sirve los objetos de {@link LocalBlobStore} validando la firma de la URL.
+ * El fichero se devuelve como {@link FileSystemResource}: Spring fija Content-Length, atiende peticiones Range y lo
+ * copia por bloques a la respuesta sin cargarlo entero en memoria (no es una copia sin buffers tipo sendfile).
+ */
+@RestController
+@Profile("local-storage")
+@RequiredArgsConstructor
+@Hidden
+public class LocalFileController {
+
+    private final LocalBlobStore localBlobStore;
+
+    @GetMapping(LocalBlobStore.FILES_PATH + "**")
+    public ResponseEntity<Resource> serveFile(HttpServletRequest request,
+                                              @RequestParam(required = false) Long expires,
+                                              @RequestParam(required = false) String signature) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // La firma y la ruta en disco se calculan sobre la clave tal cual, no sobre su forma codificada en la URL
+        String key = UriUtils.decode(path.substring(LocalBlobStore.FILES_PATH.length()), StandardCharsets.UTF_8);
+
+        if (!localBlobStore.isValidSignature(key, expires, signature)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        Path file;
+        try {
+            file = localBlobStore.resolve(key);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (!Files.isRegularFile(file)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String contentType = Files.probeContentType(file);
+        return ResponseEntity.ok()
+                .contentType(contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+}
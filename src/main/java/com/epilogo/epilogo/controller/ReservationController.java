@@ -19,8 +19,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/reservations")
 @RequiredArgsConstructor
@@ -44,6 +42,22 @@ public class ReservationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.createReservation(request));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Reservar varios libros",
+            description = "Reserva varios libros para el usuario autenticado en una sola transacción. En modo ATOMIC (por defecto) " +
+                    "se reservan todos o ninguno; en modo BEST_EFFORT se reservan los disponibles y se informa del resto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Reserva realizada; el resultado de cada libro se detalla en la respuesta",
+                    content = @Content(schema = @Schema(implementation = ReservationDTO.ReservationBatchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos, libro repetido o, en modo ATOMIC, algún libro sin ejemplares disponibles", content = @Content),
+            @ApiResponse(responseCode = "404", description = "En modo ATOMIC, algún libro no existe", content = @Content)
+    })
+    public ResponseEntity<ReservationDTO.ReservationBatchResponse> createReservations(
+            @Parameter(description = "Libros a reservar y modo de reserva", required = true)
+            @RequestBody @Valid ReservationDTO.ReservationBatchCreateRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.createReservations(request));
+    }
+
     @GetMapping("/{reservationId}")
     @Operation(summary = "Obtener reserva por ID", description = "Devuelve información completa de una reserva")
     @ApiResponses(value = {
@@ -75,6 +89,23 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.updateReservation(reservationId, request));
     }
 
+    @PostMapping("/bulk-transition")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
+    @Operation(summary = "Cambiar estado de varias reservas",
+            description = "Cambia el estado de varias reservas en una sola transacción y devuelve el resultado de cada una " +
+                    "(solo para administradores y bibliotecarios). Las reservas que no existen o no admiten el cambio no impiden el resto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cambio realizado; el resultado de cada reserva se detalla en la respuesta",
+                    content = @Content(schema = @Schema(implementation = ReservationDTO.BulkTransitionResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos suficientes", content = @Content)
+    })
+    public ResponseEntity<ReservationDTO.BulkTransitionResponse> bulkTransition(
+            @Parameter(description = "Reservas y estado de destino", required = true)
+            @RequestBody @Valid ReservationDTO.BulkTransitionRequest request) {
+        return ResponseEntity.ok(reservationService.bulkTransition(request));
+    }
+
     @GetMapping
     @Operation(summary = "Buscar reservas", description = "Busca reservas según diferentes criterios con paginación")
     @ApiResponse(responseCode = "200", description = "Búsqueda realizada correctamente")
@@ -86,13 +117,21 @@ public class ReservationController {
 
     @GetMapping("/overdue")
     @PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
-    @Operation(summary = "Obtener reservas vencidas", description = "Obtiene todas las reservas vencidas (solo para administradores y bibliotecarios)")
+    @Operation(summary = "Obtener reservas vencidas",
+            description = "Obtiene las reservas vencidas de la más atrasada a la más reciente, paginadas por cursor, con los días de " +
+                    "retraso de cada una y, en la primera página, los agregados de todas (solo para administradores y bibliotecarios)")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de reservas vencidas obtenida correctamente"),
+            @ApiResponse(responseCode = "200", description = "Página de reservas vencidas obtenida correctamente",
+                    content = @Content(schema = @Schema(implementation = ReservationDTO.OverdueReservationsPage.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content),
             @ApiResponse(responseCode = "403", description = "No tiene permisos suficientes", content = @Content)
     })
-    public ResponseEntity<List<ReservationDTO.ReservationResponse>> getOverdueReservations() {
-        return ResponseEntity.ok(reservationService.getOverdueReservations());
+    public ResponseEntity<ReservationDTO.OverdueReservationsPage> getOverdueReservations(
+            @Parameter(description = "Cursor devuelto como nextCursor por la página anterior; vacío para la primera", example = "2024-03-01:1532")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 200)", example = "50")
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(reservationService.getOverdueReservations(cursor, size));
     }
 
     @DeleteMapping("/{reservationId}")
@@ -1,9 +1,11 @@
 package com.epilogo.epilogo.controller;
 
 import com.epilogo.epilogo.dto.UserDTO;
+import com.epilogo.epilogo.service.UserProvisioningService;
 import com.epilogo.epilogo.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +21,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -29,6 +33,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
 
     @GetMapping("/me")
     @Operation(summary = "Obtener usuario actual", description = "Devuelve la información del usuario autenticado")
@@ -148,4 +153,34 @@ public class UserController {
         userService.deleteUser(userId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/provisioning", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Alta masiva de usuarios",
+            description = "Valida un CSV con cabecera userName, email y password e inicia en segundo plano el alta de los usuarios " +
+                    "con el rol ROLE_USER (solo para administradores). No se emiten tokens; el progreso se consulta con el ID devuelto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Alta iniciada; las filas rechazadas en la lectura ya figuran en la respuesta",
+                    content = @Content(schema = @Schema(implementation = UserDTO.UserProvisioningJob.class))),
+            @ApiResponse(responseCode = "400", description = "Fichero vacío, cabecera incompleta, demasiadas filas o alta ya en curso", content = @Content),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos de administrador", content = @Content)
+    })
+    public ResponseEntity<UserDTO.UserProvisioningJob> provisionUsers(InputStream body) throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(userProvisioningService.startProvisioning(body));
+    }
+
+    @GetMapping("/provisioning/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Progreso del alta masiva", description = "Devuelve el progreso y los errores de un alta masiva de usuarios (solo para administradores)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Progreso obtenido correctamente",
+                    content = @Content(schema = @Schema(implementation = UserDTO.UserProvisioningJob.class))),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos de administrador", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Alta masiva no encontrada o ya caducada", content = @Content)
+    })
+    public ResponseEntity<UserDTO.UserProvisioningJob> getProvisioningJob(
+            @Parameter(description = "ID del alta masiva", required = true)
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(userProvisioningService.getJob(jobId));
+    }
+}
@@ -0,0 +1,82 @@
+package com.epilogo.epilogo.controller;
+
+import com.epilogo.epilogo.dto.WaitlistDTO;
+import com.epilogo.epilogo.service.WaitlistService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+@Tag(name = "Lista de espera", description = "API para esperar ejemplares de libros sin disponibilidad")
+@SecurityRequirement(name = "bearerAuth")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    @Operation(summary = "Entrar en la lista de espera",
+            description = "Apunta al usuario autenticado en la cola de un libro sin ejemplares disponibles. Cuando se libere un " +
+                    "ejemplar se le asignará automáticamente como reserva pendiente, sin necesidad de reintentar la reserva")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Entrada creada con su posición en la cola",
+                    content = @Content(schema = @Schema(implementation = WaitlistDTO.WaitlistEntryResponse.class))),
+            @ApiResponse(responseCode = "400", description = "El libro tiene ejemplares disponibles o el usuario ya está en su cola", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Libro no encontrado", content = @Content)
+    })
+    public ResponseEntity<WaitlistDTO.WaitlistEntryResponse> join(
+            @Parameter(description = "Libro a esperar", required = true)
+            @RequestBody @Valid WaitlistDTO.WaitlistJoinRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.join(request));
+    }
+
+    @GetMapping
+    @Operation(summary = "Mis listas de espera", description = "Devuelve las colas en las que espera el usuario autenticado y su posición en cada una")
+    @ApiResponse(responseCode = "200", description = "Listas de espera obtenidas correctamente")
+    public ResponseEntity<List<WaitlistDTO.WaitlistEntryResponse>> getMyEntries() {
+        return ResponseEntity.ok(waitlistService.getMyEntries());
+    }
+
+    @GetMapping("/{entryId}")
+    @Operation(summary = "Consultar entrada", description = "Devuelve una entrada de la lista de espera con su posición actual")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entrada encontrada",
+                    content = @Content(schema = @Schema(implementation = WaitlistDTO.WaitlistEntryResponse.class))),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos para ver esta entrada", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Entrada no encontrada", content = @Content)
+    })
+    public ResponseEntity<WaitlistDTO.WaitlistEntryResponse> getEntry(
+            @Parameter(description = "ID de la entrada", required = true, example = "42")
+            @PathVariable Long entryId) {
+        return ResponseEntity.ok(waitlistService.getEntry(entryId));
+    }
+
+    @DeleteMapping("/{entryId}")
+    @Operation(summary = "Salir de la lista de espera", description = "Retira una entrada de la cola")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Entrada retirada correctamente"),
+            @ApiResponse(responseCode = "400", description = "La entrada ya no está en espera", content = @Content),
+            @ApiResponse(responseCode = "403", description = "No tiene permisos para retirar esta entrada", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Entrada no encontrada", content = @Content)
+    })
+    public ResponseEntity<Void> leave(
+            @Parameter(description = "ID de la entrada", required = true, example = "42")
+            @PathVariable Long entryId) {
+        waitlistService.leave(entryId);
+        return ResponseEntity.noContent().build();
+    }
+}
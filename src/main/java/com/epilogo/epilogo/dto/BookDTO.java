@@ -10,7 +10,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class BookDTO {
 
@@ -184,4 +186,142 @@ public class BookDTO {
         @Schema(description = "Dirección del ordenamiento (asc o desc)", example = "asc")
         private String sortDirection;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "BookAvailabilityUpdate", description = "Disponibilidad actual de un libro, enviada por el flujo de eventos")
+    public static class BookAvailabilityUpdate {
+        @Schema(description = "Identificador único del libro", example = "789")
+        private Long bookId;
+
+        @Schema(description = "Cantidad disponible para préstamo", example = "3")
+        private Integer availableAmount;
+
+        @Schema(description = "Estado actual del libro", example = "AVAILABLE")
+        private Book.BookStatus bookStatus;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "BookAvailabilityCalendar", description = "Ejemplares libres de un libro día a día en un rango de fechas, según sus reservas pendientes y activas")
+    public static class BookAvailabilityCalendar {
+        @Schema(description = "Identificador único del libro", example = "789")
+        private Long bookId;
+
+        @Schema(description = "Cantidad total de ejemplares", example = "5")
+        private Integer totalAmount;
+
+        @Schema(description = "Primer día consultado", example = "2023-06-01")
+        private LocalDate from;
+
+        @Schema(description = "Último día consultado", example = "2023-06-30")
+        private LocalDate to;
+
+        @Schema(description = "Mínimo de ejemplares libres en todo el rango; si es mayor que cero se puede reservar el rango completo", example = "1")
+        private Integer minAvailable;
+
+        @Schema(description = "Primer día del rango con algún ejemplar libre; null si no hay ninguno", example = "2023-06-12")
+        private LocalDate firstAvailableDate;
+
+        @Schema(description = "Tramos consecutivos del rango con el mismo número de ejemplares libres")
+        private List<AvailabilityPeriod> periods;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "AvailabilityPeriod", description = "Tramo de días con el mismo número de ejemplares reservados")
+    public static class AvailabilityPeriod {
+        @Schema(description = "Primer día del tramo", example = "2023-06-01")
+        private LocalDate from;
+
+        @Schema(description = "Último día del tramo", example = "2023-06-11")
+        private LocalDate to;
+
+        @Schema(description = "Ejemplares comprometidos por reservas pendientes o activas", example = "5")
+        private Integer reserved;
+
+        @Schema(description = "Ejemplares libres", example = "0")
+        private Integer available;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "BookImportRow", description = "Fila de importación masiva (una línea NDJSON o un registro CSV con estas columnas)")
+    public static class BookImportRow {
+        @Schema(description = "Título del libro", example = "Cien Años de Soledad", required = true)
+        private String title;
+
+        @Schema(description = "Descripción del libro")
+        private String description;
+
+        @Schema(description = "Código ISBN del libro", example = "978-3-16-148410-0")
+        private String isbn;
+
+        @Schema(description = "Nombre del autor; se crea si no existe", example = "Gabriel García Márquez", required = true)
+        private String author;
+
+        @Schema(description = "Nombre de la categoría; se crea si no existe", example = "Novela", required = true)
+        private String category;
+
+        @Schema(description = "Cantidad total de ejemplares", example = "10", required = true)
+        private Integer totalAmount;
+
+        @Schema(description = "Cantidad de ejemplares disponibles; por defecto, el total", example = "10")
+        private Integer availableAmount;
+
+        @Schema(description = "Año de publicación", example = "1967")
+        private Integer publicationYear;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "BookImportError", description = "Fila rechazada en una importación masiva")
+    public static class BookImportError {
+        @Schema(description = "Número de línea de la fila en el fichero (la cabecera CSV es la línea 1)", example = "42")
+        private long line;
+
+        @Schema(description = "Motivo del rechazo", example = "La cantidad total debe ser al menos 1")
+        private String message;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "BookImportResult", description = "Resultado de una importación masiva de libros")
+    public static class BookImportResult {
+        @Schema(description = "Filas leídas", example = "100000")
+        private long totalRows;
+
+        @Schema(description = "Libros creados", example = "99870")
+        private long imported;
+
+        @Schema(description = "Filas rechazadas", example = "130")
+        private long failed;
+
+        @Schema(description = "Autores creados durante la importación", example = "1520")
+        private int authorsCreated;
+
+        @Schema(description = "Categorías creadas durante la importación", example = "3")
+        private int categoriesCreated;
+
+        @Schema(description = "Duración de la importación en milisegundos", example = "4200")
+        private long elapsedMillis;
+
+        @Schema(description = "Filas rechazadas con su motivo; se limita a las primeras books.import.max-reported-errors")
+        private List<BookImportError> errors;
+
+        @Schema(description = "Indica si hay más filas rechazadas de las que se listan en errors", example = "false")
+        private boolean errorsTruncated;
+    }
 }
@@ -0,0 +1,68 @@
+package com.epilogo.epilogo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+public class CacheDTO {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "CacheRegionStatistics", description = "Estadísticas de una región de la caché de segundo nivel")
+    public static class RegionStatistics {
+        @Schema(description = "Nombre de la región", example = "authors")
+        private String region;
+
+        @Schema(description = "Lecturas servidas desde la caché", example = "1520")
+        private long hitCount;
+
+        @Schema(description = "Lecturas que tuvieron que ir a la base de datos", example = "37")
+        private long missCount;
+
+        @Schema(description = "Entradas añadidas a la caché", example = "37")
+        private long putCount;
+
+        @Schema(description = "Entradas actualmente en memoria (-1 si el proveedor no lo informa)", example = "35")
+        private long elementCount;
+
+        @Schema(description = "Proporción de aciertos entre 0 y 1", example = "0.976")
+        private double hitRatio;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "CacheStatisticsResponse", description = "Estadísticas de la caché de segundo nivel y de la caché de consultas")
+    public static class CacheStatisticsResponse {
+        @Schema(description = "Aciertos totales de la caché de segundo nivel", example = "4210")
+        private long secondLevelHitCount;
+
+        @Schema(description = "Fallos totales de la caché de segundo nivel", example = "120")
+        private long secondLevelMissCount;
+
+        @Schema(description = "Proporción de aciertos de la caché de segundo nivel", example = "0.972")
+        private double secondLevelHitRatio;
+
+        @Schema(description = "Aciertos de la caché de consultas", example = "830")
+        private long queryCacheHitCount;
+
+        @Schema(description = "Fallos de la caché de consultas", example = "4")
+        private long queryCacheMissCount;
+
+        @Schema(description = "Proporción de aciertos de la caché de consultas", example = "0.995")
+        private double queryCacheHitRatio;
+
+        @Schema(description = "Segundos desde que se empezaron a acumular las estadísticas", example = "86400")
+        private long collectedForSeconds;
+
+        @Schema(description = "Detalle por región")
+        private List<RegionStatistics> regions;
+    }
+}
@@ -1,8 +1,12 @@
 package com.epilogo.epilogo.dto;
 
 import com.epilogo.epilogo.model.Reservation.ReservationStatus;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +15,8 @@ import lombok.NoArgsConstructor;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Schema(description = "DTOs relacionados con la gestión de reservas de libros")
 public class ReservationDTO {
@@ -30,7 +36,7 @@ public class ReservationDTO {
         @Schema(description = "Datos resumidos del libro reservado")
         private BookDTO.BookSummary book;
 
-        @Schema(description = "Fecha en que se realizó la reserva", example = "2023-05-15")
+        @Schema(description = "Primer día del préstamo: la fecha de la reserva o, si se hizo por adelantado, la fecha pedida", example = "2023-05-15")
         private LocalDate reservationDate;
 
         @Schema(description = "Fecha prevista para la devolución", example = "2023-06-15")
@@ -42,8 +48,14 @@ public class ReservationDTO {
         @Schema(description = "Fecha real de devolución (si ya fue devuelto)", example = "2023-06-10")
         private LocalDate actualReturnDate;
 
+        @Schema(description = "Fin del plazo para recoger el ejemplar, si se asignó desde la lista de espera", example = "2023-05-17T10:00:00")
+        private LocalDateTime holdExpiresAt;
+
         @Schema(description = "Indica si la reserva está vencida (no devuelta después de la fecha esperada)", example = "false")
         private Boolean isOverdue;
+
+        @Schema(description = "Días de retraso; solo en el listado de reservas vencidas", example = "5")
+        private Integer daysOverdue;
     }
 
     @Data
@@ -56,12 +68,87 @@ public class ReservationDTO {
         @Schema(description = "ID del libro a reservar", example = "1", required = true)
         private Long bookId;
 
+        @FutureOrPresent(message = "La fecha de inicio no puede ser anterior a hoy")
+        @Schema(description = "Primer día del préstamo; si se omite, hoy. Una fecha futura reserva el libro por adelantado", example = "2023-06-01")
+        private LocalDate startDate;
+
         @NotNull(message = "La fecha de devolución estimada es obligatoria")
         @Future(message = "La fecha de devolución estimada debe ser en el futuro")
         @Schema(description = "Fecha estimada de devolución", example = "2023-06-15", required = true)
         private LocalDate expectedReturnDate;
     }
 
+    @Schema(description = "Comportamiento de una reserva de varios libros cuando alguno no se puede reservar")
+    public enum CheckoutMode {
+        @Schema(description = "Se reservan todos los libros o ninguno")
+        ATOMIC,
+        @Schema(description = "Se reservan los libros disponibles y se informa del resto")
+        BEST_EFFORT
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "ReservationBatchCreateRequest", description = "Datos para reservar varios libros en una sola operación")
+    public static class ReservationBatchCreateRequest {
+        @NotEmpty(message = "Debe indicar al menos un libro")
+        @Size(max = 20, message = "No se pueden reservar más de 20 libros a la vez")
+        @Schema(description = "Libros a reservar, cada uno con su fecha de devolución estimada", required = true)
+        private List<@NotNull(message = "Los libros a reservar no pueden ser nulos") @Valid ReservationCreateRequest> items;
+
+        @Schema(description = "ATOMIC (por defecto) reserva todos o ninguno; BEST_EFFORT reserva los que se pueda", example = "ATOMIC")
+        private CheckoutMode mode;
+    }
+
+    @Schema(description = "Resultado de uno de los libros de una reserva múltiple")
+    public enum BatchReservationOutcome {
+        @Schema(description = "Reserva creada")
+        RESERVED,
+        @Schema(description = "No quedan ejemplares disponibles")
+        UNAVAILABLE,
+        @Schema(description = "El libro no existe")
+        NOT_FOUND
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "ReservationBatchItem", description = "Resultado para uno de los libros de una reserva múltiple")
+    public static class ReservationBatchItem {
+        @Schema(description = "ID del libro", example = "1")
+        private Long bookId;
+
+        @Schema(description = "Resultado de la reserva del libro", example = "RESERVED")
+        private BatchReservationOutcome outcome;
+
+        @Schema(description = "Reserva creada, si el resultado es RESERVED")
+        private ReservationResponse reservation;
+
+        @Schema(description = "Motivo si no se pudo reservar", example = "No hay copias disponibles de este libro")
+        private String message;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "ReservationBatchResponse", description = "Resultado de una reserva de varios libros")
+    public static class ReservationBatchResponse {
+        @Schema(description = "Modo aplicado", example = "ATOMIC")
+        private CheckoutMode mode;
+
+        @Schema(description = "Libros solicitados", example = "3")
+        private int requested;
+
+        @Schema(description = "Reservas creadas", example = "3")
+        private int reserved;
+
+        @Schema(description = "Resultado por libro, en el orden de la petición")
+        private List<ReservationBatchItem> results;
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -105,4 +192,117 @@ public class ReservationDTO {
         @Schema(description = "Tamaño de página (para paginación)", example = "10")
         private Integer size;
     }
-}
\ No newline at end of file
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "ReservationBulkTransitionRequest", description = "Cambio de estado de varias reservas a la vez")
+    public static class BulkTransitionRequest {
+        @NotEmpty(message = "Debe indicar al menos una reserva")
+        @Size(max = 500, message = "No se pueden cambiar más de 500 reservas a la vez")
+        @Schema(description = "IDs de las reservas a cambiar", example = "[12, 15, 21]", required = true)
+        private List<@NotNull(message = "Los IDs de reserva no pueden ser nulos") Long> reservationIds;
+
+        @NotNull(message = "El estado de destino es obligatorio")
+        @Schema(description = "Estado al que pasan todas las reservas", example = "ACTIVE", required = true)
+        private ReservationStatus status;
+    }
+
+    @Schema(description = "Resultado del cambio de estado de una reserva dentro de un cambio masivo")
+    public enum BulkTransitionOutcome {
+        @Schema(description = "Estado cambiado")
+        APPLIED,
+        @Schema(description = "La reserva ya estaba en el estado de destino")
+        UNCHANGED,
+        @Schema(description = "El cambio de estado no está permitido")
+        REJECTED,
+        @Schema(description = "La reserva no existe")
+        NOT_FOUND
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "ReservationBulkTransitionItem", description = "Resultado para una de las reservas de un cambio masivo")
+    public static class BulkTransitionItem {
+        @Schema(description = "ID de la reserva", example = "12")
+        private Long reservationId;
+
+        @Schema(description = "ID del libro reservado", example = "3")
+        private Long bookId;
+
+        @Schema(description = "Estado antes del cambio", example = "PENDING")
+        private ReservationStatus previousStatus;
+
+        @Schema(description = "Estado tras el cambio", example = "ACTIVE")
+        private ReservationStatus status;
+
+        @Schema(description = "Resultado del cambio", example = "APPLIED")
+        private BulkTransitionOutcome outcome;
+
+        @Schema(description = "Motivo si el cambio no se aplicó", example = "Reserva no encontrada con ID: 12")
+        private String message;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "ReservationBulkTransitionResponse", description = "Resultado de un cambio de estado masivo")
+    public static class BulkTransitionResponse {
+        @Schema(description = "Reservas distintas solicitadas", example = "30")
+        private int requested;
+
+        @Schema(description = "Reservas cuyo estado se cambió", example = "28")
+        private int applied;
+
+        @Schema(description = "Reservas no cambiadas, por no existir, no permitirse el cambio o estar ya en ese estado", example = "2")
+        private int notApplied;
+
+        @Schema(description = "Resultado por reserva, en el orden de la petición")
+        private List<BulkTransitionItem> results;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "OverdueSummary", description = "Agregados de días de retraso de todas las reservas vencidas")
+    public static class OverdueSummary {
+        @Schema(description = "Reservas vencidas", example = "120")
+        private long total;
+
+        @Schema(description = "Mayor retraso en días", example = "64")
+        private int maxDaysOverdue;
+
+        @Schema(description = "Retraso medio en días", example = "9.5")
+        private double averageDaysOverdue;
+
+        @Schema(description = "Reservas con hasta 7 días de retraso", example = "80")
+        private long upToOneWeek;
+
+        @Schema(description = "Reservas con entre 8 y 30 días de retraso", example = "30")
+        private long oneWeekToOneMonth;
+
+        @Schema(description = "Reservas con más de 30 días de retraso", example = "10")
+        private long overOneMonth;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "OverdueReservationsPage", description = "Página de reservas vencidas, de la más atrasada a la más reciente")
+    public static class OverdueReservationsPage {
+        @Schema(description = "Reservas de la página")
+        private List<ReservationResponse> items;
+
+        @Schema(description = "Cursor para pedir la página siguiente; nulo si es la última", example = "2024-03-01:1532")
+        private String nextCursor;
+
+        @Schema(description = "Agregados de todas las reservas vencidas; solo en la primera página")
+        private OverdueSummary summary;
+    }
+}
@@ -73,4 +73,41 @@ public class S3FileDTO {
         @Schema(description = "Indica si el archivo es público", example = "true")
         private Boolean isPublic;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "StorageGcReport", description = "Resultado de una ejecución del recolector de archivos reemplazados o huérfanos")
+    public static class StorageGcReport {
+        @Schema(description = "Indica si la ejecución fue una simulación sin cambios", example = "false")
+        private boolean dryRun;
+
+        @Schema(description = "Inicio de la ejecución", example = "2024-05-18T03:30:00", format = "date-time")
+        private LocalDateTime startedAt;
+
+        @Schema(description = "Fin de la ejecución", example = "2024-05-18T03:30:04", format = "date-time")
+        private LocalDateTime finishedAt;
+
+        @Schema(description = "Archivos marcados por haber sido reemplazados por uno más reciente", example = "42")
+        private long supersededMarked;
+
+        @Schema(description = "Archivos marcados porque su entidad ya no existe", example = "7")
+        private long orphanedMarked;
+
+        @Schema(description = "Registros de s3_files eliminados (o que se eliminarían en simulación)", example = "45")
+        private long rowsPurged;
+
+        @Schema(description = "Objetos borrados del almacenamiento (o que se borrarían en simulación)", example = "38")
+        private long objectsDeleted;
+
+        @Schema(description = "Bytes liberados en el almacenamiento", example = "15728640")
+        private long bytesReclaimed;
+
+        @Schema(description = "Objetos conservados porque otro archivo sigue usando la misma clave", example = "3")
+        private long objectsRetained;
+
+        @Schema(description = "Objetos que no se pudieron borrar", example = "0")
+        private long errors;
+    }
 }
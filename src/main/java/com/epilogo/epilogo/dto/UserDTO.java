@@ -134,4 +134,64 @@ public class UserDTO {
         @Schema(description = "Indica si el usuario está activo", example = "true", required = true)
         private Boolean isActive;
     }
+
+    @Schema(description = "Estado de un alta masiva de usuarios")
+    public enum ProvisioningStatus {
+        @Schema(description = "Se están creando los usuarios")
+        RUNNING,
+        @Schema(description = "Terminada; las filas rechazadas se detallan en errors")
+        COMPLETED,
+        @Schema(description = "Interrumpida por un error inesperado")
+        FAILED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "UserProvisioningError", description = "Fila rechazada en un alta masiva de usuarios")
+    public static class UserProvisioningError {
+        @Schema(description = "Número de línea de la fila en el CSV (la cabecera es la línea 1)", example = "42")
+        private long line;
+
+        @Schema(description = "Correo electrónico de la fila, si lo tiene", example = "alumno@colegio.edu")
+        private String email;
+
+        @Schema(description = "Motivo del rechazo", example = "El correo electrónico ya está registrado")
+        private String message;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "UserProvisioningJob", description = "Progreso de un alta masiva de usuarios")
+    public static class UserProvisioningJob {
+        @Schema(description = "Identificador del alta", example = "3f1c2a9e-8d4b-4c55-9e3a-1b2c3d4e5f60")
+        private String jobId;
+
+        @Schema(description = "Estado del alta", example = "RUNNING")
+        private ProvisioningStatus status;
+
+        @Schema(description = "Filas válidas leídas del CSV, pendientes o ya procesadas", example = "5000")
+        private long totalRows;
+
+        @Schema(description = "Filas procesadas hasta el momento", example = "2500")
+        private long processed;
+
+        @Schema(description = "Usuarios creados", example = "2480")
+        private long created;
+
+        @Schema(description = "Filas rechazadas, incluidas las que no superaron la validación inicial", example = "20")
+        private long failed;
+
+        @Schema(description = "Fecha y hora de inicio", format = "date-time")
+        private LocalDateTime startedAt;
+
+        @Schema(description = "Fecha y hora de fin, si ha terminado", format = "date-time")
+        private LocalDateTime finishedAt;
+
+        @Schema(description = "Filas rechazadas con su motivo; se limita a las primeras users.provisioning.max-reported-errors")
+        private List<UserProvisioningError> errors;
+    }
 }
@@ -0,0 +1,61 @@
+package com.epilogo.epilogo.dto;
+
+import com.epilogo.epilogo.model.WaitlistEntry.WaitlistStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "DTOs relacionados con la lista de espera de libros")
+public class WaitlistDTO {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "WaitlistJoinRequest", description = "Datos para entrar en la lista de espera de un libro")
+    public static class WaitlistJoinRequest {
+        @NotNull(message = "El ID del libro es obligatorio")
+        @Schema(description = "ID del libro sin ejemplares disponibles", example = "1", required = true)
+        private Long bookId;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "WaitlistEntryResponse", description = "Entrada de la lista de espera con su posición en la cola")
+    public static class WaitlistEntryResponse {
+        @Schema(description = "Identificador de la entrada", example = "42")
+        private Long entryId;
+
+        @Schema(description = "ID del libro esperado", example = "1")
+        private Long bookId;
+
+        @Schema(description = "Título del libro esperado", example = "Cien años de soledad")
+        private String bookTitle;
+
+        @Schema(description = "Estado de la entrada", example = "WAITING")
+        private WaitlistStatus status;
+
+        @Schema(description = "Posición en la cola (1 es el siguiente en recibir un ejemplar); nula si ya no espera", example = "3")
+        private Integer position;
+
+        @Schema(description = "Personas en la cola de este libro", example = "7")
+        private Integer queueLength;
+
+        @Schema(description = "ID de la reserva creada al asignar un ejemplar", example = "120")
+        private Long reservationId;
+
+        @Schema(description = "Fecha y hora de entrada en la cola")
+        private LocalDateTime createdAt;
+
+        @Schema(description = "Fecha y hora en que se asignó un ejemplar")
+        private LocalDateTime allocatedAt;
+    }
+}
@@ -0,0 +1,173 @@
+package com.epilogo.epilogo.event;
+
+import com.epilogo.epilogo.model.Book.BookStatus;
+import com.epilogo.epilogo.model.Reservation.ReservationStatus;
+import com.epilogo.epilogo.model.S3File.EntityType;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Eventos de dominio que publican las escrituras. Los oyentes locales los reciben tras el commit de la transacción
+ * que los originó y {@link PgNotifyEventRelay} los reenvía al resto de nodos, que los vuelven a publicar localmente.
+ * <p>
+ * Se serializan a JSON con el nombre del tipo en la propiedad {@code type}; solo viajan identificadores y valores
+ * pequeños, nunca entidades.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = DomainEvent.BookChanged.class, name = "book"),
+        @JsonSubTypes.Type(value = DomainEvent.BooksImported.class, name = "books-imported"),
+        @JsonSubTypes.Type(value = DomainEvent.AvailabilityChanged.class, name = "availability"),
+        @JsonSubTypes.Type(value = DomainEvent.ImageChanged.class, name = "image"),
+        @JsonSubTypes.Type(value = DomainEvent.ReservationStatusChanged.class, name = "reservation"),
+        @JsonSubTypes.Type(value = DomainEvent.WaitlistChanged.class, name = "waitlist"),
+        @JsonSubTypes.Type(value = DomainEvent.AuthorChanged.class, name = "author"),
+        @JsonSubTypes.Type(value = DomainEvent.CategoryChanged.class, name = "category"),
+        @JsonSubTypes.Type(value = DomainEvent.Resync.class, name = "resync")
+})
+public sealed interface DomainEvent {
+
+    /**
+     * Parte del catálogo afectada por el evento, o {@code null} si no afecta a ninguna respuesta del catálogo.
+     */
+    Source source();
+
+    /**
+     * Clave de coalescencia: de varios eventos con la misma clave dentro de una ventana de envío solo viaja el último.
+     */
+    String key();
+
+    enum Source {
+        BOOK,
+        AUTHOR,
+        CATEGORY,
+        RESERVATION
+    }
+
+    record BookChanged(Long bookId) implements DomainEvent {
+        @Override
+        public Source source() {
+            return Source.BOOK;
+        }
+
+        @Override
+        public String key() {
+            return "book:" + bookId;
+        }
+    }
+
+    /**
+     * Alta masiva de libros: un único evento por lote de importación en lugar de uno por libro.
+     */
+    record BooksImported(int count) implements DomainEvent {
+        @Override
+        public Source source() {
+            return Source.BOOK;
+        }
+
+        @Override
+        public String key() {
+            return "books-imported";
+        }
+    }
+
+    record AvailabilityChanged(Long bookId, Integer availableAmount, Integer totalAmount, BookStatus bookStatus)
+            implements DomainEvent {
+        @Override
+        public Source source() {
+            return Source.BOOK;
+        }
+
+        @Override
+        public String key() {
+            return "availability:" + bookId;
+        }
+    }
+
+    record ImageChanged(EntityType entityType, Long entityId, Long fileId) implements DomainEvent {
+        @Override
+        public Source source() {
+            return switch (entityType) {
+                case BOOK -> Source.BOOK;
+                case AUTHOR -> Source.AUTHOR;
+                case CATEGORY -> Source.CATEGORY;
+                case USER -> null;
+            };
+        }
+
+        @Override
+        public String key() {
+            return "image:" + entityType + ":" + entityId;
+        }
+    }
+
+    /**
+     * Cambio de estado de una reserva; {@code status} es {@code null} si la reserva se ha eliminado.
+     */
+    record ReservationStatusChanged(Long reservationId, Long bookId, ReservationStatus status) implements DomainEvent {
+        @Override
+        public Source source() {
+            return Source.RESERVATION;
+        }
+
+        @Override
+        public String key() {
+            return "reservation:" + reservationId;
+        }
+    }
+
+    /**
+     * Alta ({@code waiting = true}) o salida de una entrada de la lista de espera de un libro. No afecta al catálogo;
+     * mantiene al día las colas en memoria de todos los nodos.
+     */
+    record WaitlistChanged(Long bookId, Long entryId, boolean waiting) implements DomainEvent {
+        @Override
+        public Source source() {
+            return null;
+        }
+
+        @Override
+        public String key() {
+            return "waitlist:" + entryId;
+        }
+    }
+
+    record AuthorChanged(Long authorId) implements DomainEvent {
+        @Override
+        public Source source() {
+            return Source.AUTHOR;
+        }
+
+        @Override
+        public String key() {
+            return "author:" + authorId;
+        }
+    }
+
+    record CategoryChanged(Long categoryId) implements DomainEvent {
+        @Override
+        public Source source() {
+            return Source.CATEGORY;
+        }
+
+        @Override
+        public String key() {
+            return "category:" + categoryId;
+        }
+    }
+
+    /**
+     * Se han podido perder eventos (por ejemplo, al reconectar el canal entre nodos): hay que invalidarlo todo.
+     */
+    record Resync() implements DomainEvent {
+        @Override
+        public Source source() {
+            return null;
+        }
+
+        @Override
+        public String key() {
+            return "resync";
+        }
+    }
+}
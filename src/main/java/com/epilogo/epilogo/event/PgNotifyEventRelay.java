@@ -0,0 +1,286 @@
+package com.epilogo.epilogo.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import javax.sql.DataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reenvía los {@link DomainEvent} entre instancias de la aplicación usando LISTEN/NOTIFY de PostgreSQL.
+ * <p>
+ * Salida: los eventos locales confirmados se acumulan y cada {@code events.relay.flush-interval} se envían en uno o
+ * varios NOTIFY, coalesciendo los que comparten clave. Entrada: un hilo dedicado mantiene su propia conexión en
+ * LISTEN y vuelve a publicar localmente los eventos de otros nodos, marcándolos para que no se reenvíen de nuevo.
+ * <p>
+ * NOTIFY no es persistente: si la conexión de escucha se cae, al reconectar se publica {@link DomainEvent.Resync}
+ * para invalidar todo lo que se haya podido perder. Si falla un envío, sus eventos vuelven a la cola y salen en el
+ * siguiente, salvo los que entretanto ha sustituido un cambio más reciente de la misma clave.
+ * <p>
+ * La conexión de escucha se abre con {@link DriverManager}, fuera del pool, con la URL, las credenciales y las
+ * propiedades del driver del propio pool Hikari: vive mientras el nodo está activo y no debe restar conexiones a las
+ * peticiones ni que el pool la recicle. Se toman del pool y no de {@code spring.datasource} porque en el perfil
+ * {@code render} el pool lo construye {@code DatabaseConfig} a partir de {@code DB_HOST}, {@code DB_NAME}, etc.
+ */
+@Component
+@ConditionalOnProperty(name = "events.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+@Hidden
+public class PgNotifyEventRelay {
+
+    /** Límite de PostgreSQL para el payload de NOTIFY (8000 bytes) con margen para la envoltura. */
+    private static final int MAX_PAYLOAD_BYTES = 7500;
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long MAX_RECONNECT_BACKOFF_MILLIS = 30_000;
+
+    private static final ThreadLocal<Boolean> REMOTE_DISPATCH = ThreadLocal.withInitial(() -> false);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String channel;
+    private final Duration flushInterval;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, DomainEvent> pending = new LinkedHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("event-relay-flush").daemon().factory());
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PgNotifyEventRelay(DataSource dataSource,
+                              JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${events.relay.channel:epilogo_domain_events}") String channel,
+                              @Value("${events.relay.flush-interval:PT0.05S}") Duration flushInterval) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.channel = channel;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Envoltura de un NOTIFY: el nodo de origen permite ignorar los propios, que PostgreSQL también entrega.
+     */
+    record Envelope(String origin, List<DomainEvent> events) {
+    }
+
+    /**
+     * Indica si el hilo actual está publicando eventos recibidos de otro nodo.
+     */
+    public static boolean isRemoteDispatch() {
+        return REMOTE_DISPATCH.get();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        listener = Thread.ofPlatform().name("event-relay-listen").daemon().start(this::listen);
+        log.info("Domain event relay started on channel {} as node {}", channel, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        flush();
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        if (isRemoteDispatch()) {
+            return;
+        }
+        synchronized (pending) {
+            // Reinsertar para que el orden refleje el último cambio de cada clave
+            pending.remove(event.key());
+            pending.put(event.key(), event);
+        }
+    }
+
+    void flush() {
+        List<DomainEvent> events;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            events = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        List<List<DomainEvent>> chunks;
+        try {
+            chunks = toChunks(events);
+        } catch (JsonProcessingException e) {
+            // No se puede serializar: reintentarlo no serviría de nada
+            log.warn("Could not serialize {} domain events: {}", events.size(), e.getMessage());
+            return;
+        }
+
+        int sent = 0;
+        try {
+            for (List<DomainEvent> chunk : chunks) {
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel,
+                        objectMapper.writeValueAsString(new Envelope(nodeId, chunk)));
+                sent++;
+            }
+        } catch (Exception e) {
+            List<DomainEvent> unsent = chunks.subList(sent, chunks.size()).stream().flatMap(List::stream).toList();
+            log.warn("Could not relay {} domain events, retrying on the next flush: {}", unsent.size(), e.getMessage());
+            requeue(unsent);
+        }
+    }
+
+    /**
+     * Devuelve a la cola eventos no enviados, por delante de los llegados después. Si entretanto ha llegado otro con
+     * la misma clave, se queda el nuevo.
+     */
+    private void requeue(List<DomainEvent> unsent) {
+        synchronized (pending) {
+            Map<String, DomainEvent> newer = new LinkedHashMap<>(pending);
+            pending.clear();
+            for (DomainEvent event : unsent) {
+                if (!newer.containsKey(event.key())) {
+                    pending.put(event.key(), event);
+                }
+            }
+            pending.putAll(newer);
+        }
+    }
+
+    private List<List<DomainEvent>> toChunks(List<DomainEvent> events) throws JsonProcessingException {
+        List<List<DomainEvent>> chunks = new ArrayList<>();
+        List<DomainEvent> chunk = new ArrayList<>();
+        int chunkBytes = 0;
+
+        for (DomainEvent event : events) {
+            int eventBytes = objectMapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8).length;
+            if (!chunk.isEmpty() && chunkBytes + eventBytes > MAX_PAYLOAD_BYTES) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(event);
+            chunkBytes += eventBytes + 1;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    private void listen() {
+        long backoff = 1000;
+        boolean reconnecting = false;
+
+        while (running) {
+            try (Connection connection = openListenConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                backoff = 1000;
+
+                if (reconnecting) {
+                    log.info("Domain event relay reconnected, invalidating local caches");
+                    dispatch(List.of(new DomainEvent.Resync()));
+                }
+                reconnecting = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Domain event relay lost its listen connection, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_RECONNECT_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Conexión propia con los mismos datos que el pool de la aplicación.
+     */
+    private Connection openListenConnection() throws SQLException {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        Properties properties = new Properties();
+        properties.putAll(pool.getDataSourceProperties());
+        if (pool.getUsername() != null) {
+            properties.setProperty("user", pool.getUsername());
+        }
+        if (pool.getPassword() != null) {
+            properties.setProperty("password", pool.getPassword());
+        }
+        return DriverManager.getConnection(pool.getJdbcUrl(), properties);
+    }
+
+    private void receive(String payload) {
+        try {
+            Envelope envelope = objectMapper.readValue(payload, Envelope.class);
+            if (!nodeId.equals(envelope.origin())) {
+                dispatch(envelope.events());
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed domain event notification: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(List<DomainEvent> events) {
+        REMOTE_DISPATCH.set(true);
+        try {
+            events.forEach(eventPublisher::publishEvent);
+        } finally {
+            REMOTE_DISPATCH.remove();
+        }
+    }
+}
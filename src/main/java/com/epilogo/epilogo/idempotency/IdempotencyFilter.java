@@ -0,0 +1,286 @@
+package com.epilogo.epilogo.idempotency;
+
+import com.epilogo.epilogo.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Hace idempotentes los POST que los clientes móviles reintentan al perder la conexión: altas de reservas y subidas de
+ * imágenes. Si la petición trae la cabecera {@code Idempotency-Key}, la primera ejecución guarda su respuesta en
+ * {@link IdempotencyStore} y los reintentos con la misma clave la reciben tal cual, con la cabecera
+ * {@code Idempotent-Replayed}, sin volver a ejecutar el controlador.
+ * <p>
+ * Las claves son de cada usuario y van ligadas a la petición (ruta y cuerpo): reutilizar una con otra petición
+ * devuelve 422 y reintentar mientras la primera sigue en curso, 409. Las respuestas 5xx no se guardan para que se pueda
+ * reintentar con la misma clave; si la petición terminó pero su respuesta no se pudo guardar, la clave sigue reclamada
+ * hasta {@code idempotency.claim-timeout} y los reintentos reciben 409 en lugar de repetirla. Se registra como filtro
+ * de servlet normal, después de la cadena de Spring Security.
+ */
+@Component
+@Slf4j
+@Hidden
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * POST que admiten la cabecera. El identificador se acepta como cualquier segmento para que las plantillas de
+     * ruta de la documentación también coincidan.
+     */
+    private static final List<Pattern> ENDPOINTS = List.of(
+            Pattern.compile("/api/reservations(/batch)?"),
+            Pattern.compile("/api/books/[^/]+/cover"),
+            Pattern.compile("/api/authors/[^/]+/image"),
+            Pattern.compile("/api/categories/[^/]+/image"),
+            Pattern.compile("/api/users/[^/]+/profile-image"));
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore,
+                             ObjectMapper objectMapper,
+                             @Value("${idempotency.enabled:true}") boolean enabled) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Indica si un POST a esta ruta admite {@code Idempotency-Key}.
+     */
+    public static boolean appliesTo(String path) {
+        return ENDPOINTS.stream().anyMatch(endpoint -> endpoint.matcher(path).matches());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !appliesTo(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Solicitud inválida",
+                    "La cabecera " + IDEMPOTENCY_KEY_HEADER + " debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            // Sin usuario no hay a quién atribuir la clave; Spring Security ya rechaza estas rutas
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String owner = authentication.getName();
+
+        // El cuerpo se lee una vez para la huella y se vuelve a servir al controlador; las partes multipart se releen
+        HttpServletRequest body = isMultipart(request) ? request : new CachedBodyRequest(request);
+        String requestHash = requestHash(body);
+
+        IdempotencyStore.StoredResponse stored = idempotencyStore.find(owner, key);
+        if (stored == null) {
+            LocalDateTime claimedAt = idempotencyStore.claim(owner, key, requestHash);
+            if (claimedAt != null) {
+                execute(body, response, filterChain, owner, key, claimedAt, requestHash);
+                return;
+            }
+            // Otra petición con la misma clave se ha adelantado: o ya terminó o sigue en curso
+            stored = idempotencyStore.find(owner, key);
+            if (stored == null) {
+                writeError(response, HttpStatus.CONFLICT, "Conflicto",
+                        "Hay otra petición en curso con esta clave de idempotencia; reintente cuando termine");
+                return;
+            }
+        }
+
+        if (!stored.requestHash().equals(requestHash)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Clave de idempotencia reutilizada",
+                    "La clave de idempotencia ya se usó con una petición distinta");
+            return;
+        }
+        replay(response, stored);
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String owner, String key, LocalDateTime claimedAt, String requestHash)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean executed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            executed = wrapper.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            if (!executed) {
+                // La petición falló o lanzó una excepción: no hay respuesta que guardar y el cliente puede reintentar
+                // con la misma clave
+                idempotencyStore.release(owner, key, claimedAt);
+                wrapper.copyBodyToResponse();
+            }
+        }
+        if (!executed) {
+            return;
+        }
+
+        try {
+            idempotencyStore.complete(owner, key, claimedAt, requestHash, wrapper.getStatus(),
+                    wrapper.getContentType(), wrapper.getContentAsByteArray());
+        } catch (RuntimeException e) {
+            // La petición ya se ejecutó: la reclamación se mantiene hasta claim-timeout para que un reintento no la
+            // repita, y el cliente recibe su respuesta igualmente
+            log.warn("Could not store the response for idempotency key {}: {}", key, e.getMessage());
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.body() != null ? stored.body() : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String error, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(), error, message));
+    }
+
+    /**
+     * Huella SHA-256 de la petición: ruta, parámetros y cuerpo o, en multipart, nombre, fichero y contenido de cada
+     * parte.
+     */
+    private String requestHash(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+        update(digest, request.getRequestURI());
+        update(digest, request.getQueryString());
+
+        try (OutputStream sink = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            if (request instanceof CachedBodyRequest cached) {
+                sink.write(cached.body);
+            } else {
+                for (Part part : request.getParts()) {
+                    update(digest, part.getName());
+                    update(digest, part.getSubmittedFileName());
+                    update(digest, part.getContentType());
+                    try (InputStream in = part.getInputStream()) {
+                        in.transferTo(sink);
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update((value != null ? value : "").getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    /**
+     * Petición cuyo cuerpo ya se ha leído completo y se sirve de nuevo desde memoria.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.epilogo.epilogo.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Respuestas guardadas por clave de idempotencia. La tabla {@code idempotency_keys} es la fuente de verdad y la
+ * comparten todos los nodos; delante hay una caché LRU en memoria con las respuestas ya completadas, que no cambian
+ * hasta caducar, para que un reintento cueste una búsqueda en memoria y no una consulta.
+ * <p>
+ * Una clave se reclama antes de ejecutar la petición y se completa o se libera al terminar. Las reclamaciones
+ * caducan en {@code idempotency.claim-timeout} por si el nodo que las tenía se cae a mitad de la petición.
+ */
+@Component
+@Slf4j
+@Hidden
+public class IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final int cacheSize;
+
+    private final LinkedHashMap<String, StoredResponse> cache = new LinkedHashMap<>(128, 0.75f, true);
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${idempotency.claim-timeout:PT5M}") Duration claimTimeout,
+                            @Value("${idempotency.cache-size:10000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Respuesta completada de una petición: {@code requestHash} identifica la petición que la produjo.
+     */
+    public record StoredResponse(String requestHash, int status, String contentType, byte[] body,
+                                 LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Respuesta ya completada para la clave, o {@code null} si no la hay, está en curso o ha caducado.
+     */
+    public StoredResponse find(String owner, String key) {
+        String cacheKey = cacheKey(owner, key);
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (cache) {
+            StoredResponse cached = cache.get(cacheKey);
+            if (cached != null && cached.expiresAt().isAfter(now)) {
+                return cached;
+            }
+            cache.remove(cacheKey);
+        }
+
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT request_hash, response_status, content_type, response_body, expires_at FROM idempotency_keys " +
+                        "WHERE owner = ? AND idempotency_key = ? AND status = 'COMPLETED' AND expires_at > ?",
+                (rs, rowNum) -> new StoredResponse(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getBytes(4),
+                        rs.getTimestamp(5).toLocalDateTime()),
+                owner, key, now);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        remember(cacheKey, rows.getFirst());
+        return rows.getFirst();
+    }
+
+    /**
+     * Reclama la clave para ejecutar la petición. Devuelve el instante de la reclamación, que identifica a su dueño al
+     * completarla o liberarla, o {@code null} si otra petición la tiene en curso o ya completada y sin caducar.
+     */
+    public LocalDateTime claim(String owner, String key, String requestHash) {
+        // La columna guarda microsegundos: el instante debe compararse igual al leerlo de vuelta
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int claimed = jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (owner, idempotency_key, request_hash, status, created_at, expires_at) " +
+                        "VALUES (?, ?, ?, 'IN_PROGRESS', ?, ?) " +
+                        "ON CONFLICT (owner, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+                        "status = 'IN_PROGRESS', response_status = NULL, content_type = NULL, response_body = NULL, " +
+                        "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+                        "WHERE idempotency_keys.expires_at <= EXCLUDED.created_at",
+                owner, key, requestHash, now, now.plus(claimTimeout));
+        return claimed == 1 ? now : null;
+    }
+
+    /**
+     * Guarda la respuesta de una petición reclamada; desde ese momento los reintentos la reciben tal cual.
+     */
+    public void complete(String owner, String key, LocalDateTime claimedAt, String requestHash,
+                         int status, String contentType, byte[] body) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        int updated = jdbcTemplate.update(
+                "UPDATE idempotency_keys SET status = 'COMPLETED', response_status = ?, content_type = ?, response_body = ?, " +
+                        "expires_at = ? WHERE owner = ? AND idempotency_key = ? AND created_at = ? AND status = 'IN_PROGRESS'",
+                status, contentType, body, expiresAt, owner, key, claimedAt);
+        if (updated == 0) {
+            log.warn("Idempotency claim for key {} expired before its request completed", key);
+            return;
+        }
+        remember(cacheKey(owner, key), new StoredResponse(requestHash, status, contentType, body, expiresAt));
+    }
+
+    /**
+     * Libera una clave reclamada sin guardar respuesta, para que el cliente pueda reintentar con ella.
+     */
+    public void release(String owner, String key, LocalDateTime claimedAt) {
+        try {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE owner = ? AND idempotency_key = ? AND created_at = ? " +
+                    "AND status = 'IN_PROGRESS'", owner, key, claimedAt);
+        } catch (Exception e) {
+            // La reclamación caducará sola en claim-timeout
+            log.warn("Could not release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT1H}", initialDelayString = "${idempotency.purge-interval:PT1H}")
+    @Hidden
+    public void purgeExpired() {
+        try {
+            int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?", LocalDateTime.now());
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            log.error("Error purging expired idempotency keys: {}", e.getMessage(), e);
+        }
+    }
+
+    private void remember(String cacheKey, StoredResponse response) {
+        synchronized (cache) {
+            cache.put(cacheKey, response);
+            Iterator<String> eldest = cache.keySet().iterator();
+            while (cache.size() > cacheSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static String cacheKey(String owner, String key) {
+        return owner + '\n' + key;
+    }
+}
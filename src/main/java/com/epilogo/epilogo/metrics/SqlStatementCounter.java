@@ -0,0 +1,97 @@
+package com.epilogo.epilogo.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual, en total y por forma (la sentencia sin
+ * literales ni listas de parámetros). Hibernate crea la instancia a partir de
+ * {@code hibernate.session_factory.statement_inspector}, por eso el estado es estático y por hilo: cada petición
+ * se atiende en su propio hilo y {@link SqlStatementMetricsFilter} lo reinicia al empezar.
+ * <p>
+ * Pasa por aquí todo el SQL que ejecuta Hibernate, incluidas las consultas nativas de los repositorios; en las
+ * peticiones no se usa JDBC directo.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Stats> STATS = new ThreadLocal<>();
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final class Stats {
+        private int total;
+        private final Map<String, Integer> shapes = new HashMap<>();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Stats stats = STATS.get();
+        if (stats != null) {
+            stats.total++;
+            stats.shapes.merge(shapeOf(sql), 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    /**
+     * Empieza a contar en el hilo actual, descartando lo contado antes.
+     */
+    public static void start() {
+        STATS.set(new Stats());
+    }
+
+    /**
+     * Sentencias contadas desde {@link #start()}, o 0 si no se está contando en este hilo.
+     */
+    public static int current() {
+        Stats stats = STATS.get();
+        return stats != null ? stats.total : 0;
+    }
+
+    /**
+     * Formas de sentencia ejecutadas al menos {@code threshold} veces desde {@link #start()}, de más a menos
+     * repetida. Una forma que se repite con cada fila de un listado es el síntoma típico de un N+1.
+     */
+    public static Map<String, Integer> repeated(int threshold) {
+        Stats stats = STATS.get();
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        if (stats == null) {
+            return repeated;
+        }
+        stats.shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    /**
+     * Número de ejecuciones de la forma más repetida, o 0 si no se ha ejecutado nada.
+     */
+    public static int maxRepetitions() {
+        Stats stats = STATS.get();
+        if (stats == null) {
+            return 0;
+        }
+        return stats.shapes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public static void stop() {
+        STATS.remove();
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,46 @@
+package com.epilogo.epilogo.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+/**
+ * Añade a las respuestas el número de sentencias SQL ejecutadas hasta el momento de escribir el cuerpo
+ * ({@code X-Sql-Statement-Count}) y cuántas veces se repitió la forma de sentencia más frecuente
+ * ({@code X-Sql-Max-Repeated-Statement}). Los servicios devuelven DTOs ya construidos, así que al serializar no se
+ * ejecuta más SQL. Solo con {@code sql.diagnostics.enabled}.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "sql.diagnostics.enabled", havingValue = "true")
+@Hidden
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-Sql-Statement-Count";
+    public static final String MAX_REPEATED_HEADER = "X-Sql-Max-Repeated-Statement";
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  @NonNull MethodParameter returnType,
+                                  @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request,
+                                  @NonNull ServerHttpResponse response) {
+        response.getHeaders().set(STATEMENT_COUNT_HEADER, String.valueOf(SqlStatementCounter.current()));
+        response.getHeaders().set(MAX_REPEATED_HEADER, String.valueOf(SqlStatementCounter.maxRepetitions()));
+        return body;
+    }
+}
@@ -0,0 +1,98 @@
+package com.epilogo.epilogo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Registra cuántas sentencias SQL ejecuta cada petición, por endpoint ({@code epilogo.http.sql.statements}).
+ * Se ejecuta antes que la cadena de seguridad para incluir la carga del usuario autenticado.
+ * <p>
+ * Con {@code sql.diagnostics.enabled} (desarrollo y staging) además avisa en el log de las peticiones que repiten una
+ * misma forma de sentencia {@code sql.diagnostics.repeat-threshold} veces o más, y {@link SqlStatementHeaderAdvice}
+ * añade el recuento a la respuesta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+@Hidden
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGGED_SHAPE_LENGTH = 300;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean diagnosticsEnabled;
+    private final int repeatThreshold;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry,
+                                     @Value("${sql.diagnostics.enabled:false}") boolean diagnosticsEnabled,
+                                     @Value("${sql.diagnostics.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.diagnosticsEnabled = diagnosticsEnabled;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.current();
+            String uri = uriTemplate(request);
+
+            DistributionSummary.builder("epilogo.http.sql.statements")
+                    .description("Sentencias SQL ejecutadas por petición")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(statements);
+
+            if (diagnosticsEnabled) {
+                reportRepeatedStatements(request.getMethod(), uri, statements);
+            }
+            SqlStatementCounter.stop();
+        }
+    }
+
+    private void reportRepeatedStatements(String method, String uri, int statements) {
+        Map<String, Integer> repeated = SqlStatementCounter.repeated(repeatThreshold);
+        if (repeated.isEmpty()) {
+            log.debug("{} {} executed {} SQL statements", method, uri, statements);
+            return;
+        }
+
+        StringBuilder message = new StringBuilder();
+        repeated.forEach((shape, count) -> message.append("\n\t")
+                .append(count).append("x ")
+                .append(shape.length() > MAX_LOGGED_SHAPE_LENGTH ? shape.substring(0, MAX_LOGGED_SHAPE_LENGTH) + "..." : shape));
+        log.warn("Possible N+1: {} {} executed {} SQL statements, repeated shapes:{}", method, uri, statements, message);
+    }
+
+    private String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
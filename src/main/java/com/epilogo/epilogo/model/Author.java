@@ -6,10 +6,17 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,11 +27,14 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Table(name = "authors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 @Schema(description = "Entidad que representa un autor de libros")
 public class Author {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_author_id_seq", allocationSize = 50)
     @Column(name = "author_id")
     @Schema(description = "Identificador único del autor", example = "1")
     private Long authorId;
@@ -45,9 +55,17 @@ public class Author {
     @Schema(description = "Año de fallecimiento del autor (si aplica)", example = "2014")
     private Integer deathYear;
 
-    @Transient
-    @Schema(description = "URL de la imagen del autor", example = "https://epilogo-bucket.s3.amazonaws.com/authors/gabriel-garcia-marquez.jpg")
-    private String imageUrl;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "current_image_file_id", foreignKey = @ForeignKey(name = "fk_authors_current_image"))
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JsonIgnore
+    @Schema(description = "Imagen vigente del autor", hidden = true)
+    private S3File currentImage;
+
+    @Column(name = "updated_at", nullable = false)
+    @UpdateTimestamp
+    @Schema(description = "Fecha y hora de la última modificación, usada para las cabeceras ETag y Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedAt;
 
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference("author-books")
@@ -7,6 +7,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
@@ -27,7 +31,8 @@ import java.util.List;
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_book_id_seq", allocationSize = 50)
     @Column(name = "book_id")
     @Schema(description = "Identificador único del libro", example = "1")
     private Long bookId;
@@ -69,9 +74,12 @@ public class Book {
     @Schema(description = "Categoría a la que pertenece el libro", required = true)
     private Category category;
 
-    @Transient
-    @Schema(description = "URL de la imagen de portada del libro", example = "https://epilogo-bucket.s3.amazonaws.com/books/cien-anos-soledad.jpg")
-    private String imageUrl;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "current_image_file_id", foreignKey = @ForeignKey(name = "fk_books_current_image"))
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JsonIgnore
+    @Schema(description = "Imagen de portada vigente del libro", hidden = true)
+    private S3File currentImage;
 
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference("book-reservations")
@@ -83,6 +91,16 @@ public class Book {
     @Schema(description = "Fecha y hora de registro del libro en el sistema", accessMode = Schema.AccessMode.READ_ONLY)
     private LocalDateTime registerDate;
 
+    @Column(name = "updated_at", nullable = false)
+    @UpdateTimestamp
+    @Schema(description = "Fecha y hora de la última modificación, usada para las cabeceras ETag y Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "calendar_version", nullable = false)
+    @JsonIgnore
+    @Schema(description = "Altas de reservas en el calendario de disponibilidad del libro", hidden = true)
+    private long calendarVersion;
+
     @Column(name = "publication_year")
     @Schema(description = "Año de publicación del libro", example = "1967")
     private Integer publicationYear;
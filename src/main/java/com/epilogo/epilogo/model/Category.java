@@ -6,10 +6,17 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,11 +27,14 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Schema(description = "Entidad que representa una categoría de libros")
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_category_id_seq", allocationSize = 50)
     @Column(name = "category_id")
     @Schema(description = "Identificador único de la categoría", example = "1")
     private Long categoryId;
@@ -37,9 +47,17 @@ public class Category {
     @Schema(description = "Descripción detallada de la categoría", example = "Libros de ciencia ficción que exploran futuros alternativos y tecnología avanzada")
     private String description;
 
-    @Transient
-    @Schema(description = "URL de la imagen de la categoría", example = "https://epilogo-bucket.s3.amazonaws.com/categories/sci-fi.jpg")
-    private String imageUrl;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "current_image_file_id", foreignKey = @ForeignKey(name = "fk_categories_current_image"))
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JsonIgnore
+    @Schema(description = "Imagen vigente de la categoría", hidden = true)
+    private S3File currentImage;
+
+    @Column(name = "updated_at", nullable = false)
+    @UpdateTimestamp
+    @Schema(description = "Fecha y hora de la última modificación, usada para las cabeceras ETag y Last-Modified", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedAt;
 
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference("category-books")
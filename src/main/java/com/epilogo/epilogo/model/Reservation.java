@@ -28,7 +28,8 @@ import java.time.LocalDateTime;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_reservation_id_seq", allocationSize = 50)
     @Column(name = "reservation_id")
     @Schema(description = "Identificador único de la reserva", example = "1")
     private Long reservationId;
@@ -46,7 +47,7 @@ public class Reservation {
     private Book book;
 
     @Column(name = "reservation_date", nullable = false)
-    @Schema(description = "Fecha en que se realizó la reserva", example = "2023-05-15", required = true)
+    @Schema(description = "Primer día del préstamo: la fecha de la reserva o, si se hizo por adelantado, la fecha pedida", example = "2023-05-15", required = true)
     private LocalDate reservationDate;
 
     @Column(name = "expected_return_date", nullable = false)
@@ -62,6 +63,18 @@ public class Reservation {
     @Schema(description = "Fecha real de devolución del libro", example = "2023-06-10")
     private LocalDate actualReturnDate;
 
+    @Column(name = "hold_expires_at")
+    @Schema(description = "Fin del plazo para recoger un ejemplar asignado desde la lista de espera", example = "2023-05-17T10:00:00")
+    private LocalDateTime holdExpiresAt;
+
+    @Column(name = "overdue", nullable = false)
+    @Schema(description = "Indica si la reserva está vencida (activa y no devuelta después de la fecha esperada)", accessMode = Schema.AccessMode.READ_ONLY)
+    private boolean overdue;
+
+    @Column(name = "copy_held", nullable = false)
+    @Schema(description = "Indica si la reserva tiene descontado un ejemplar de la disponibilidad del libro", accessMode = Schema.AccessMode.READ_ONLY)
+    private boolean copyHeld;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     @Schema(description = "Fecha y hora de creación del registro", accessMode = Schema.AccessMode.READ_ONLY)
@@ -86,16 +99,31 @@ public class Reservation {
 
     @PrePersist
     public void prePersist() {
-        reservationDate = LocalDate.now();
+        if (reservationDate == null) {
+            reservationDate = LocalDate.now();
+        }
         status = ReservationStatus.PENDING;
+        refreshOverdue();
     }
 
-    @Transient
-    @Schema(description = "Indica si la reserva está vencida (no devuelta después de la fecha esperada)", accessMode = Schema.AccessMode.READ_ONLY)
-    public boolean isOverdue() {
-        if (status != ReservationStatus.COMPLETED && actualReturnDate == null) {
-            return LocalDate.now().isAfter(expectedReturnDate);
-        }
-        return false;
+    /**
+     * Cambiar el estado y devolver la variación de ejemplares disponibles del libro que supone: -1 si la reserva toma
+     * un ejemplar, +1 si lo devuelve y 0 si no cambia. ACTIVE siempre retiene un ejemplar, PENDING solo si ya lo tenía
+     * (una reserva por adelantado no lo toma hasta que se recoge) y COMPLETED y CANCELLED nunca
+     */
+    public int changeStatus(ReservationStatus newStatus) {
+        boolean holds = newStatus == ReservationStatus.ACTIVE || (newStatus == ReservationStatus.PENDING && copyHeld);
+        int delta = (copyHeld ? 1 : 0) - (holds ? 1 : 0);
+        copyHeld = holds;
+        status = newStatus;
+        return delta;
+    }
+
+    /**
+     * Recalcular el vencimiento al cambiar el estado o la fecha prevista; el paso de los días lo aplica el job diario
+     */
+    @PreUpdate
+    public void refreshOverdue() {
+        overdue = status == ReservationStatus.ACTIVE && expectedReturnDate != null && expectedReturnDate.isBefore(LocalDate.now());
     }
 }
\ No newline at end of file
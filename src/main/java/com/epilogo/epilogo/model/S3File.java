@@ -45,6 +45,10 @@ public class S3File {
     @Schema(description = "Clave del archivo en S3", example = "books/123/sample.pdf", required = true)
     private String s3Key;
 
+    @Column(name = "content_hash", length = 64)
+    @Schema(description = "Hash SHA-256 del contenido del archivo, usado para deduplicar subidas", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String contentHash;
+
     @Column(name = "file_name", length = 255)
     @Schema(description = "Nombre original del archivo", example = "mi-libro.pdf")
     private String fileName;
@@ -74,6 +78,10 @@ public class S3File {
     @Schema(description = "Fecha y hora de expiración de la URL pre-firmada", example = "2023-05-23T15:30:45")
     private LocalDateTime urlExpirationTime;
 
+    @Column(name = "gc_marked_at")
+    @Schema(description = "Fecha y hora en que el recolector marcó el archivo como reemplazado o huérfano", example = "2023-05-25T03:30:00")
+    private LocalDateTime gcMarkedAt;
+
     @Schema(description = "Tipos de entidades que pueden tener archivos asociados")
     public enum EntityType {
         @Schema(description = "Archivo asociado a un usuario")
@@ -93,12 +101,14 @@ public class S3File {
                 ", entityType='" + entityType + '\'' +
                 ", entityId=" + entityId +
                 ", s3Key='" + s3Key + '\'' +
+                ", contentHash='" + contentHash + '\'' +
                 ", fileName='" + fileName + '\'' +
                 ", fileType='" + fileType + '\'' +
                 ", fileSize=" + fileSize +
                 ", uploadDate=" + uploadDate +
                 ", isPublic=" + isPublic +
                 ", urlExpirationTime=" + urlExpirationTime +
+                ", gcMarkedAt=" + gcMarkedAt +
                 '}';
     }
 }
\ No newline at end of file
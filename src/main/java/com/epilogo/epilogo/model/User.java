@@ -6,6 +6,8 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
@@ -26,7 +28,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_user_id_seq", allocationSize = 50)
     @Column(name = "user_id")
     @Schema(description = "Identificador único del usuario", example = "123", accessMode = Schema.AccessMode.READ_ONLY)
     private Long userId;
@@ -65,9 +68,12 @@ public class User {
     @Schema(description = "Reservas realizadas por el usuario")
     private List<Reservation> reservations = new ArrayList<>();
 
-    @Transient
-    @Schema(description = "URL de la imagen del usuario", example = "https://example.com/images/user123.png", accessMode = Schema.AccessMode.READ_ONLY)
-    private String imageUrl;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "current_image_file_id", foreignKey = @ForeignKey(name = "fk_users_current_image"))
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JsonIgnore
+    @Schema(description = "Imagen de perfil vigente del usuario", hidden = true)
+    private S3File currentImage;
 
     @Column(name = "is_active", nullable = false)
     @Schema(description = "Indica si el usuario está activo", example = "true")
@@ -0,0 +1,69 @@
+package com.epilogo.epilogo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "waitlist_entries")
+@Schema(description = "Entidad que representa la espera de un usuario por un libro sin ejemplares disponibles")
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id")
+    @Schema(description = "Identificador único de la entrada; también fija el orden de llegada", example = "1")
+    private Long entryId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    @Schema(description = "Libro esperado", required = true)
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @Schema(description = "Usuario que espera", required = true)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Schema(description = "Estado de la entrada", example = "WAITING", required = true)
+    private WaitlistStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reservation_id")
+    @Schema(description = "Reserva creada al asignar un ejemplar")
+    private Reservation reservation;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    @Schema(description = "Fecha y hora de entrada en la lista de espera", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime createdAt;
+
+    @Column(name = "allocated_at")
+    @Schema(description = "Fecha y hora en que se asignó un ejemplar", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime allocatedAt;
+
+    @Schema(description = "Estados posibles de una entrada de la lista de espera")
+    public enum WaitlistStatus {
+        @Schema(description = "En cola")
+        WAITING,
+        @Schema(description = "Se le asignó un ejemplar como reserva pendiente")
+        ALLOCATED,
+        @Schema(description = "El usuario salió de la cola")
+        CANCELLED
+    }
+}
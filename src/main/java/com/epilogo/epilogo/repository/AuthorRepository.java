@@ -26,6 +26,13 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
 
     boolean existsByAuthorNameIgnoreCase(String authorName);
 
+    /**
+     * Pares [id, nombre] de todos los autores, sin cargar las entidades; la importación masiva resuelve los nombres
+     * en memoria.
+     */
+    @Query("SELECT a.authorId, a.authorName FROM Author a")
+    List<Object[]> findAllIdsAndNames();
+
     @Query(value = "SELECT a.* FROM authors a " +
             "JOIN books b ON a.author_id = b.author_id " +
             "JOIN reservations r ON b.book_id = r.book_id " +
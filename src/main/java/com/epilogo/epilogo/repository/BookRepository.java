@@ -2,31 +2,49 @@ package com.epilogo.epilogo.repository;
 
 import com.epilogo.epilogo.model.Book;
 import com.epilogo.epilogo.model.Book.BookStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Repository
 @Tag(name = "Book Repository", description = "Repositorio para operaciones con libros")
 public interface BookRepository extends JpaRepository<Book, Long> {
 
-    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author LEFT JOIN FETCH b.category WHERE b.bookId = :id")
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author LEFT JOIN FETCH b.category LEFT JOIN FETCH b.currentImage WHERE b.bookId = :id")
     Optional<Book> findByIdWithDetails(@Param("id") Long id);
 
+    @Override
+    @EntityGraph(attributePaths = {"author", "category", "currentImage"})
+    Page<Book> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "category", "currentImage"})
     Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"author", "category", "currentImage"})
     Page<Book> findByCategoryCategoryId(Long categoryId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"author", "category", "currentImage"})
     Page<Book> findByAuthorAuthorId(Long authorId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"author", "category", "currentImage"})
     Page<Book> findByBookStatus(BookStatus status, Pageable pageable);
 
     @Query("SELECT b FROM Book b WHERE b.availableAmount = 0")
@@ -35,16 +53,80 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     @Query("SELECT b FROM Book b WHERE b.availableAmount < (b.totalAmount * 0.2)")
     List<Book> findLowStockBooks();
 
-    @Query(value = "SELECT b.* FROM books b " +
-            "JOIN reservations r ON b.book_id = r.book_id " +
-            "WHERE r.reservation_date >= DATE_SUB(CURRENT_DATE, INTERVAL 30 DAY) " +
-            "GROUP BY b.book_id " +
-            "ORDER BY COUNT(r.reservation_id) DESC LIMIT :limit", nativeQuery = true)
-    List<Book> findMostReservedBooks(@Param("limit") int limit);
+    /**
+     * Libros con reservas desde {@code since}, de más a menos reservados. Es JPQL y no SQL nativo para que el grafo
+     * traiga autor, categoría e imagen en la misma consulta; el límite llega en {@code pageable}.
+     */
+    @EntityGraph(attributePaths = {"author", "category", "currentImage"})
+    @Query("SELECT b FROM Book b " +
+            "WHERE EXISTS (SELECT 1 FROM Reservation r WHERE r.book = b AND r.reservationDate >= :since) " +
+            "ORDER BY (SELECT COUNT(r) FROM Reservation r WHERE r.book = b AND r.reservationDate >= :since) DESC, b.bookId")
+    List<Book> findMostReservedBooks(@Param("since") LocalDate since, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"author", "category", "currentImage"})
     @Query("SELECT b FROM Book b WHERE " +
             "LOWER(b.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(b.author.authorName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(b.category.categoryName) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<Book> searchBooks(@Param("query") String query, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Bloquea varios libros para descontar ejemplares, siempre en orden de id para que dos reservas concurrentes con
+     * libros en común no se interbloqueen.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.bookId IN :ids ORDER BY b.bookId")
+    List<Book> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bloquea un libro para reservarlo: serializa las reservas del mismo libro entre la comprobación de ejemplares
+     * libres y el alta.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.bookId = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Suma {@code delta} a la disponibilidad de varios libros en una sola sentencia, acotada entre 0 y el total de
+     * ejemplares, y recalcula su estado con las mismas reglas que {@link Book#updateBookStatus()}. Con {@code delta}
+     * 0 solo marca los libros como modificados. Vuelca antes los cambios pendientes y vacía después el contexto de
+     * persistencia, para que los libros que se lean a continuación traigan la disponibilidad ya actualizada y no la
+     * que tenían en memoria.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE books SET " +
+            "available_amount = GREATEST(0, LEAST(total_amount, available_amount + :delta)), " +
+            "book_status = CASE WHEN available_amount + :delta <= 0 THEN 'UNAVAILABLE' " +
+            "WHEN available_amount + :delta < total_amount * 0.2 THEN 'LOW_STOCK' ELSE 'AVAILABLE' END, " +
+            "updated_at = :updatedAt " +
+            "WHERE book_id IN (:bookIds)", nativeQuery = true)
+    int applyAvailabilityDelta(@Param("bookIds") Collection<Long> bookIds, @Param("delta") int delta,
+                               @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Aplica la variación de disponibilidad de cada libro con una sola sentencia por valor de variación, no una por
+     * libro, con los ids ordenados para bloquear las filas siempre en el mismo orden.
+     */
+    default void applyAvailabilityDeltas(Map<Long, Integer> deltaByBook, LocalDateTime updatedAt) {
+        Map<Integer, List<Long>> booksByDelta = new TreeMap<>();
+        deltaByBook.forEach((bookId, delta) -> booksByDelta.computeIfAbsent(delta, key -> new ArrayList<>()).add(bookId));
+        booksByDelta.forEach((delta, bookIds) -> {
+            bookIds.sort(null);
+            applyAvailabilityDelta(bookIds, delta, updatedAt);
+        });
+    }
+
+    @Query("SELECT GREATEST(b.updatedAt, b.author.updatedAt, b.category.updatedAt) FROM Book b WHERE b.bookId = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Long id);
+
+    /**
+     * Huella del catálogo completo: número de filas y última modificación (epoch en ms) de libros, autores y categorías,
+     * separados por ':'. Cambia con cualquier alta, baja o modificación.
+     */
+    @Query(value = "SELECT CONCAT_WS(':', " +
+            "(SELECT COUNT(*) FROM books), (SELECT CAST(COALESCE(FLOOR(EXTRACT(EPOCH FROM MAX(updated_at)) * 1000), 0) AS BIGINT) FROM books), " +
+            "(SELECT COUNT(*) FROM authors), (SELECT CAST(COALESCE(FLOOR(EXTRACT(EPOCH FROM MAX(updated_at)) * 1000), 0) AS BIGINT) FROM authors), " +
+            "(SELECT COUNT(*) FROM categories), (SELECT CAST(COALESCE(FLOOR(EXTRACT(EPOCH FROM MAX(updated_at)) * 1000), 0) AS BIGINT) FROM categories))",
+            nativeQuery = true)
+    String findCatalogFingerprint();
+}
@@ -19,6 +19,13 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     boolean existsByCategoryNameIgnoreCase(String categoryName);
 
+    /**
+     * Pares [id, nombre] de todas las categorías, sin cargar las entidades; la importación masiva resuelve los nombres
+     * en memoria.
+     */
+    @Query("SELECT c.categoryId, c.categoryName FROM Category c")
+    List<Object[]> findAllIdsAndNames();
+
     @Query("SELECT c FROM Category c LEFT JOIN FETCH c.books WHERE c.categoryId = :id")
     Optional<Category> findByIdWithBooks(@Param("id") Long id);
 
@@ -2,9 +2,13 @@ package com.epilogo.epilogo.repository;
 
 import com.epilogo.epilogo.model.Reservation;
 import com.epilogo.epilogo.model.Reservation.ReservationStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,20 +16,71 @@ import org.springframework.stereotype.Repository;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 @Tag(name = "Reservation Repository", description = "Repositorio para operaciones con reservas de libros")
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"user.currentImage", "book.author", "book.currentImage"})
+    Page<Reservation> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"user.currentImage", "book.author", "book.currentImage"})
     Page<Reservation> findByUserUserId(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"user.currentImage", "book.author", "book.currentImage"})
     Page<Reservation> findByBookBookId(Long bookId, Pageable pageable);
 
     List<Reservation> findByStatus(ReservationStatus status);
 
-    @Query("SELECT r FROM Reservation r WHERE r.status = 'ACTIVE' AND r.expectedReturnDate < :today")
-    List<Reservation> findOverdueReservations(@Param("today") LocalDate today);
+    /**
+     * Primera página de reservas vencidas, de la más atrasada a la más reciente.
+     */
+    @EntityGraph(attributePaths = {"user.currentImage", "book.author", "book.currentImage"})
+    @Query("SELECT r FROM Reservation r WHERE r.overdue = true ORDER BY r.expectedReturnDate, r.reservationId")
+    List<Reservation> findOverdueFirstPage(Pageable pageable);
+
+    /**
+     * Página siguiente a la clave (expectedReturnDate, reservationId) de la última fila ya devuelta; recorre el índice
+     * parcial sin OFFSET.
+     */
+    @EntityGraph(attributePaths = {"user.currentImage", "book.author", "book.currentImage"})
+    @Query("SELECT r FROM Reservation r WHERE r.overdue = true AND " +
+            "(r.expectedReturnDate > :dueDate OR (r.expectedReturnDate = :dueDate AND r.reservationId > :reservationId)) " +
+            "ORDER BY r.expectedReturnDate, r.reservationId")
+    List<Reservation> findOverduePageAfter(@Param("dueDate") LocalDate dueDate, @Param("reservationId") Long reservationId,
+                                           Pageable pageable);
+
+    /**
+     * Agregados de días de retraso de todas las reservas vencidas: [total, máximo, media, hasta 7 días, de 8 a 30,
+     * más de 30].
+     */
+    @Query(value = "SELECT COUNT(*), COALESCE(MAX(:today - expected_return_date), 0), COALESCE(AVG(:today - expected_return_date), 0), " +
+            "COUNT(*) FILTER (WHERE :today - expected_return_date <= 7), " +
+            "COUNT(*) FILTER (WHERE :today - expected_return_date BETWEEN 8 AND 30), " +
+            "COUNT(*) FILTER (WHERE :today - expected_return_date > 30) " +
+            "FROM reservations WHERE overdue", nativeQuery = true)
+    List<Object[]> summarizeOverdue(@Param("today") LocalDate today);
+
+    /**
+     * Marca como vencidas las reservas activas cuya devolución prevista ya pasó.
+     */
+    @Modifying
+    @Query(value = "UPDATE reservations SET overdue = TRUE WHERE status = 'ACTIVE' AND NOT overdue AND expected_return_date < :today",
+            nativeQuery = true)
+    int markOverdue(@Param("today") LocalDate today);
+
+    /**
+     * Desmarca las reservas que ya no están vencidas: cambiaron de estado por una vía masiva o se amplió su plazo.
+     */
+    @Modifying
+    @Query(value = "UPDATE reservations SET overdue = FALSE WHERE overdue AND (status <> 'ACTIVE' OR expected_return_date >= :today)",
+            nativeQuery = true)
+    int clearOverdue(@Param("today") LocalDate today);
 
     @Query("SELECT r FROM Reservation r WHERE r.user.userId = :userId AND r.status = :status")
     List<Reservation> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") ReservationStatus status);
@@ -33,9 +88,56 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT COUNT(r) FROM Reservation r WHERE r.book.bookId = :bookId AND r.status IN ('PENDING', 'ACTIVE')")
     long countActiveReservationsByBookId(@Param("bookId") Long bookId);
 
+    /**
+     * Reservas pendientes o activas de varios libros a la vez, como pares [bookId, count]; los libros sin reservas
+     * no aparecen.
+     */
+    @Query("SELECT r.book.bookId, COUNT(r) FROM Reservation r WHERE r.book.bookId IN :bookIds AND r.status IN ('PENDING', 'ACTIVE') " +
+            "GROUP BY r.book.bookId")
+    List<Object[]> countActiveReservationsByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT r.book.bookId FROM Reservation r WHERE r.user.userId = :userId AND r.status = :status")
+    Set<Long> findBookIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") ReservationStatus status);
+
     @Query("SELECT r FROM Reservation r JOIN FETCH r.user JOIN FETCH r.book WHERE r.reservationId = :id")
     Reservation findByIdWithDetails(@Param("id") Long id);
 
+    /**
+     * Bloquea las reservas indicadas para cambiar su estado, siempre en el mismo orden para no interbloquearse con
+     * otro cambio masivo concurrente.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.reservationId IN :ids ORDER BY r.reservationId")
+    List<Reservation> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reservas pendientes cuyo plazo de recogida ya venció, como [reservationId, bookId, copyHeld], bloqueadas para
+     * cancelarlas. {@code copyHeld} es falso en las reservas hechas por adelantado, que no descontaron ningún ejemplar
+     * al crearse. SKIP LOCKED reparte el trabajo entre nodos: cada uno se queda con filas distintas.
+     */
+    @Query(value = "SELECT reservation_id, book_id, copy_held FROM reservations " +
+            "WHERE status = 'PENDING' AND hold_expires_at < :now " +
+            "ORDER BY hold_expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Object[]> lockExpiredPendingHolds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = 'CANCELLED', r.copyHeld = false, r.updatedAt = :now WHERE r.reservationId IN :ids AND r.status = 'PENDING'")
+    int cancelPending(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Intervalos [reservationId, reservationDate, expectedReturnDate] de las reservas pendientes o activas de un libro,
+     * para construir su calendario de disponibilidad.
+     */
+    @Query("SELECT r.reservationId, r.reservationDate, r.expectedReturnDate FROM Reservation r " +
+            "WHERE r.book.bookId = :bookId AND r.status IN ('PENDING', 'ACTIVE')")
+    List<Object[]> findCalendarIntervals(@Param("bookId") Long bookId);
+
+    /**
+     * Intervalo [reservationDate, expectedReturnDate, status] de una reserva; vacío si ya no existe.
+     */
+    @Query("SELECT r.reservationDate, r.expectedReturnDate, r.status FROM Reservation r WHERE r.reservationId = :id")
+    List<Object[]> findCalendarInterval(@Param("id") Long id);
+
     @Query(value = "SELECT DATE(r.reservation_date) as date, COUNT(*) as count FROM reservations r " +
             "WHERE r.reservation_date BETWEEN :startDate AND :endDate " +
             "GROUP BY DATE(r.reservation_date) " +
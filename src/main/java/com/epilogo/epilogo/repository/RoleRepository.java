@@ -1,7 +1,10 @@
 package com.epilogo.epilogo.repository;
 
 import com.epilogo.epilogo.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +14,9 @@ import java.util.Optional;
 @Repository
 @Tag(name = "Role Repository", description = "Repositorio para operaciones con roles")
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByRoleName(Role.RoleName roleName);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Boolean existsByRoleName(Role.RoleName roleName);
 }
\ No newline at end of file
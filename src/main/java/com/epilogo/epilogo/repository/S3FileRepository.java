@@ -2,12 +2,18 @@ package com.epilogo.epilogo.repository;
 
 import com.epilogo.epilogo.model.S3File;
 import com.epilogo.epilogo.model.S3File.EntityType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,11 +21,67 @@ import java.util.Optional;
 @Tag(name = "S3File Repository", description = "Repositorio para operaciones con archivos en S3")
 public interface S3FileRepository extends JpaRepository<S3File, Long> {
 
+    /**
+     * Un archivo está reemplazado cuando su entidad tiene otro archivo más reciente
+     * y ninguna entidad lo usa como imagen vigente.
+     */
+    String SUPERSEDED_PREDICATE = "f.gc_marked_at IS NULL AND EXISTS (" +
+            "SELECT 1 FROM s3_files n WHERE n.entity_type = f.entity_type AND n.entity_id = f.entity_id " +
+            "AND (n.upload_date > f.upload_date OR (n.upload_date = f.upload_date AND n.file_id > f.file_id))) " +
+            "AND NOT EXISTS (SELECT 1 FROM books b WHERE b.current_image_file_id = f.file_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM authors a WHERE a.current_image_file_id = f.file_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM categories c WHERE c.current_image_file_id = f.file_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM users u WHERE u.current_image_file_id = f.file_id)";
+
+    /**
+     * Un archivo está huérfano cuando la entidad a la que pertenece ya no existe.
+     */
+    String ORPHANED_PREDICATE = "f.gc_marked_at IS NULL AND (" +
+            "(f.entity_type = 'BOOK' AND NOT EXISTS (SELECT 1 FROM books b WHERE b.book_id = f.entity_id)) " +
+            "OR (f.entity_type = 'AUTHOR' AND NOT EXISTS (SELECT 1 FROM authors a WHERE a.author_id = f.entity_id)) " +
+            "OR (f.entity_type = 'CATEGORY' AND NOT EXISTS (SELECT 1 FROM categories c WHERE c.category_id = f.entity_id)) " +
+            "OR (f.entity_type = 'USER' AND NOT EXISTS (SELECT 1 FROM users u WHERE u.user_id = f.entity_id)))";
+
     List<S3File> findByEntityTypeAndEntityId(EntityType entityType, Long entityId);
 
-    Optional<S3File> findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(Long entityId, EntityType entityType);
+    /**
+     * Archivo más reciente con el mismo contenido, para reutilizar su objeto. Los marcados por el recolector quedan
+     * fuera: su objeto puede borrarse en el próximo barrido.
+     */
+    Optional<S3File> findFirstByContentHashAndEntityTypeAndGcMarkedAtIsNullOrderByUploadDateDesc(String contentHash, EntityType entityType);
+
+    long countByS3Key(String s3Key);
+
+    /**
+     * Bloquea la clave de un objeto hasta el final de la transacción, en todos los nodos. Lo toman quien reutiliza o
+     * sube un objeto y quien comprueba si sigue referenciado antes de borrarlo, para que ninguno actúe sobre un
+     * recuento que el otro está cambiando.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:s3Key))", nativeQuery = true)
+    int lockS3Key(@Param("s3Key") String s3Key);
+
+    List<S3File> findByUrlExpirationTimeBeforeAndGcMarkedAtIsNull(LocalDateTime expirationTime);
+
+    List<S3File> findByUrlExpirationTimeIsNullAndGcMarkedAtIsNull();
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE s3_files f SET gc_marked_at = :markedAt WHERE " + SUPERSEDED_PREDICATE, nativeQuery = true)
+    int markSuperseded(@Param("markedAt") LocalDateTime markedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE s3_files f SET gc_marked_at = :markedAt WHERE " + ORPHANED_PREDICATE, nativeQuery = true)
+    int markOrphaned(@Param("markedAt") LocalDateTime markedAt);
+
+    @Query(value = "SELECT COUNT(*) FROM s3_files f WHERE " + SUPERSEDED_PREDICATE, nativeQuery = true)
+    long countSupersededCandidates();
+
+    @Query(value = "SELECT COUNT(*) FROM s3_files f WHERE " + ORPHANED_PREDICATE, nativeQuery = true)
+    long countOrphanedCandidates();
 
-    List<S3File> findByUrlExpirationTimeBefore(LocalDateTime expirationTime);
+    List<S3File> findByGcMarkedAtBeforeAndFileIdGreaterThanOrderByFileIdAsc(LocalDateTime cutoff, Long fileId, Pageable pageable);
 
-    List<S3File> findByUrlExpirationTimeIsNull();
-}
\ No newline at end of file
+    @Query("SELECT DISTINCT f.s3Key FROM S3File f WHERE f.s3Key IN :keys AND f.fileId NOT IN :fileIds")
+    List<String> findKeysReferencedOutside(@Param("keys") Collection<String> keys, @Param("fileIds") Collection<Long> fileIds);
+}
@@ -3,10 +3,13 @@ package com.epilogo.epilogo.repository;
 import com.epilogo.epilogo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 
@@ -18,12 +21,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    /**
+     * Correos de la lista que ya están registrados; el alta masiva comprueba un lote entero con una sola consulta.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     Optional<User> findByUserName(String userName);
 
     @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.userId = :userId")
     Optional<User> findByIdWithRoles(Long userId);
 
-    @Query("SELECT u FROM User u JOIN FETCH u.roles")
+    @Query("SELECT u FROM User u JOIN FETCH u.roles LEFT JOIN FETCH u.currentImage")
     List<User> findAllWithRoles();
 
     @Query(value = "SELECT u.* FROM users u " +
@@ -0,0 +1,50 @@
+package com.epilogo.epilogo.repository;
+
+import com.epilogo.epilogo.model.WaitlistEntry;
+import com.epilogo.epilogo.model.WaitlistEntry.WaitlistStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Tag(name = "Waitlist Entry Repository", description = "Repositorio para operaciones con la lista de espera de libros")
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    Optional<WaitlistEntry> findByBookBookIdAndUserUserIdAndStatus(Long bookId, Long userId, WaitlistStatus status);
+
+    @Query("SELECT e.status FROM WaitlistEntry e WHERE e.entryId = :id")
+    Optional<WaitlistStatus> findStatusById(@Param("id") Long id);
+
+    boolean existsByBookBookIdAndUserUserIdAndStatus(Long bookId, Long userId, WaitlistStatus status);
+
+    @EntityGraph(attributePaths = {"book"})
+    List<WaitlistEntry> findByUserUserIdAndStatusOrderByEntryId(Long userId, WaitlistStatus status);
+
+    /**
+     * Primeras {@code limit} entradas en espera de un libro, en orden de llegada y bloqueadas para asignarles un
+     * ejemplar. Quien llama debe tener ya bloqueada la fila del libro: todo el que cambia la cola de un libro la bloquea
+     * antes, así que aquí no se espera a nadie y nunca se salta a una entrada anterior.
+     */
+    @Query(value = "SELECT * FROM waitlist_entries WHERE book_id = :bookId AND status = 'WAITING' " +
+            "ORDER BY entry_id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<WaitlistEntry> lockNextWaiting(@Param("bookId") Long bookId, @Param("limit") int limit);
+
+    /**
+     * Ids de las entradas en espera de un libro, en orden de llegada.
+     */
+    @Query("SELECT e.entryId FROM WaitlistEntry e WHERE e.book.bookId = :bookId AND e.status = 'WAITING' ORDER BY e.entryId")
+    List<Long> findWaitingEntryIds(@Param("bookId") Long bookId);
+
+    /**
+     * Todas las entradas en espera como pares [bookId, entryId], agrupadas por libro y en orden de llegada.
+     */
+    @Query("SELECT e.book.bookId, e.entryId FROM WaitlistEntry e WHERE e.status = 'WAITING' ORDER BY e.book.bookId, e.entryId")
+    List<Object[]> findAllWaiting();
+}
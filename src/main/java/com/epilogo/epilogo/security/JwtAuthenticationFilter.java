@@ -1,6 +1,8 @@
 package com.epilogo.epilogo.security;
 
 import com.epilogo.epilogo.service.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,6 +30,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -52,6 +55,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
         try {
             userEmail = jwtService.extractUsername(jwt);
 
@@ -70,10 +75,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
 
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = "valid";
                 }
             }
         } catch (Exception e) {
+            outcome = "error";
             log.error("Error processing JWT token: {}", e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("epilogo.jwt.verification")
+                    .description("Validación del token JWT, incluida la carga del usuario")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
 
         filterChain.doFilter(request, response);
@@ -34,6 +34,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final S3Service s3Service;
 
     @Transactional
     @Operation(summary = "Registrar usuario", description = "Registra un nuevo usuario en el sistema")
@@ -91,7 +92,7 @@ public class AuthService {
                 .userId(user.getUserId())
                 .userName(user.getUserName())
                 .email(user.getEmail())
-                .imageUrl(user.getImageUrl())
+                .imageUrl(s3Service.resolveFileUrl(user.getCurrentImage()))
                 .roles(roles)
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
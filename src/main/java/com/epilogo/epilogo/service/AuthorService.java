@@ -2,13 +2,14 @@ package com.epilogo.epilogo.service;
 
 import com.epilogo.epilogo.dto.AuthorDTO;
 import com.epilogo.epilogo.dto.BookDTO;
+import com.epilogo.epilogo.event.DomainEvent;
 import com.epilogo.epilogo.exception.ResourceNotFoundException;
 import com.epilogo.epilogo.model.Author;
 import com.epilogo.epilogo.model.Book;
 import com.epilogo.epilogo.model.S3File;
 import com.epilogo.epilogo.repository.AuthorRepository;
-import com.epilogo.epilogo.repository.S3FileRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,7 +23,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,7 +32,7 @@ public class AuthorService {
 
     private final AuthorRepository authorRepository;
     private final S3Service s3Service;
-    private final S3FileRepository s3FileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Operation(summary = "Obtener autor por ID", description = "Obtiene un autor con todos sus libros por su ID")
     public AuthorDTO.AuthorResponse getAuthorById(Long authorId) {
@@ -72,6 +72,7 @@ public class AuthorService {
                 .build();
 
         Author savedAuthor = authorRepository.save(author);
+        eventPublisher.publishEvent(new DomainEvent.AuthorChanged(savedAuthor.getAuthorId()));
 
         return mapToAuthorResponse(savedAuthor);
     }
@@ -102,6 +103,7 @@ public class AuthorService {
         }
 
         Author updatedAuthor = authorRepository.save(author);
+        eventPublisher.publishEvent(new DomainEvent.AuthorChanged(authorId));
 
         return mapToAuthorResponse(updatedAuthor);
     }
@@ -117,6 +119,7 @@ public class AuthorService {
         }
 
         authorRepository.deleteById(authorId);
+        eventPublisher.publishEvent(new DomainEvent.AuthorChanged(authorId));
     }
 
     @Transactional
@@ -127,7 +130,7 @@ public class AuthorService {
 
         S3File s3File = s3Service.uploadFile(file, S3File.EntityType.AUTHOR, authorId);
 
-        author.setImageUrl(s3File.getS3Url());
+        author.setCurrentImage(s3File);
         Author updatedAuthor = authorRepository.save(author);
 
         return mapToAuthorResponse(updatedAuthor);
@@ -143,10 +146,7 @@ public class AuthorService {
     private AuthorDTO.AuthorResponse mapToAuthorResponse(Author author) {
         List<Book> books = author.getBooks() != null ? author.getBooks() : Collections.emptyList();
 
-        Optional<S3File> latestFileOpt = s3FileRepository.findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(
-                author.getAuthorId(), S3File.EntityType.AUTHOR);
-
-        String imageUrl = latestFileOpt.map(S3File::getS3Url).orElse(null);
+        String imageUrl = s3Service.resolveFileUrl(author.getCurrentImage());
 
         return AuthorDTO.AuthorResponse.builder()
                 .authorId(author.getAuthorId())
@@ -159,7 +159,7 @@ public class AuthorService {
                         .map(book -> BookDTO.BookSummary.builder()
                                 .bookId(book.getBookId())
                                 .title(book.getTitle())
-                                .imageUrl(book.getImageUrl())
+                                .imageUrl(s3Service.resolveFileUrl(book.getCurrentImage()))
                                 .bookStatus(book.getBookStatus())
                                 .authorName(author.getAuthorName())
                                 .build())
@@ -169,9 +169,7 @@ public class AuthorService {
     }
 
     private AuthorDTO.AuthorSummary mapToAuthorSummary(Author author) {
-        Optional<S3File> latestFileOpt = s3FileRepository.findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(author.getAuthorId(), S3File.EntityType.AUTHOR);
-
-        String imageUrl = latestFileOpt.map(S3File::getS3Url).orElse(null);
+        String imageUrl = s3Service.resolveFileUrl(author.getCurrentImage());
 
         return AuthorDTO.AuthorSummary.builder()
                 .authorId(author.getAuthorId())
@@ -0,0 +1,264 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.BookDTO;
+import com.epilogo.epilogo.event.DomainEvent;
+import com.epilogo.epilogo.exception.ResourceNotFoundException;
+import com.epilogo.epilogo.model.Book;
+import com.epilogo.epilogo.model.Reservation;
+import com.epilogo.epilogo.repository.BookRepository;
+import com.epilogo.epilogo.repository.ReservationRepository;
+import com.epilogo.epilogo.utils.IntervalCoverageTree;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calendario de disponibilidad por libro: cuántos ejemplares comprometen cada día sus reservas PENDING y ACTIVE, desde
+ * su {@code reservationDate} hasta su {@code expectedReturnDate}, ambos incluidos. Un {@link IntervalCoverageTree} por
+ * libro responde en O(log n) la disponibilidad de un rango y si una reserva nueva se solapa con las existentes más
+ * veces de las que hay ejemplares.
+ * <p>
+ * La base de datos es la fuente de verdad. Cada calendario se carga la primera vez que se consulta y empieza el día de
+ * su carga; al cambiar de día se recarga, de modo que los préstamos vencidos siguen ocupando su ejemplar hasta hoy.
+ * Entre medias se actualiza con los {@link DomainEvent.ReservationStatusChanged} locales y de otros nodos, y las altas
+ * de este nodo se apuntan en cuanto se guardan con {@link #reserve}. {@code Book.calendarVersion} cuenta esas altas:
+ * si al comprobar una reserva no coincide con la del calendario, otro nodo ha dado de alta reservas cuyo evento aún no
+ * ha llegado y el calendario se recarga. También se recarga tras un {@link DomainEvent.Resync}.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed("epilogo.service")
+@Tag(name = "Availability Calendar Service", description = "Servicio del calendario de disponibilidad de libros")
+public class AvailabilityCalendarService {
+
+    // Días que cubre cada calendario desde su carga (algo más de 11 años); los préstamos más largos se recortan
+    private static final int CALENDAR_SPAN_DAYS = 4096;
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final ReservationRepository reservationRepository;
+    private final BookRepository bookRepository;
+
+    private final Map<Long, BookCalendar> calendars = new ConcurrentHashMap<>();
+
+    @Operation(summary = "Calendario de disponibilidad", description = "Ejemplares libres de un libro en cada día de un rango")
+    @Transactional(readOnly = true)
+    public BookDTO.BookAvailabilityCalendar getCalendar(Long bookId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = from != null ? from : today;
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_RANGE_DAYS - 1);
+
+        if (start.isBefore(today)) {
+            throw new IllegalStateException("La fecha inicial no puede ser anterior a hoy");
+        }
+        if (end.isBefore(start)) {
+            throw new IllegalStateException("La fecha final no puede ser anterior a la inicial");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new IllegalStateException("No se pueden consultar más de " + MAX_RANGE_DAYS + " días a la vez");
+        }
+        if (ChronoUnit.DAYS.between(today, end) >= CALENDAR_SPAN_DAYS) {
+            throw new IllegalStateException("El calendario solo llega hasta el " + today.plusDays(CALENDAR_SPAN_DAYS - 1));
+        }
+
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + bookId));
+        int total = book.getTotalAmount();
+
+        BookCalendar calendar = calendarFor(book);
+        List<BookDTO.AvailabilityPeriod> periods = new ArrayList<>();
+        int maxReserved;
+        int firstFree;
+        synchronized (calendar) {
+            int lo = Math.max(0, calendar.offset(start));
+            int hi = Math.min(CALENDAR_SPAN_DAYS - 1, calendar.offset(end));
+            maxReserved = calendar.tree.max(lo, hi);
+            firstFree = calendar.tree.firstBelow(lo, hi, total);
+            calendar.tree.forEachRun(lo, hi, (runFrom, runTo, reserved) -> periods.add(BookDTO.AvailabilityPeriod.builder()
+                    .from(calendar.origin.plusDays(runFrom))
+                    .to(calendar.origin.plusDays(runTo))
+                    .reserved(reserved)
+                    .available(Math.max(0, total - reserved))
+                    .build()));
+        }
+
+        return BookDTO.BookAvailabilityCalendar.builder()
+                .bookId(bookId)
+                .totalAmount(total)
+                .from(start)
+                .to(end)
+                .minAvailable(Math.max(0, total - maxReserved))
+                .firstAvailableDate(firstFree >= 0 ? calendar.origin.plusDays(firstFree) : null)
+                .periods(periods)
+                .build();
+    }
+
+    /**
+     * Indica si queda algún ejemplar libre cada día de {@code [start, end]}. Quien llama debe tener bloqueada la fila del
+     * libro: ninguna otra reserva suya puede darse de alta entre la comprobación y el alta, tampoco desde otro nodo, y
+     * su {@code calendarVersion} es la vigente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean isBookable(Book book, LocalDate start, LocalDate end) {
+        BookCalendar calendar = calendarFor(book);
+        synchronized (calendar) {
+            int lo = Math.max(0, calendar.offset(start));
+            int hi = Math.min(CALENDAR_SPAN_DAYS - 1, calendar.offset(end));
+            return lo > hi || calendar.tree.max(lo, hi) < book.getTotalAmount();
+        }
+    }
+
+    /**
+     * Apunta en el calendario una reserva recién guardada que ocupa ejemplar, dentro de la transacción que la da de
+     * alta y con la fila del libro bloqueada, y sube la versión de calendario del libro. Así las comprobaciones
+     * siguientes de la misma transacción la ven sin recargar y los demás nodos recargan su calendario en la próxima.
+     * Si la transacción no llega a confirmarse, el calendario se descarta.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Book book, Long reservationId, LocalDate start, LocalDate end) {
+        BookCalendar calendar = calendarFor(book);
+        book.setCalendarVersion(book.getCalendarVersion() + 1);
+        synchronized (calendar) {
+            calendar.add(reservationId, start, end);
+            calendar.version = book.getCalendarVersion();
+        }
+
+        Long bookId = book.getBookId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    calendars.remove(bookId, calendar);
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Hidden
+    public void onReservationStatusChanged(DomainEvent.ReservationStatusChanged event) {
+        BookCalendar calendar = calendars.get(event.bookId());
+        if (calendar == null) {
+            // Aún no se ha consultado: se cargará con la reserva ya incluida
+            return;
+        }
+        if (!holdsCopy(event.status())) {
+            synchronized (calendar) {
+                calendar.remove(event.reservationId());
+            }
+            return;
+        }
+        synchronized (calendar) {
+            if (calendar.contains(event.reservationId())) {
+                // PENDING -> ACTIVE no cambia las fechas del intervalo
+                return;
+            }
+        }
+        for (Object[] row : reservationRepository.findCalendarInterval(event.reservationId())) {
+            if (holdsCopy((Reservation.ReservationStatus) row[2])) {
+                synchronized (calendar) {
+                    calendar.add(event.reservationId(), (LocalDate) row[0], (LocalDate) row[1]);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Hidden
+    public void onResync(DomainEvent.Resync event) {
+        calendars.clear();
+    }
+
+    /**
+     * Calendario del libro al día con su {@code calendarVersion}; se recarga si falta, es de otro día o la versión no
+     * coincide.
+     */
+    private BookCalendar calendarFor(Book book) {
+        BookCalendar calendar = calendars.get(book.getBookId());
+        if (calendar == null || !calendar.origin.equals(LocalDate.now())) {
+            return reload(book);
+        }
+        synchronized (calendar) {
+            if (calendar.version == book.getCalendarVersion()) {
+                return calendar;
+            }
+        }
+        return reload(book);
+    }
+
+    /**
+     * El libro ya está leído, así que las reservas se leen después: un calendario nunca se marca con una versión más
+     * nueva que su contenido, a lo sumo con una más vieja, que solo provoca otra recarga.
+     */
+    private BookCalendar reload(Book book) {
+        Long bookId = book.getBookId();
+        BookCalendar calendar = new BookCalendar(LocalDate.now(), book.getCalendarVersion());
+        for (Object[] row : reservationRepository.findCalendarIntervals(bookId)) {
+            calendar.add((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]);
+        }
+        calendars.put(bookId, calendar);
+        return calendar;
+    }
+
+    private static boolean holdsCopy(Reservation.ReservationStatus status) {
+        return status == Reservation.ReservationStatus.PENDING || status == Reservation.ReservationStatus.ACTIVE;
+    }
+
+    /**
+     * Reservas de un libro como intervalos de días contados desde {@code origin}. Los días anteriores no se guardan:
+     * un préstamo empezado antes cuenta desde {@code origin} y uno vencido ocupa solo ese día.
+     */
+    private static final class BookCalendar {
+        private final LocalDate origin;
+        private final IntervalCoverageTree tree = new IntervalCoverageTree(CALENDAR_SPAN_DAYS);
+        private final Map<Long, int[]> intervals = new HashMap<>();
+        // calendarVersion del libro con el que está al día
+        private long version;
+
+        private BookCalendar(LocalDate origin, long version) {
+            this.origin = origin;
+            this.version = version;
+        }
+
+        private int offset(LocalDate date) {
+            return Math.clamp(ChronoUnit.DAYS.between(origin, date), -1, CALENDAR_SPAN_DAYS);
+        }
+
+        private boolean contains(Long reservationId) {
+            return intervals.containsKey(reservationId);
+        }
+
+        private void add(Long reservationId, LocalDate start, LocalDate end) {
+            int from = Math.max(0, offset(start));
+            int to = Math.min(CALENDAR_SPAN_DAYS - 1, Math.max(0, offset(end)));
+            if (from > to || intervals.putIfAbsent(reservationId, new int[]{from, to}) != null) {
+                return;
+            }
+            tree.add(from, to, 1);
+        }
+
+        private void remove(Long reservationId) {
+            int[] interval = intervals.remove(reservationId);
+            if (interval != null) {
+                tree.add(interval[0], interval[1], -1);
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.BookDTO;
+import com.epilogo.epilogo.event.DomainEvent;
+import com.epilogo.epilogo.repository.BookRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Difunde por Server-Sent Events los cambios de disponibilidad de los libros a los clientes suscritos.
+ * <p>
+ * Cada suscriptor guarda solo el último estado pendiente de cada libro que sigue: si un cliente lee despacio, los
+ * cambios intermedios se descartan en lugar de acumularse. Los envíos de cada suscriptor se hacen en un hilo virtual
+ * propio, de modo que un cliente lento no retrasa a los demás.
+ */
+@Service
+@Slf4j
+@Tag(name = "Availability Stream Service", description = "Servicio de notificación en tiempo real de la disponibilidad de libros")
+public class AvailabilityStreamService {
+
+    private final BookRepository bookRepository;
+    private final int maxIds;
+    private final int maxSubscribers;
+    private final Duration timeout;
+
+    private final Map<Long, Set<Subscriber>> subscribersByBook = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AvailabilityStreamService(BookRepository bookRepository,
+                                     @Value("${books.availability-stream.max-ids:50}") int maxIds,
+                                     @Value("${books.availability-stream.max-subscribers:5000}") int maxSubscribers,
+                                     @Value("${books.availability-stream.timeout:PT30M}") Duration timeout) {
+        this.bookRepository = bookRepository;
+        this.maxIds = maxIds;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+    }
+
+    @Operation(summary = "Suscribirse a la disponibilidad", description = "Abre un flujo SSE con el estado actual de los libros indicados y sus cambios posteriores")
+    public SseEmitter subscribe(Collection<Long> bookIds) {
+        Set<Long> ids = new LinkedHashSet<>(bookIds);
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Debe indicar al menos un libro");
+        }
+        if (ids.size() > maxIds) {
+            throw new IllegalStateException("No se pueden seguir más de " + maxIds + " libros por conexión");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Demasiadas conexiones abiertas, inténtelo de nuevo más tarde");
+        }
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()), ids);
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        for (Long id : ids) {
+            subscribersByBook.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+
+        // Estado inicial, después de registrarse para no perder cambios que lleguen entre medias
+        bookRepository.findAllById(ids).forEach(book -> subscriber.offer(BookDTO.BookAvailabilityUpdate.builder()
+                .bookId(book.getBookId())
+                .availableAmount(book.getAvailableAmount())
+                .bookStatus(book.getBookStatus())
+                .build()));
+
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Hidden
+    public void onAvailabilityChanged(DomainEvent.AvailabilityChanged event) {
+        Set<Subscriber> interested = subscribersByBook.get(event.bookId());
+        if (interested == null || interested.isEmpty()) {
+            return;
+        }
+
+        BookDTO.BookAvailabilityUpdate update = BookDTO.BookAvailabilityUpdate.builder()
+                .bookId(event.bookId())
+                .availableAmount(event.availableAmount())
+                .bookStatus(event.bookStatus())
+                .build();
+        interested.forEach(subscriber -> subscriber.offer(update));
+    }
+
+    @Scheduled(fixedDelayString = "${books.availability-stream.heartbeat:PT15S}")
+    @Hidden
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::requestHeartbeat);
+    }
+
+    @Operation(summary = "Contar suscriptores", description = "Devuelve el número de conexiones SSE abiertas")
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    @Hidden
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        for (Long id : subscriber.bookIds) {
+            subscribersByBook.computeIfPresent(id, (key, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Long> bookIds;
+        private final Map<Long, BookDTO.BookAvailabilityUpdate> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+
+        private Subscriber(SseEmitter emitter, Set<Long> bookIds) {
+            this.emitter = emitter;
+            this.bookIds = bookIds;
+        }
+
+        void offer(BookDTO.BookAvailabilityUpdate update) {
+            pending.put(update.getBookId(), update);
+            scheduleDrain();
+        }
+
+        void requestHeartbeat() {
+            heartbeatDue = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (Exception e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    List<BookDTO.BookAvailabilityUpdate> updates = new ArrayList<>(pending.size());
+                    for (Long id : List.copyOf(pending.keySet())) {
+                        BookDTO.BookAvailabilityUpdate update = pending.remove(id);
+                        if (update != null) {
+                            updates.add(update);
+                        }
+                    }
+
+                    for (BookDTO.BookAvailabilityUpdate update : updates) {
+                        emitter.send(SseEmitter.event()
+                                .name("availability")
+                                .id(String.valueOf(update.getBookId()))
+                                .data(update));
+                    }
+
+                    if (heartbeatDue) {
+                        heartbeatDue = false;
+                        if (updates.isEmpty()) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        }
+                    }
+
+                    draining.set(false);
+                    // Un cambio pudo llegar después de vaciar y antes de soltar la marca
+                } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Closing availability stream: {}", e.getMessage());
+                draining.set(false);
+                unsubscribe(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.BookDTO;
+import com.epilogo.epilogo.event.DomainEvent;
+import com.epilogo.epilogo.model.Author;
+import com.epilogo.epilogo.model.Book;
+import com.epilogo.epilogo.model.Category;
+import com.epilogo.epilogo.repository.AuthorRepository;
+import com.epilogo.epilogo.repository.BookRepository;
+import com.epilogo.epilogo.repository.CategoryRepository;
+import com.epilogo.epilogo.utils.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Importación masiva del catálogo desde CSV o NDJSON. El fichero se lee en streaming y se guarda en lotes de
+ * {@code books.import.chunk-size} filas, cada uno en su propia transacción: los autores y categorías se resuelven por
+ * nombre contra mapas en memoria (se crean los que faltan) y los libros se insertan en lotes JDBC gracias a los ids de
+ * secuencia pooled. Las filas no válidas se rechazan una a una sin detener la importación; si un lote viola una
+ * restricción al guardarse, se reintentan sus filas de una en una para rechazar solo las culpables, y si falla por
+ * otro motivo se rechazan todas y se sigue con el siguiente.
+ * <p>
+ * Con open-in-view la importación comparte el EntityManager de la petición: cada lote lo vacía al terminar para que
+ * los libros ya guardados no se acumulen en el contexto de persistencia ni se vuelvan a revisar en cada flush.
+ */
+@Service
+@Slf4j
+@Timed("epilogo.service")
+@Tag(name = "Book Import Service", description = "Servicio para la importación masiva de libros")
+public class BookImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "author", "category", "totalAmount");
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final long maxRows;
+    private final int maxReportedErrors;
+
+    public BookImportService(BookRepository bookRepository,
+                             AuthorRepository authorRepository,
+                             CategoryRepository categoryRepository,
+                             TransactionTemplate transactionTemplate,
+                             EntityManager entityManager,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             @Value("${books.import.chunk-size:500}") int chunkSize,
+                             @Value("${books.import.max-rows:200000}") long maxRows,
+                             @Value("${books.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Operation(summary = "Importar libros desde CSV", description = "Importa libros desde un CSV con cabecera (title, description, isbn, author, category, totalAmount, availableAmount, publicationYear)")
+    public BookDTO.BookImportResult importCsv(InputStream input) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalStateException("El fichero CSV está vacío");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Excel antepone un BOM a los CSV en UTF-8
+            columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Faltan columnas obligatorias en la cabecera CSV: " + String.join(", ", missing));
+        }
+
+        return runImport(() -> {
+            List<String> record = csv.next();
+            if (record == null) {
+                return null;
+            }
+            try {
+                return ParsedRow.valid(csv.recordLine(), toRow(record, columns));
+            } catch (IllegalArgumentException e) {
+                return ParsedRow.invalid(csv.recordLine(), e.getMessage());
+            }
+        });
+    }
+
+    @Operation(summary = "Importar libros desde NDJSON", description = "Importa libros desde NDJSON: un objeto BookImportRow por línea")
+    public BookDTO.BookImportResult importNdjson(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long[] line = {0};
+
+        return runImport(() -> {
+            String text;
+            do {
+                text = reader.readLine();
+                line[0]++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return ParsedRow.valid(line[0], objectMapper.readValue(text, BookDTO.BookImportRow.class));
+            } catch (JsonProcessingException e) {
+                return ParsedRow.invalid(line[0], "JSON no válido: " + e.getOriginalMessage());
+            }
+        });
+    }
+
+    private BookDTO.BookImportResult runImport(RowSource source) throws IOException {
+        long started = System.nanoTime();
+        ImportState state = new ImportState(
+                namesToIds(authorRepository.findAllIdsAndNames()),
+                namesToIds(categoryRepository.findAllIdsAndNames()));
+
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        ParsedRow parsed;
+        while ((parsed = source.next()) != null) {
+            state.totalRows++;
+            if (state.totalRows > maxRows) {
+                state.reject(parsed.line(), "Se ha alcanzado el máximo de " + maxRows + " filas por importación; "
+                        + "el resto del fichero no se ha procesado");
+                break;
+            }
+
+            String error = parsed.error() != null ? parsed.error() : validate(parsed.row());
+            if (error != null) {
+                state.reject(parsed.line(), error);
+                continue;
+            }
+            chunk.add(parsed);
+            if (chunk.size() == chunkSize) {
+                persist(chunk, state);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persist(chunk, state);
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Book import finished: {} rows, {} imported, {} rejected, {} authors and {} categories created in {} ms",
+                state.totalRows, state.imported, state.failed, state.authorsCreated, state.categoriesCreated, elapsedMillis);
+
+        return BookDTO.BookImportResult.builder()
+                .totalRows(state.totalRows)
+                .imported(state.imported)
+                .failed(state.failed)
+                .authorsCreated(state.authorsCreated)
+                .categoriesCreated(state.categoriesCreated)
+                .elapsedMillis(elapsedMillis)
+                .errors(state.errors)
+                .errorsTruncated(state.failed > state.errors.size())
+                .build();
+    }
+
+    private void persist(List<ParsedRow> chunk, ImportState state) {
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> insertChunk(chunk, state));
+            state.authorIds.putAll(result.authorIds());
+            state.categoryIds.putAll(result.categoryIds());
+            state.authorsCreated += result.authorIds().size();
+            state.categoriesCreated += result.categoryIds().size();
+            state.imported += chunk.size();
+        } catch (DataAccessException | TransactionException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (chunk.size() == 1) {
+                state.reject(chunk.getFirst().line(), "No se pudo guardar la fila: " + cause);
+                return;
+            }
+            if (e instanceof DataIntegrityViolationException) {
+                // Una fila basta para revertir el lote entero: se reintenta cada una en su propia transacción
+                log.warn("Book import chunk starting at line {} violated a constraint, retrying its rows one by one: {}",
+                        chunk.getFirst().line(), cause);
+                for (ParsedRow row : chunk) {
+                    persist(List.of(row), state);
+                }
+                return;
+            }
+            log.warn("Book import chunk starting at line {} failed: {}", chunk.getFirst().line(), cause);
+            for (ParsedRow row : chunk) {
+                state.reject(row.line(), "No se pudo guardar el lote de la fila: " + cause);
+            }
+        }
+    }
+
+    /**
+     * Guarda un lote. Los autores y categorías nuevos solo se añaden a los mapas compartidos si el lote se confirma,
+     * para no referenciar ids de un lote revertido.
+     */
+    private ChunkResult insertChunk(List<ParsedRow> chunk, ImportState state) {
+        Map<String, Author> newAuthors = new LinkedHashMap<>();
+        Map<String, Category> newCategories = new LinkedHashMap<>();
+        List<Book> books = new ArrayList<>(chunk.size());
+
+        for (ParsedRow parsed : chunk) {
+            BookDTO.BookImportRow row = parsed.row();
+            Author author = resolve(row.getAuthor(), state.authorIds, newAuthors, authorRepository::getReferenceById,
+                    name -> Author.builder().authorName(name).books(new ArrayList<>()).build());
+            Category category = resolve(row.getCategory(), state.categoryIds, newCategories, categoryRepository::getReferenceById,
+                    name -> Category.builder().categoryName(name).books(new ArrayList<>()).build());
+
+            Book book = Book.builder()
+                    .title(row.getTitle().trim())
+                    .description(row.getDescription())
+                    .isbn(row.getIsbn())
+                    .author(author)
+                    .category(category)
+                    .totalAmount(row.getTotalAmount())
+                    .availableAmount(row.getAvailableAmount() != null ? row.getAvailableAmount() : row.getTotalAmount())
+                    .publicationYear(row.getPublicationYear())
+                    .build();
+            book.updateBookStatus();
+            books.add(book);
+        }
+
+        authorRepository.saveAll(newAuthors.values());
+        categoryRepository.saveAll(newCategories.values());
+        bookRepository.saveAll(books);
+        // El flush del repositorio traduce las violaciones de restricciones a DataIntegrityViolationException
+        bookRepository.flush();
+        entityManager.clear();
+
+        Map<String, Long> authorIds = new HashMap<>();
+        newAuthors.forEach((key, author) -> {
+            authorIds.put(key, author.getAuthorId());
+            eventPublisher.publishEvent(new DomainEvent.AuthorChanged(author.getAuthorId()));
+        });
+        Map<String, Long> categoryIds = new HashMap<>();
+        newCategories.forEach((key, category) -> {
+            categoryIds.put(key, category.getCategoryId());
+            eventPublisher.publishEvent(new DomainEvent.CategoryChanged(category.getCategoryId()));
+        });
+        eventPublisher.publishEvent(new DomainEvent.BooksImported(books.size()));
+
+        return new ChunkResult(authorIds, categoryIds);
+    }
+
+    private <T> T resolve(String name, Map<String, Long> existingIds, Map<String, T> created,
+                          Function<Long, T> reference, Function<String, T> factory) {
+        String key = nameKey(name);
+        Long id = existingIds.get(key);
+        if (id != null) {
+            return reference.apply(id);
+        }
+        return created.computeIfAbsent(key, ignored -> factory.apply(name.trim()));
+    }
+
+    private String validate(BookDTO.BookImportRow row) {
+        if (isBlank(row.getTitle())) {
+            return "El título es obligatorio";
+        }
+        if (row.getTitle().trim().length() > 200) {
+            return "El título no puede superar los 200 caracteres";
+        }
+        if (isBlank(row.getAuthor())) {
+            return "El autor es obligatorio";
+        }
+        if (row.getAuthor().trim().length() > 100) {
+            return "El nombre del autor no puede superar los 100 caracteres";
+        }
+        if (isBlank(row.getCategory())) {
+            return "La categoría es obligatoria";
+        }
+        if (row.getCategory().trim().length() > 50) {
+            return "El nombre de la categoría no puede superar los 50 caracteres";
+        }
+        if (row.getIsbn() != null && row.getIsbn().length() > 20) {
+            return "El ISBN no puede superar los 20 caracteres";
+        }
+        if (row.getTotalAmount() == null) {
+            return "La cantidad total es obligatoria";
+        }
+        if (row.getTotalAmount() < 1) {
+            return "La cantidad total debe ser al menos 1";
+        }
+        if (row.getAvailableAmount() != null && row.getAvailableAmount() < 0) {
+            return "La cantidad disponible no puede ser negativa";
+        }
+        if (row.getAvailableAmount() != null && row.getAvailableAmount() > row.getTotalAmount()) {
+            return "La cantidad disponible no puede superar la cantidad total";
+        }
+        return null;
+    }
+
+    private BookDTO.BookImportRow toRow(List<String> record, Map<String, Integer> columns) {
+        return BookDTO.BookImportRow.builder()
+                .title(text(record, columns, "title"))
+                .description(text(record, columns, "description"))
+                .isbn(text(record, columns, "isbn"))
+                .author(text(record, columns, "author"))
+                .category(text(record, columns, "category"))
+                .totalAmount(number(record, columns, "totalAmount"))
+                .availableAmount(number(record, columns, "availableAmount"))
+                .publicationYear(number(record, columns, "publicationYear"))
+                .build();
+    }
+
+    private String text(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isBlank()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private Integer number(List<String> record, Map<String, Integer> columns, String column) {
+        String value = text(record, columns, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico no válido en la columna " + column + ": '" + value + "'");
+        }
+    }
+
+    private static Map<String, Long> namesToIds(List<Object[]> rows) {
+        Map<String, Long> ids = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            // Con nombres repetidos gana el primero, como en findBy...NameIgnoreCase
+            ids.putIfAbsent(nameKey((String) row[1]), (Long) row[0]);
+        }
+        return ids;
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ParsedRow next() throws IOException;
+    }
+
+    private record ParsedRow(long line, BookDTO.BookImportRow row, String error) {
+        static ParsedRow valid(long line, BookDTO.BookImportRow row) {
+            return new ParsedRow(line, row, null);
+        }
+
+        static ParsedRow invalid(long line, String error) {
+            return new ParsedRow(line, null, error);
+        }
+    }
+
+    private record ChunkResult(Map<String, Long> authorIds, Map<String, Long> categoryIds) {
+    }
+
+    private final class ImportState {
+        private final Map<String, Long> authorIds;
+        private final Map<String, Long> categoryIds;
+        private final List<BookDTO.BookImportError> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private int authorsCreated;
+        private int categoriesCreated;
+
+        private ImportState(Map<String, Long> authorIds, Map<String, Long> categoryIds) {
+            this.authorIds = authorIds;
+            this.categoryIds = categoryIds;
+        }
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(BookDTO.BookImportError.builder().line(line).message(message).build());
+            }
+        }
+    }
+}
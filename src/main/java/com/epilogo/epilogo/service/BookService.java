@@ -3,6 +3,7 @@ package com.epilogo.epilogo.service;
 import com.epilogo.epilogo.dto.AuthorDTO;
 import com.epilogo.epilogo.dto.BookDTO;
 import com.epilogo.epilogo.dto.CategoryDTO;
+import com.epilogo.epilogo.event.DomainEvent;
 import com.epilogo.epilogo.exception.ResourceNotFoundException;
 import com.epilogo.epilogo.model.Author;
 import com.epilogo.epilogo.model.Book;
@@ -11,7 +12,9 @@ import com.epilogo.epilogo.model.Reservation;
 import com.epilogo.epilogo.model.S3File;
 import com.epilogo.epilogo.model.User;
 import com.epilogo.epilogo.repository.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,22 +28,29 @@ import org.springframework.web.multipart.MultipartFile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed("epilogo.service")
 @Tag(name = "Book Service", description = "Servicio para gestionar el catálogo de libros")
 public class BookService {
 
+    // Los libros populares se cuentan sobre las reservas de los últimos 30 días
+    private static final int POPULAR_WINDOW_DAYS = 30;
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final CategoryRepository categoryRepository;
     private final ReservationRepository reservationRepository;
     private final UserRepository userRepository;
     private final S3Service s3Service;
-    private final S3FileRepository s3FileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Operation(summary = "Obtener libro por ID", description = "Obtiene un libro con todos sus detalles por su ID")
     public BookDTO.BookResponse getBookById(Long bookId) {
@@ -57,9 +67,8 @@ public class BookService {
 
             if (currentUser.isPresent()) {
                 Long userId = currentUser.get().getUserId();
-                isReservedByCurrentUser = reservationRepository.findByUserIdAndStatus(userId, Reservation.ReservationStatus.ACTIVE)
-                        .stream()
-                        .anyMatch(r -> r.getBook().getBookId().equals(bookId));
+                isReservedByCurrentUser = reservationRepository.findBookIdsByUserIdAndStatus(userId, Reservation.ReservationStatus.ACTIVE)
+                        .contains(bookId);
             }
         }
 
@@ -107,20 +116,15 @@ public class BookService {
             }
         }
 
-        final Long userId = currentUserId;
-
-        return booksPage.map(book -> {
-            boolean isReservedByCurrentUser = false;
-            if (userId != null) {
-                isReservedByCurrentUser = reservationRepository.findByUserIdAndStatus(userId, Reservation.ReservationStatus.ACTIVE)
-                        .stream()
-                        .anyMatch(r -> r.getBook().getBookId().equals(book.getBookId()));
-            }
-
-            long activeReservations = reservationRepository.countActiveReservationsByBookId(book.getBookId());
+        // Reservas del usuario y recuentos de toda la página en dos consultas, no dos por libro
+        Set<Long> reservedBookIds = currentUserId != null
+                ? reservationRepository.findBookIdsByUserIdAndStatus(currentUserId, Reservation.ReservationStatus.ACTIVE)
+                : Set.of();
+        Map<Long, Long> activeReservationsByBook = countActiveReservations(booksPage.getContent());
 
-            return mapToBookResponse(book, isReservedByCurrentUser, (int) activeReservations);
-        });
+        return booksPage.map(book -> mapToBookResponse(book,
+                reservedBookIds.contains(book.getBookId()),
+                activeReservationsByBook.getOrDefault(book.getBookId(), 0L).intValue()));
     }
 
     @Transactional
@@ -146,6 +150,7 @@ public class BookService {
         book.updateBookStatus();
 
         Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new DomainEvent.BookChanged(savedBook.getBookId()));
 
         return mapToBookResponse(savedBook, false, 0);
     }
@@ -153,7 +158,8 @@ public class BookService {
     @Transactional
     @Operation(summary = "Actualizar libro", description = "Actualiza los datos de un libro existente")
     public BookDTO.BookResponse updateBook(Long bookId, BookDTO.BookUpdateRequest request) {
-        Book book = bookRepository.findById(bookId)
+        // Se guarda la fila completa: bloqueada para no pisar los cambios de disponibilidad de reservas simultáneas
+        Book book = bookRepository.findByIdForUpdate(bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + bookId));
 
         if (request.getTitle() != null) {
@@ -196,6 +202,11 @@ public class BookService {
         book.updateBookStatus();
 
         Book updatedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new DomainEvent.BookChanged(bookId));
+        if (request.getTotalAmount() != null || request.getAvailableAmount() != null) {
+            eventPublisher.publishEvent(new DomainEvent.AvailabilityChanged(
+                    bookId, updatedBook.getAvailableAmount(), updatedBook.getTotalAmount(), updatedBook.getBookStatus()));
+        }
 
         long activeReservations = reservationRepository.countActiveReservationsByBookId(bookId);
 
@@ -215,17 +226,23 @@ public class BookService {
         }
 
         bookRepository.deleteById(bookId);
+        eventPublisher.publishEvent(new DomainEvent.BookChanged(bookId));
     }
 
     @Transactional
     @Operation(summary = "Subir portada de libro", description = "Sube una imagen para la portada del libro")
     public BookDTO.BookResponse uploadBookCover(Long bookId, MultipartFile file) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + bookId));
+        if (!bookRepository.existsById(bookId)) {
+            throw new ResourceNotFoundException("Libro no encontrado con ID: " + bookId);
+        }
 
         S3File s3File = s3Service.uploadFile(file, S3File.EntityType.BOOK, bookId);
 
-        book.setImageUrl(s3File.getS3Url());
+        // La fila se bloquea después de la subida, que puede tardar, y no antes
+        Book book = bookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + bookId));
+
+        book.setCurrentImage(s3File);
         Book updatedBook = bookRepository.save(book);
 
         long activeReservations = reservationRepository.countActiveReservationsByBookId(bookId);
@@ -235,21 +252,31 @@ public class BookService {
 
     @Operation(summary = "Obtener libros más populares", description = "Obtiene los libros más reservados recientemente")
     public List<BookDTO.BookSummary> getMostPopularBooks(int limit) {
-        return bookRepository.findMostReservedBooks(limit).stream()
+        if (limit <= 0) {
+            return List.of();
+        }
+        return bookRepository.findMostReservedBooks(LocalDate.now().minusDays(POPULAR_WINDOW_DAYS), PageRequest.of(0, limit)).stream()
                 .map(book -> BookDTO.BookSummary.builder()
                         .bookId(book.getBookId())
                         .title(book.getTitle())
-                        .imageUrl(book.getImageUrl())
+                        .imageUrl(s3Service.resolveFileUrl(book.getCurrentImage()))
                         .bookStatus(book.getBookStatus())
                         .authorName(book.getAuthor().getAuthorName())
                         .build())
                 .collect(Collectors.toList());
     }
 
-    private BookDTO.BookResponse mapToBookResponse(Book book, boolean isReservedByCurrentUser, int activeReservations) {
-        Optional<S3File> latestFileOpt = s3FileRepository.findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(book.getBookId(), S3File.EntityType.BOOK);
+    private Map<Long, Long> countActiveReservations(List<Book> books) {
+        if (books.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> bookIds = books.stream().map(Book::getBookId).toList();
+        return reservationRepository.countActiveReservationsByBookIds(bookIds).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
 
-        String imageUrl = latestFileOpt.map(S3File::getS3Url).orElse(null);
+    private BookDTO.BookResponse mapToBookResponse(Book book, boolean isReservedByCurrentUser, int activeReservations) {
+        String imageUrl = s3Service.resolveFileUrl(book.getCurrentImage());
 
         return BookDTO.BookResponse.builder()
                 .bookId(book.getBookId())
@@ -259,12 +286,12 @@ public class BookService {
                 .author(AuthorDTO.AuthorSummary.builder()
                         .authorId(book.getAuthor().getAuthorId())
                         .authorName(book.getAuthor().getAuthorName())
-                        .imageUrl(book.getAuthor().getImageUrl())
+                        .imageUrl(s3Service.resolveFileUrl(book.getAuthor().getCurrentImage()))
                         .build())
                 .category(CategoryDTO.CategorySummary.builder()
                         .categoryId(book.getCategory().getCategoryId())
                         .categoryName(book.getCategory().getCategoryName())
-                        .imageUrl(book.getCategory().getImageUrl())
+                        .imageUrl(s3Service.resolveFileUrl(book.getCategory().getCurrentImage()))
                         .build())
                 .totalAmount(book.getTotalAmount())
                 .availableAmount(book.getAvailableAmount())
@@ -0,0 +1,75 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.CacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Tag(name = "Cache Statistics Service", description = "Servicio para consultar la eficacia de la caché de segundo nivel")
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Operation(summary = "Obtener estadísticas de caché", description = "Devuelve aciertos, fallos y proporción de aciertos de la caché de segundo nivel, por región, y de la caché de consultas")
+    public CacheDTO.CacheStatisticsResponse getStatistics() {
+        Statistics statistics = statistics();
+
+        List<CacheDTO.RegionStatistics> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> mapToRegionStatistics(region, statistics.getCacheRegionStatistics(region)))
+                .toList();
+
+        return CacheDTO.CacheStatisticsResponse.builder()
+                .secondLevelHitCount(statistics.getSecondLevelCacheHitCount())
+                .secondLevelMissCount(statistics.getSecondLevelCacheMissCount())
+                .secondLevelHitRatio(ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()))
+                .queryCacheHitCount(statistics.getQueryCacheHitCount())
+                .queryCacheMissCount(statistics.getQueryCacheMissCount())
+                .queryCacheHitRatio(ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()))
+                .collectedForSeconds(Duration.between(statistics.getStart(), Instant.now()).toSeconds())
+                .regions(regions)
+                .build();
+    }
+
+    @Operation(summary = "Reiniciar estadísticas de caché", description = "Pone a cero los contadores de la caché sin vaciar su contenido")
+    public void resetStatistics() {
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private CacheDTO.RegionStatistics mapToRegionStatistics(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return CacheDTO.RegionStatistics.builder().region(region).elementCount(-1).build();
+        }
+
+        return CacheDTO.RegionStatistics.builder()
+                .region(region)
+                .hitCount(regionStatistics.getHitCount())
+                .missCount(regionStatistics.getMissCount())
+                .putCount(regionStatistics.getPutCount())
+                .elementCount(regionStatistics.getElementCountInMemory())
+                .hitRatio(ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount()))
+                .build();
+    }
+
+    private double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,122 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.exception.ResourceNotFoundException;
+import com.epilogo.epilogo.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+
+/**
+ * Calcula la versión (ETag y Last-Modified) de las respuestas del catálogo a partir de las columnas updated_at,
+ * sin construir el DTO, para poder responder 304 a las peticiones condicionales.
+ */
+@Service
+@RequiredArgsConstructor
+@Tag(name = "Catalog Version Service", description = "Servicio para versionar las respuestas del catálogo en peticiones condicionales")
+public class CatalogVersionService {
+
+    private final BookRepository bookRepository;
+
+    @Value("${catalog.http-cache.max-age:PT30S}")
+    private Duration maxAge;
+
+    @Value("${catalog.http-cache.shared-max-age:PT2M}")
+    private Duration sharedMaxAge;
+
+    /**
+     * Versión de una respuesta: ETag débil (el JSON puede variar en formato sin cambiar de contenido),
+     * fecha de última modificación en ms y política de caché aplicable.
+     */
+    public record CatalogVersion(String etag, long lastModified, CacheControl cacheControl, boolean perUser) {
+    }
+
+    @Operation(summary = "Versión de un libro", description = "Versión de la ficha de un libro, que cambia al modificarse el libro, su autor o su categoría")
+    public CatalogVersion bookVersion(Long bookId) {
+        LocalDateTime lastModified = bookRepository.findLastModifiedById(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + bookId));
+
+        long lastModifiedMillis = lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return buildVersion(lastModifiedMillis, true, "book", bookId, lastModifiedMillis);
+    }
+
+    @Operation(summary = "Versión del catálogo", description = "Versión de un listado del catálogo. Los discriminadores (ruta, parámetros) distinguen unos listados de otros")
+    public CatalogVersion catalogVersion(boolean perUser, Object... discriminators) {
+        String fingerprint = bookRepository.findCatalogFingerprint();
+
+        // Los valores impares son epoch en ms de timestamps sin zona: se reinterpretan en la zona de la JVM
+        String[] parts = fingerprint.split(":");
+        long latestLocalMillis = 0;
+        for (int i = 1; i < parts.length; i += 2) {
+            latestLocalMillis = Math.max(latestLocalMillis, Long.parseLong(parts[i]));
+        }
+        long lastModifiedMillis = LocalDateTime.ofEpochSecond(latestLocalMillis / 1000, 0, ZoneOffset.UTC)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        Object[] keyParts = new Object[discriminators.length + 1];
+        keyParts[0] = fingerprint;
+        System.arraycopy(discriminators, 0, keyParts, 1, discriminators.length);
+
+        return buildVersion(lastModifiedMillis, perUser, keyParts);
+    }
+
+    @Operation(summary = "Versión de un ranking", description = "Versión de los listados de populares, que además cambian cada día por su ventana temporal")
+    public CatalogVersion rankingVersion(Object... discriminators) {
+        Object[] keyParts = new Object[discriminators.length + 1];
+        keyParts[0] = LocalDate.now();
+        System.arraycopy(discriminators, 0, keyParts, 1, discriminators.length);
+        return catalogVersion(false, keyParts);
+    }
+
+    private CatalogVersion buildVersion(long lastModifiedMillis, boolean perUser, Object... keyParts) {
+        String principal = perUser ? currentPrincipal() : null;
+
+        StringBuilder key = new StringBuilder();
+        for (Object part : keyParts) {
+            key.append(part).append('|');
+        }
+        if (principal != null) {
+            key.append("user=").append(principal);
+        }
+
+        // Con usuario autenticado la respuesta es privada y se revalida siempre; si no, la pueden guardar CDNs
+        CacheControl cacheControl = principal != null ?
+                CacheControl.noCache().cachePrivate() :
+                CacheControl.maxAge(maxAge).sMaxAge(sharedMaxAge).cachePublic();
+
+        return new CatalogVersion("W/\"" + hash(key.toString()) + "\"", lastModifiedMillis, cacheControl, perUser);
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() &&
+                !authentication.getName().equals("anonymousUser")) {
+            return authentication.getName();
+        }
+        return null;
+    }
+
+    private String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
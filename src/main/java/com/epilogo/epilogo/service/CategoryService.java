@@ -2,13 +2,14 @@ package com.epilogo.epilogo.service;
 
 import com.epilogo.epilogo.dto.BookDTO;
 import com.epilogo.epilogo.dto.CategoryDTO;
+import com.epilogo.epilogo.event.DomainEvent;
 import com.epilogo.epilogo.exception.ResourceNotFoundException;
 import com.epilogo.epilogo.model.Book;
 import com.epilogo.epilogo.model.Category;
 import com.epilogo.epilogo.model.S3File;
 import com.epilogo.epilogo.repository.CategoryRepository;
-import com.epilogo.epilogo.repository.S3FileRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,7 +19,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,7 +28,7 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final S3Service s3Service;
-    private final S3FileRepository s3FileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Operation(summary = "Obtener categoría por ID", description = "Obtiene una categoría con todos sus libros por su ID")
     public CategoryDTO.CategoryResponse getCategoryById(Long categoryId) {
@@ -58,6 +58,7 @@ public class CategoryService {
                 .build();
 
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new DomainEvent.CategoryChanged(savedCategory.getCategoryId()));
 
         return mapToCategoryResponse(savedCategory);
     }
@@ -80,6 +81,7 @@ public class CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new DomainEvent.CategoryChanged(categoryId));
 
         return mapToCategoryResponse(updatedCategory);
     }
@@ -95,6 +97,7 @@ public class CategoryService {
         }
 
         categoryRepository.deleteById(categoryId);
+        eventPublisher.publishEvent(new DomainEvent.CategoryChanged(categoryId));
     }
 
     @Transactional
@@ -105,7 +108,7 @@ public class CategoryService {
 
         S3File s3File = s3Service.uploadFile(file, S3File.EntityType.CATEGORY, categoryId);
 
-        category.setImageUrl(s3File.getS3Url());
+        category.setCurrentImage(s3File);
         Category updatedCategory = categoryRepository.save(category);
 
         return mapToCategoryResponse(updatedCategory);
@@ -121,9 +124,7 @@ public class CategoryService {
     private CategoryDTO.CategoryResponse mapToCategoryResponse(Category category) {
         List<Book> books = category.getBooks() == null ? Collections.emptyList() : category.getBooks();
 
-        Optional<S3File> latestFileOpt = s3FileRepository.findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(category.getCategoryId(), S3File.EntityType.CATEGORY);
-
-        String imageUrl = latestFileOpt.map(S3File::getS3Url).orElse(null);
+        String imageUrl = s3Service.resolveFileUrl(category.getCurrentImage());
 
         return CategoryDTO.CategoryResponse.builder()
                 .categoryId(category.getCategoryId())
@@ -134,7 +135,7 @@ public class CategoryService {
                         .map(book -> BookDTO.BookSummary.builder()
                                 .bookId(book.getBookId())
                                 .title(book.getTitle())
-                                .imageUrl(book.getImageUrl())
+                                .imageUrl(s3Service.resolveFileUrl(book.getCurrentImage()))
                                 .bookStatus(book.getBookStatus())
                                 .authorName(book.getAuthor().getAuthorName())
                                 .build())
@@ -144,9 +145,7 @@ public class CategoryService {
     }
 
     private CategoryDTO.CategorySummary mapToCategorySummary(Category category) {
-        Optional<S3File> latestFileOpt = s3FileRepository.findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(category.getCategoryId(), S3File.EntityType.CATEGORY);
-
-        String imageUrl = latestFileOpt.map(S3File::getS3Url).orElse(null);
+        String imageUrl = s3Service.resolveFileUrl(category.getCurrentImage());
 
         return CategoryDTO.CategorySummary.builder()
                 .categoryId(category.getCategoryId())
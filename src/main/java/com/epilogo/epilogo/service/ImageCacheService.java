@@ -0,0 +1,215 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.exception.ResourceNotFoundException;
+import com.epilogo.epilogo.exception.S3FileException;
+import com.epilogo.epilogo.model.S3File;
+import com.epilogo.epilogo.repository.S3FileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Caché en disco, acotada por tamaño y con política LRU, de los archivos públicos servidos por /api/images.
+ * Cada archivo se descarga del almacenamiento una sola vez y se guarda con su ID como nombre.
+ * <p>
+ * Quien obtiene una imagen la tiene reservada hasta llamar a {@link #release(Long)}: si la política LRU la desaloja
+ * mientras se está enviando, sale de la caché en el acto pero el archivo no se borra hasta que se libera la última
+ * reserva.
+ */
+@Service
+@Slf4j
+@Tag(name = "Image Cache Service", description = "Caché local de imágenes servidas por el proxy de imágenes")
+public class ImageCacheService {
+
+    private final S3FileRepository s3FileRepository;
+    private final S3Service s3Service;
+    private final Path cacheDir;
+    private final long maxSizeBytes;
+
+    private final LinkedHashMap<Long, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, ReentrantLock> downloadLocks = new ConcurrentHashMap<>();
+    // Reservas abiertas por archivo y archivos desalojados cuyo borrado espera a que se liberen
+    private final Map<Long, Integer> readers = new HashMap<>();
+    private final Set<Long> evictedWhileRead = new HashSet<>();
+    private long totalBytes;
+
+    public record CachedImage(S3File file, Path path, long size, String etag) {
+    }
+
+    public ImageCacheService(S3FileRepository s3FileRepository,
+                             S3Service s3Service,
+                             @Value("${images.cache.dir}") String cacheDir,
+                             @Value("${images.cache.max-size-bytes}") long maxSizeBytes) throws IOException {
+        this.s3FileRepository = s3FileRepository;
+        this.s3Service = s3Service;
+        this.cacheDir = Path.of(cacheDir).toAbsolutePath().normalize();
+        this.maxSizeBytes = maxSizeBytes;
+        Files.createDirectories(this.cacheDir);
+        loadExistingEntries();
+    }
+
+    /**
+     * Devuelve la copia local de un archivo público y la reserva: no se borrará del disco hasta que se llame a
+     * {@link #release(Long)} con su ID, normalmente al terminar de enviarla.
+     */
+    @Operation(summary = "Obtener imagen", description = "Devuelve la copia local de un archivo público, descargándola si no está en caché")
+    public CachedImage getImage(Long fileId) {
+        S3File s3File = s3FileRepository.findById(fileId)
+                .filter(S3File::isPublic)
+                .orElseThrow(() -> new ResourceNotFoundException("Imagen no encontrada con ID: " + fileId));
+
+        Path path = cacheDir.resolve(String.valueOf(fileId));
+        Long size = acquire(fileId);
+
+        if (size == null) {
+            // ReentrantLock y no synchronized: la descarga bloquea en red y fijaría el hilo portador de un hilo virtual
+            ReentrantLock lock = downloadLocks.computeIfAbsent(fileId, id -> new ReentrantLock());
+            lock.lock();
+            try {
+                size = acquire(fileId);
+                if (size == null) {
+                    size = download(s3File, path);
+                    register(fileId, size);
+                }
+            } finally {
+                lock.unlock();
+                downloadLocks.remove(fileId, lock);
+            }
+        }
+
+        return new CachedImage(s3File, path, size, etagFor(s3File));
+    }
+
+    /**
+     * Libera una reserva obtenida con {@link #getImage(Long)}. Si el archivo se desalojó mientras estaba reservado, se
+     * borra al liberar la última.
+     */
+    public synchronized void release(Long fileId) {
+        Integer count = readers.get(fileId);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            readers.put(fileId, count - 1);
+            return;
+        }
+        readers.remove(fileId);
+        if (evictedWhileRead.remove(fileId)) {
+            delete(fileId);
+        }
+    }
+
+    private long download(S3File s3File, Path target) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(cacheDir, ".download-", ".tmp");
+            try (InputStream content = s3Service.openFileContent(s3File)) {
+                Files.copy(content, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(target);
+        } catch (IOException e) {
+            log.error("Error caching file ID {}: {}", s3File.getFileId(), e.getMessage());
+            throw new S3FileException("Failed to cache file: " + e.getMessage(), e);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary file {}: {}", tempFile, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tamaño del archivo si está en caché, reservándolo en la misma sección crítica en la que se comprueba, o
+     * {@code null} si no está.
+     */
+    private synchronized Long acquire(Long fileId) {
+        Long size = entries.get(fileId);
+        if (size != null) {
+            readers.merge(fileId, 1, Integer::sum);
+        }
+        return size;
+    }
+
+    private synchronized void register(Long fileId, long size) {
+        Long previous = entries.put(fileId, size);
+        totalBytes += size - (previous != null ? previous : 0);
+        // La descarga nueva sustituye al archivo desalojado: ya no hay que borrarlo
+        evictedWhileRead.remove(fileId);
+        readers.merge(fileId, 1, Integer::sum);
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Long, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxSizeBytes && iterator.hasNext()) {
+            Map.Entry<Long, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            if (readers.containsKey(eldest.getKey())) {
+                // Se está enviando: se borra al liberar la última reserva
+                evictedWhileRead.add(eldest.getKey());
+            } else {
+                delete(eldest.getKey());
+            }
+        }
+    }
+
+    private void delete(Long fileId) {
+        try {
+            Files.deleteIfExists(cacheDir.resolve(String.valueOf(fileId)));
+        } catch (IOException e) {
+            log.warn("Could not evict cached file ID {}: {}", fileId, e.getMessage());
+        }
+    }
+
+    private synchronized void loadExistingEntries() throws IOException {
+        List<Path> cachedFiles;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            cachedFiles = files
+                    .filter(path -> path.getFileName().toString().matches("\\d+"))
+                    .sorted(Comparator.comparing(path -> path.toFile().lastModified()))
+                    .toList();
+        }
+
+        for (Path path : cachedFiles) {
+            Long fileId = Long.valueOf(path.getFileName().toString());
+            long size = Files.size(path);
+            entries.put(fileId, size);
+            totalBytes += size;
+        }
+        evictIfNeeded();
+
+        log.info("Image cache at {} holds {} files ({} bytes)", cacheDir, entries.size(), totalBytes);
+    }
+
+    private String etagFor(S3File s3File) {
+        if (s3File.getContentHash() != null) {
+            return "\"" + s3File.getContentHash() + "\"";
+        }
+        return "\"f" + s3File.getFileId() + "-" + s3File.getFileSize() + "\"";
+    }
+}
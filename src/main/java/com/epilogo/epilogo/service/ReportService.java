@@ -3,6 +3,7 @@ package com.epilogo.epilogo.service;
 import com.epilogo.epilogo.dto.ReportDTO;
 import com.epilogo.epilogo.model.Reservation;
 import com.epilogo.epilogo.repository.ReservationRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ByteArrayResource;
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("epilogo.service")
 public class ReportService {
 
     private final ReservationRepository reservationRepository;
@@ -0,0 +1,166 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.event.DomainEvent;
+import com.epilogo.epilogo.model.Reservation;
+import com.epilogo.epilogo.repository.BookRepository;
+import com.epilogo.epilogo.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancela las reservas PENDING cuyo plazo de recogida ({@code hold_expires_at}) ha vencido y devuelve sus ejemplares:
+ * primero a la lista de espera del libro y, si nadie espera, a su disponibilidad.
+ * <p>
+ * Cada lote se bloquea con {@code FOR UPDATE SKIP LOCKED} y se procesa en su propia transacción, así que varios
+ * nodos pueden barrer a la vez sin coordinarse ni cancelar dos veces la misma reserva. La disponibilidad se restaura
+ * con una sentencia por valor de variación, no una por libro.
+ */
+@Service
+@Slf4j
+@Tag(name = "Reservation Expiry Service", description = "Servicio de caducidad de reservas pendientes no recogidas")
+public class ReservationExpiryService {
+
+    private final ReservationRepository reservationRepository;
+    private final BookRepository bookRepository;
+    private final WaitlistService waitlistService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Timer sweepTimer;
+    private final Counter expiredCounter;
+    private final Counter reallocatedCounter;
+    private final AtomicLong lastSweepExpired = new AtomicLong();
+
+    public ReservationExpiryService(ReservationRepository reservationRepository,
+                                    BookRepository bookRepository,
+                                    WaitlistService waitlistService,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${reservations.expiry.enabled:true}") boolean enabled,
+                                    @Value("${reservations.expiry.batch-size:500}") int batchSize,
+                                    @Value("${reservations.expiry.max-batches:20}") int maxBatches) {
+        this.reservationRepository = reservationRepository;
+        this.bookRepository = bookRepository;
+        this.waitlistService = waitlistService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+
+        this.sweepTimer = Timer.builder("epilogo.reservations.expiry.sweep")
+                .description("Duración de cada barrido de reservas pendientes caducadas")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("epilogo.reservations.expiry.expired")
+                .description("Reservas pendientes canceladas por vencer su plazo de recogida")
+                .register(meterRegistry);
+        this.reallocatedCounter = Counter.builder("epilogo.reservations.expiry.reallocated")
+                .description("Ejemplares liberados por caducidad y asignados a la lista de espera")
+                .register(meterRegistry);
+        meterRegistry.gauge("epilogo.reservations.expiry.last-sweep", lastSweepExpired);
+    }
+
+    @Scheduled(fixedDelayString = "${reservations.expiry.interval:PT1M}", initialDelayString = "${reservations.expiry.interval:PT1M}")
+    @Hidden
+    public void scheduledSweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Error during pending reservation expiry sweep: {}", e.getMessage(), e);
+        }
+    }
+
+    @Operation(summary = "Barrer reservas caducadas", description = "Cancela las reservas pendientes con el plazo de recogida vencido y devuelve sus ejemplares")
+    public int sweep() {
+        return sweepTimer.record(() -> {
+            int expired = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                Integer cancelled = transactionTemplate.execute(status -> expireBatch(LocalDateTime.now()));
+                expired += cancelled != null ? cancelled : 0;
+                if (cancelled == null || cancelled < batchSize) {
+                    break;
+                }
+            }
+            lastSweepExpired.set(expired);
+            if (expired > 0) {
+                log.info("Expired {} pending reservations past their pickup window", expired);
+            }
+            return expired;
+        });
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<Object[]> expired = reservationRepository.lockExpiredPendingHolds(now, batchSize);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> reservationIds = new ArrayList<>(expired.size());
+        Map<Long, Integer> freedByBook = new HashMap<>();
+        for (Object[] row : expired) {
+            reservationIds.add(((Number) row[0]).longValue());
+            // Las reservas por adelantado no llegaron a descontar su ejemplar: no hay nada que devolver
+            if ((Boolean) row[2]) {
+                freedByBook.merge(((Number) row[1]).longValue(), 1, Integer::sum);
+            }
+        }
+        reservationRepository.cancelPending(reservationIds, now);
+
+        // Los libros se bloquean en orden de id antes de tocar sus listas de espera, igual que en las transiciones en lote
+        if (!freedByBook.isEmpty()) {
+            bookRepository.findAllByIdForUpdate(freedByBook.keySet());
+        }
+
+        // Los ejemplares liberados van primero a la lista de espera; el resto vuelve a estar disponible
+        Map<Long, Integer> restoredByBook = new HashMap<>();
+        int reallocated = 0;
+        for (Map.Entry<Long, Integer> freed : freedByBook.entrySet()) {
+            int allocated = waitlistService.allocate(freed.getKey(), freed.getValue());
+            reallocated += allocated;
+            restoredByBook.put(freed.getKey(), freed.getValue() - allocated);
+        }
+        bookRepository.applyAvailabilityDeltas(restoredByBook, now);
+
+        for (Object[] row : expired) {
+            eventPublisher.publishEvent(new DomainEvent.ReservationStatusChanged(((Number) row[0]).longValue(),
+                    ((Number) row[1]).longValue(), Reservation.ReservationStatus.CANCELLED));
+        }
+        List<Long> restored = restoredByBook.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!restored.isEmpty()) {
+            bookRepository.findAllById(restored).forEach(book -> eventPublisher.publishEvent(new DomainEvent.AvailabilityChanged(
+                    book.getBookId(), book.getAvailableAmount(), book.getTotalAmount(), book.getBookStatus())));
+        }
+
+        expiredCounter.increment(expired.size());
+        reallocatedCounter.increment(reallocated);
+        return expired.size();
+    }
+}
@@ -0,0 +1,66 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.LocalDate;
+
+/**
+ * Mantiene la columna {@code overdue} de las reservas. El vencimiento solo cambia al cambiar de día o de estado: los
+ * cambios de estado lo recalculan en la propia entidad y este job aplica el cambio de día con dos UPDATE sobre los
+ * índices parciales, justo después de medianoche y al arrancar por si el nodo estuvo parado. Es idempotente, así que
+ * no importa que lo ejecuten varios nodos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reservation Overdue Service", description = "Servicio de cálculo diario de reservas vencidas")
+public class ReservationOverdueService {
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reservations.overdue.enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(cron = "${reservations.overdue.cron:0 5 0 * * *}")
+    @Hidden
+    public void scheduledRefresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Error refreshing overdue reservations: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Hidden
+    public void refreshOnStartup() {
+        scheduledRefresh();
+    }
+
+    @Operation(summary = "Recalcular vencimientos", description = "Marca las reservas activas vencidas y desmarca las que ya no lo están")
+    public int refresh() {
+        LocalDate today = LocalDate.now();
+        int[] changed = transactionTemplate.execute(status -> new int[]{
+                reservationRepository.markOverdue(today),
+                reservationRepository.clearOverdue(today)
+        });
+        log.info("Overdue reservations refreshed for {}: {} marked, {} cleared", today, changed[0], changed[1]);
+        return changed[0];
+    }
+}
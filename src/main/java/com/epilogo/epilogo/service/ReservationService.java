@@ -3,16 +3,18 @@ package com.epilogo.epilogo.service;
 import com.epilogo.epilogo.dto.BookDTO;
 import com.epilogo.epilogo.dto.ReservationDTO;
 import com.epilogo.epilogo.dto.UserDTO;
+import com.epilogo.epilogo.event.DomainEvent;
 import com.epilogo.epilogo.exception.ResourceNotFoundException;
 import com.epilogo.epilogo.model.Book;
 import com.epilogo.epilogo.model.Reservation;
-import com.epilogo.epilogo.model.S3File;
 import com.epilogo.epilogo.model.User;
 import com.epilogo.epilogo.repository.BookRepository;
 import com.epilogo.epilogo.repository.ReservationRepository;
-import com.epilogo.epilogo.repository.S3FileRepository;
 import com.epilogo.epilogo.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,25 +25,50 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed("epilogo.service")
 public class ReservationService {
 
+    private static final int DEFAULT_OVERDUE_PAGE_SIZE = 50;
+    private static final int MAX_OVERDUE_PAGE_SIZE = 200;
+
     private final ReservationRepository reservationRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
-    private final S3FileRepository s3FileRepository;
+    private final S3Service s3Service;
+    private final WaitlistService waitlistService;
+    private final AvailabilityCalendarService availabilityCalendarService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${reservations.pending-hold:PT72H}")
+    private Duration pendingHold;
+
+    @Value("${reservations.calendar.max-days-ahead:180}")
+    private int maxDaysAhead;
 
     /**
-     * Create a new reservation
+     * Create a new reservation, starting today or, if a future start date is given, booked in advance. An advance
+     * booking does not take a copy until it is picked up; it is accepted if the availability calendar has a free copy
+     * every day of its range.
      */
     @Transactional
     public ReservationDTO.ReservationResponse createReservation(ReservationDTO.ReservationCreateRequest request) {
+        LocalDate startDate = resolveStartDate(request);
+        boolean inAdvance = startDate.isAfter(LocalDate.now());
+
         // Get authenticated user
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
@@ -49,35 +76,174 @@ public class ReservationService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
 
-        // Get book
-        Book book = bookRepository.findById(request.getBookId())
+        // Get book, locked until commit so that no other reservation of it can overlap this one
+        Book book = bookRepository.findByIdForUpdate(request.getBookId())
                 .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + request.getBookId()));
 
         // Check if book is available
-        if (book.getAvailableAmount() <= 0) {
-            throw new IllegalStateException("No hay copias disponibles de este libro");
+        if (!inAdvance && book.getAvailableAmount() <= 0) {
+            throw new IllegalStateException("No hay copias disponibles de este libro; puede apuntarse a su lista de espera");
+        }
+        if (!availabilityCalendarService.isBookable(book, startDate, request.getExpectedReturnDate())) {
+            throw new IllegalStateException("No quedan copias libres de este libro entre el " + startDate + " y el " +
+                    request.getExpectedReturnDate() + "; consulte su calendario de disponibilidad");
         }
 
         // Create reservation
         Reservation reservation = Reservation.builder()
                 .user(user)
                 .book(book)
-                .reservationDate(LocalDate.now())
+                .reservationDate(startDate)
                 .expectedReturnDate(request.getExpectedReturnDate())
                 .status(Reservation.ReservationStatus.PENDING)
+                .holdExpiresAt(holdExpiry(startDate))
+                .copyHeld(!inAdvance)
                 .build();
 
         // Save reservation
         Reservation savedReservation = reservationRepository.save(reservation);
+        availabilityCalendarService.reserve(book, savedReservation.getReservationId(), startDate, request.getExpectedReturnDate());
 
-        // TRIGGER LOGIC: Si la nueva reserva es ACTIVE (aunque normalmente será PENDING)
-        if (savedReservation.getStatus() == Reservation.ReservationStatus.PENDING) {
+        // TRIGGER LOGIC: Si la nueva reserva es ACTIVE (aunque normalmente será PENDING); las reservas por adelantado
+        // no descuentan ejemplar hasta que se recogen
+        if (savedReservation.isCopyHeld()) {
             decreaseBookAvailability(book);
+
+            // Si esperaba este libro, ya no necesita su plaza en la cola
+            waitlistService.leaveIfWaiting(book.getBookId(), user.getUserId());
+        } else {
+            touchBook(book);
         }
 
+        eventPublisher.publishEvent(new DomainEvent.ReservationStatusChanged(savedReservation.getReservationId(), book.getBookId(), savedReservation.getStatus()));
+
         return mapToReservationResponse(savedReservation);
     }
 
+    /**
+     * Reserve several books at once (cart checkout). In ATOMIC mode every book must be available or nothing is
+     * reserved; in BEST_EFFORT mode the available ones are reserved and the rest are reported.
+     */
+    @Transactional
+    public ReservationDTO.ReservationBatchResponse createReservations(ReservationDTO.ReservationBatchCreateRequest request) {
+        ReservationDTO.CheckoutMode mode = request.getMode() != null ? request.getMode() : ReservationDTO.CheckoutMode.ATOMIC;
+
+        Map<Long, ReservationDTO.ReservationCreateRequest> itemsByBook = new LinkedHashMap<>();
+        Map<Long, LocalDate> startDates = new HashMap<>();
+        for (ReservationDTO.ReservationCreateRequest item : request.getItems()) {
+            if (itemsByBook.putIfAbsent(item.getBookId(), item) != null) {
+                throw new IllegalStateException("El libro con ID " + item.getBookId() + " aparece más de una vez en la reserva");
+            }
+            startDates.put(item.getBookId(), resolveStartDate(item));
+        }
+        LocalDate today = LocalDate.now();
+
+        // Get authenticated user
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication.getName();
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+
+        // Bloquear todos los libros en orden de id antes de comprobar la disponibilidad
+        Map<Long, Book> books = bookRepository.findAllByIdForUpdate(itemsByBook.keySet()).stream()
+                .collect(Collectors.toMap(Book::getBookId, Function.identity()));
+
+        Map<Long, ReservationDTO.ReservationBatchItem> failures = new HashMap<>();
+        for (Long bookId : itemsByBook.keySet()) {
+            Book book = books.get(bookId);
+            LocalDate startDate = startDates.get(bookId);
+            LocalDate expectedReturnDate = itemsByBook.get(bookId).getExpectedReturnDate();
+            if (book == null) {
+                if (mode == ReservationDTO.CheckoutMode.ATOMIC) {
+                    throw new ResourceNotFoundException("Libro no encontrado con ID: " + bookId);
+                }
+                failures.put(bookId, ReservationDTO.ReservationBatchItem.builder()
+                        .bookId(bookId)
+                        .outcome(ReservationDTO.BatchReservationOutcome.NOT_FOUND)
+                        .message("Libro no encontrado con ID: " + bookId)
+                        .build());
+            } else if (!startDate.isAfter(today) && book.getAvailableAmount() <= 0) {
+                if (mode == ReservationDTO.CheckoutMode.ATOMIC) {
+                    throw new IllegalStateException("No hay copias disponibles del libro: " + book.getTitle());
+                }
+                failures.put(bookId, ReservationDTO.ReservationBatchItem.builder()
+                        .bookId(bookId)
+                        .outcome(ReservationDTO.BatchReservationOutcome.UNAVAILABLE)
+                        .message("No hay copias disponibles de este libro")
+                        .build());
+            } else if (!availabilityCalendarService.isBookable(book, startDate, expectedReturnDate)) {
+                if (mode == ReservationDTO.CheckoutMode.ATOMIC) {
+                    throw new IllegalStateException("No quedan copias libres del libro " + book.getTitle() + " entre el " +
+                            startDate + " y el " + expectedReturnDate);
+                }
+                failures.put(bookId, ReservationDTO.ReservationBatchItem.builder()
+                        .bookId(bookId)
+                        .outcome(ReservationDTO.BatchReservationOutcome.UNAVAILABLE)
+                        .message("No quedan copias libres de este libro entre el " + startDate + " y el " + expectedReturnDate)
+                        .build());
+            }
+        }
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (Map.Entry<Long, ReservationDTO.ReservationCreateRequest> entry : itemsByBook.entrySet()) {
+            if (failures.containsKey(entry.getKey())) {
+                continue;
+            }
+            Book book = books.get(entry.getKey());
+            LocalDate startDate = startDates.get(entry.getKey());
+            reservations.add(Reservation.builder()
+                    .user(user)
+                    .book(book)
+                    .reservationDate(startDate)
+                    .expectedReturnDate(entry.getValue().getExpectedReturnDate())
+                    .status(Reservation.ReservationStatus.PENDING)
+                    .holdExpiresAt(holdExpiry(startDate))
+                    .copyHeld(!startDate.isAfter(today))
+                    .build());
+
+            // TRIGGER LOGIC: la reserva nace PENDING y descuenta un ejemplar, salvo si es por adelantado; el libro ya
+            // está bloqueado
+            if (!startDate.isAfter(today)) {
+                book.setAvailableAmount(book.getAvailableAmount() - 1);
+            } else {
+                book.setUpdatedAt(LocalDateTime.now());
+            }
+        }
+
+        // Un único lote de INSERT; los libros modificados se actualizan en lote al hacer flush
+        Map<Long, Reservation> reserved = reservationRepository.saveAll(reservations).stream()
+                .collect(Collectors.toMap(reservation -> reservation.getBook().getBookId(), Function.identity()));
+
+        List<ReservationDTO.ReservationBatchItem> results = new ArrayList<>(itemsByBook.size());
+        for (Long bookId : itemsByBook.keySet()) {
+            Reservation reservation = reserved.get(bookId);
+            if (reservation == null) {
+                results.add(failures.get(bookId));
+                continue;
+            }
+            availabilityCalendarService.reserve(reservation.getBook(), reservation.getReservationId(),
+                    reservation.getReservationDate(), reservation.getExpectedReturnDate());
+            eventPublisher.publishEvent(new DomainEvent.ReservationStatusChanged(reservation.getReservationId(), bookId, reservation.getStatus()));
+            if (reservation.isCopyHeld()) {
+                publishAvailability(reservation.getBook());
+                waitlistService.leaveIfWaiting(bookId, user.getUserId());
+            }
+            results.add(ReservationDTO.ReservationBatchItem.builder()
+                    .bookId(bookId)
+                    .outcome(ReservationDTO.BatchReservationOutcome.RESERVED)
+                    .reservation(mapToReservationResponse(reservation))
+                    .build());
+        }
+
+        return ReservationDTO.ReservationBatchResponse.builder()
+                .mode(mode)
+                .requested(itemsByBook.size())
+                .reserved(reserved.size())
+                .results(results)
+                .build();
+    }
+
     /**
      * Get reservation by ID
      */
@@ -118,8 +284,8 @@ public class ReservationService {
         User currentUser = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
 
-        // Get reservation
-        Reservation reservation = reservationRepository.findByIdWithDetails(reservationId);
+        // Get reservation, locked together with its book
+        Reservation reservation = lockWithBook(reservationId);
         if (reservation == null) {
             throw new ResourceNotFoundException("Reserva no encontrada con ID: " + reservationId);
         }
@@ -142,9 +308,10 @@ public class ReservationService {
             validateStatusChange(oldStatus, request.getStatus(), isAdminOrLibrarian);
 
             // TRIGGER LOGIC: Actualizar available_amount basándose en cambios de estado
-            handleReservationStatusChange(reservation, oldStatus, request.getStatus());
+            handleReservationStatusChange(reservation, request.getStatus());
 
-            reservation.setStatus(request.getStatus());
+            touchBook(reservation.getBook());
+            eventPublisher.publishEvent(new DomainEvent.ReservationStatusChanged(reservationId, reservation.getBook().getBookId(), request.getStatus()));
         }
 
         // Update actual return date if provided
@@ -158,6 +325,98 @@ public class ReservationService {
         return mapToReservationResponse(updatedReservation);
     }
 
+    /**
+     * Change the status of several reservations in one transaction (circulation desk). Each item is validated like a
+     * single update; the availability of each book is adjusted once with the sum of its deltas.
+     */
+    @Transactional
+    public ReservationDTO.BulkTransitionResponse bulkTransition(ReservationDTO.BulkTransitionRequest request) {
+        // Roles del token: la petición ya está autenticada y no hace falta recargar el usuario
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdminOrLibrarian = authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN") ||
+                        authority.getAuthority().equals("ROLE_LIBRARIAN"));
+
+        Reservation.ReservationStatus newStatus = request.getStatus();
+        List<Long> reservationIds = request.getReservationIds().stream().distinct().toList();
+        Map<Long, Reservation> reservations = reservationRepository.findAllByIdForUpdate(reservationIds).stream()
+                .collect(Collectors.toMap(Reservation::getReservationId, Function.identity()));
+
+        List<ReservationDTO.BulkTransitionItem> results = new ArrayList<>(reservationIds.size());
+        List<Reservation> changed = new ArrayList<>();
+        Map<Long, Integer> deltaByBook = new HashMap<>();
+
+        for (Long reservationId : reservationIds) {
+            Reservation reservation = reservations.get(reservationId);
+            if (reservation == null) {
+                results.add(ReservationDTO.BulkTransitionItem.builder()
+                        .reservationId(reservationId)
+                        .outcome(ReservationDTO.BulkTransitionOutcome.NOT_FOUND)
+                        .message("Reserva no encontrada con ID: " + reservationId)
+                        .build());
+                continue;
+            }
+
+            Reservation.ReservationStatus oldStatus = reservation.getStatus();
+            Long bookId = reservation.getBook().getBookId();
+            ReservationDTO.BulkTransitionItem.BulkTransitionItemBuilder item = ReservationDTO.BulkTransitionItem.builder()
+                    .reservationId(reservationId)
+                    .bookId(bookId)
+                    .previousStatus(oldStatus)
+                    .status(oldStatus);
+
+            if (oldStatus == newStatus) {
+                results.add(item.outcome(ReservationDTO.BulkTransitionOutcome.UNCHANGED)
+                        .message("La reserva ya está en estado " + newStatus)
+                        .build());
+                continue;
+            }
+
+            try {
+                validateStatusChange(oldStatus, newStatus, isAdminOrLibrarian);
+            } catch (IllegalStateException | AccessDeniedException e) {
+                results.add(item.outcome(ReservationDTO.BulkTransitionOutcome.REJECTED)
+                        .message(e.getMessage())
+                        .build());
+                continue;
+            }
+
+            deltaByBook.merge(bookId, reservation.changeStatus(newStatus), Integer::sum);
+            changed.add(reservation);
+            results.add(item.status(newStatus).outcome(ReservationDTO.BulkTransitionOutcome.APPLIED).build());
+        }
+
+        // Los libros se bloquean en orden de id antes de tocar sus listas de espera y su disponibilidad, para que dos
+        // lotes con libros en común no se bloqueen entre sí
+        if (!deltaByBook.isEmpty()) {
+            bookRepository.findAllByIdForUpdate(deltaByBook.keySet());
+        }
+
+        // Los ejemplares liberados van primero a las listas de espera; solo el resto vuelve a estar disponible
+        deltaByBook.replaceAll((bookId, delta) -> delta > 0 ? delta - waitlistService.allocate(bookId, delta) : delta);
+
+        // Una sola sentencia UPDATE por valor de delta, no una por libro ni por reserva
+        bookRepository.applyAvailabilityDeltas(deltaByBook, LocalDateTime.now());
+
+        for (Reservation reservation : changed) {
+            eventPublisher.publishEvent(new DomainEvent.ReservationStatusChanged(reservation.getReservationId(), reservation.getBook().getBookId(), newStatus));
+        }
+        List<Long> availabilityChanged = deltaByBook.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!availabilityChanged.isEmpty()) {
+            bookRepository.findAllById(availabilityChanged).forEach(this::publishAvailability);
+        }
+
+        return ReservationDTO.BulkTransitionResponse.builder()
+                .requested(reservationIds.size())
+                .applied(changed.size())
+                .notApplied(reservationIds.size() - changed.size())
+                .results(results)
+                .build();
+    }
+
     /**
      * Search for reservations with pagination
      */
@@ -203,13 +462,62 @@ public class ReservationService {
     }
 
     /**
-     * Get overdue reservations (for admin/librarian)
+     * Get overdue reservations (for admin/librarian), most overdue first. Keyset pagination over the materialized
+     * overdue flag: the cursor is the (expectedReturnDate, reservationId) of the last row of the previous page.
      */
-    public List<ReservationDTO.ReservationResponse> getOverdueReservations() {
+    public ReservationDTO.OverdueReservationsPage getOverdueReservations(String cursor, Integer size) {
+        int pageSize = size != null ? Math.min(Math.max(size, 1), MAX_OVERDUE_PAGE_SIZE) : DEFAULT_OVERDUE_PAGE_SIZE;
+        // Una fila de más indica si hay página siguiente sin necesidad de contar
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
         LocalDate today = LocalDate.now();
-        return reservationRepository.findOverdueReservations(today).stream()
-                .map(this::mapToReservationResponse)
-                .collect(Collectors.toList());
+
+        List<Reservation> rows;
+        ReservationDTO.OverdueSummary summary = null;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reservationRepository.findOverdueFirstPage(pageable);
+            summary = summarizeOverdue(today);
+        } else {
+            int separator = cursor.lastIndexOf(':');
+            LocalDate dueDate;
+            Long reservationId;
+            try {
+                dueDate = LocalDate.parse(cursor.substring(0, Math.max(separator, 0)));
+                reservationId = Long.valueOf(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Cursor de paginación inválido: " + cursor);
+            }
+            rows = reservationRepository.findOverduePageAfter(dueDate, reservationId, pageable);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        Reservation last = rows.isEmpty() ? null : rows.getLast();
+
+        return ReservationDTO.OverdueReservationsPage.builder()
+                .items(rows.stream()
+                        .map(reservation -> {
+                            ReservationDTO.ReservationResponse response = mapToReservationResponse(reservation);
+                            response.setDaysOverdue((int) ChronoUnit.DAYS.between(reservation.getExpectedReturnDate(), today));
+                            return response;
+                        })
+                        .toList())
+                .nextCursor(hasMore ? last.getExpectedReturnDate() + ":" + last.getReservationId() : null)
+                .summary(summary)
+                .build();
+    }
+
+    private ReservationDTO.OverdueSummary summarizeOverdue(LocalDate today) {
+        Object[] row = reservationRepository.summarizeOverdue(today).getFirst();
+        return ReservationDTO.OverdueSummary.builder()
+                .total(((Number) row[0]).longValue())
+                .maxDaysOverdue(((Number) row[1]).intValue())
+                .averageDaysOverdue(((Number) row[2]).doubleValue())
+                .upToOneWeek(((Number) row[3]).longValue())
+                .oneWeekToOneMonth(((Number) row[4]).longValue())
+                .overOneMonth(((Number) row[5]).longValue())
+                .build();
     }
 
     /**
@@ -217,36 +525,83 @@ public class ReservationService {
      */
     @Transactional
     public void deleteReservation(Long reservationId) {
-        // Get reservation
-        Reservation reservation = reservationRepository.findByIdWithDetails(reservationId);
+        // Get reservation, locked together with its book
+        Reservation reservation = lockWithBook(reservationId);
         if (reservation == null) {
             throw new ResourceNotFoundException("Reserva no encontrada con ID: " + reservationId);
         }
 
-        // TRIGGER LOGIC: Si se elimina una reserva con estado ACTIVE, aumentar disponibilidad
-        if (reservation.getStatus() == Reservation.ReservationStatus.ACTIVE) {
-            increaseBookAvailability(reservation.getBook());
+        // TRIGGER LOGIC: Si se elimina una reserva que retenía un ejemplar, devolverlo a la cola o a la disponibilidad
+        if (reservation.isCopyHeld()) {
+            releaseCopy(reservation.getBook());
         }
 
+        touchBook(reservation.getBook());
+
         // Delete reservation
         reservationRepository.deleteById(reservationId);
+        eventPublisher.publishEvent(new DomainEvent.ReservationStatusChanged(reservationId, reservation.getBook().getBookId(), null));
+    }
+
+    /**
+     * Bloquea la reserva y después la fila de su libro, en el mismo orden que bulkTransition y el barrido de
+     * caducidad. Book no tiene versión: sus escrituras de entidad completa solo son seguras con la fila bloqueada,
+     * porque las de available_amount con UPDATE atómico o desde la lista de espera también la bloquean. Devuelve la
+     * reserva con usuario y libro cargados, o {@code null} si no existe
+     */
+    private Reservation lockWithBook(Long reservationId) {
+        List<Reservation> locked = reservationRepository.findAllByIdForUpdate(List.of(reservationId));
+        if (locked.isEmpty()) {
+            return null;
+        }
+        // El libro es perezoso y aún no está cargado: se lee ya bloqueado y con la disponibilidad actual
+        bookRepository.findByIdForUpdate(locked.getFirst().getBook().getBookId());
+        return reservationRepository.findByIdWithDetails(reservationId);
+    }
+
+    /**
+     * Primer día del préstamo pedido, hoy si no se indica. No puede estar más allá del horizonte de reservas por
+     * adelantado y debe ser anterior a la fecha de devolución estimada
+     */
+    private LocalDate resolveStartDate(ReservationDTO.ReservationCreateRequest request) {
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : today;
+        if (startDate.isAfter(today.plusDays(maxDaysAhead))) {
+            throw new IllegalStateException("Solo se puede reservar con hasta " + maxDaysAhead + " días de antelación");
+        }
+        if (!request.getExpectedReturnDate().isAfter(startDate)) {
+            throw new IllegalStateException("La fecha de devolución estimada debe ser posterior a la fecha de inicio");
+        }
+        return startDate;
+    }
+
+    /**
+     * Fin del plazo de recogida: cuenta desde ahora o, en una reserva por adelantado, desde el primer día del préstamo
+     */
+    private LocalDateTime holdExpiry(LocalDate startDate) {
+        return startDate.isAfter(LocalDate.now()) ? startDate.atStartOfDay().plus(pendingHold) : LocalDateTime.now().plus(pendingHold);
     }
 
     /**
      * Lógica del primer trigger: manejar cambios de estado en reservas
      */
-    private void handleReservationStatusChange(Reservation reservation,
-                                               Reservation.ReservationStatus oldStatus,
-                                               Reservation.ReservationStatus newStatus) {
+    private void handleReservationStatusChange(Reservation reservation, Reservation.ReservationStatus newStatus) {
         Book book = reservation.getBook();
 
-        // Si la reserva cambia de otro estado a ACTIVE
-        if (oldStatus != Reservation.ReservationStatus.ACTIVE && newStatus == Reservation.ReservationStatus.ACTIVE) {
+        int delta = reservation.changeStatus(newStatus);
+        if (delta < 0) {
             decreaseBookAvailability(book);
+        } else if (delta > 0) {
+            releaseCopy(book);
         }
-        // Si la reserva cambia de ACTIVE a COMPLETED o CANCELLED
-        else if (oldStatus == Reservation.ReservationStatus.ACTIVE &&
-                (newStatus == Reservation.ReservationStatus.COMPLETED || newStatus == Reservation.ReservationStatus.CANCELLED)) {
+    }
+
+    /**
+     * Devolver un ejemplar liberado: primero al siguiente de la lista de espera y, si nadie lo espera, a la
+     * disponibilidad del libro
+     */
+    private void releaseCopy(Book book) {
+        if (waitlistService.allocate(book.getBookId(), 1) == 0) {
             increaseBookAvailability(book);
         }
     }
@@ -258,9 +613,25 @@ public class ReservationService {
         if (book.getAvailableAmount() > 0) {
             book.setAvailableAmount(book.getAvailableAmount() - 1);
             bookRepository.save(book);
+            publishAvailability(book);
         }
     }
 
+    /**
+     * Marcar el libro como modificado: el número de reservas activas forma parte de su ficha y de su ETag
+     */
+    private void touchBook(Book book) {
+        book.setUpdatedAt(LocalDateTime.now());
+        bookRepository.save(book);
+    }
+
+    /**
+     * Notificar la nueva disponibilidad del libro para que las cachés de todos los nodos se invaliden
+     */
+    private void publishAvailability(Book book) {
+        eventPublisher.publishEvent(new DomainEvent.AvailabilityChanged(book.getBookId(), book.getAvailableAmount(), book.getTotalAmount(), book.getBookStatus()));
+    }
+
     /**
      * Aumentar disponibilidad del libro
      */
@@ -268,6 +639,7 @@ public class ReservationService {
         if (book.getAvailableAmount() < book.getTotalAmount()) {
             book.setAvailableAmount(book.getAvailableAmount() + 1);
             bookRepository.save(book);
+            publishAvailability(book);
         }
     }
 
@@ -307,11 +679,8 @@ public class ReservationService {
      */
     private ReservationDTO.ReservationResponse mapToReservationResponse(Reservation reservation) {
 
-        Optional<S3File> latestFileOptUser = s3FileRepository.findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(reservation.getUser().getUserId(), S3File.EntityType.USER);
-        Optional<S3File> latestFileOptBook = s3FileRepository.findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(reservation.getBook().getBookId(), S3File.EntityType.BOOK);
-
-        String imageUrlUser = latestFileOptUser.map(S3File::getS3Url).orElse(null);
-        String imageUrlBook = latestFileOptBook.map(S3File::getS3Url).orElse(null);
+        String imageUrlUser = s3Service.resolveFileUrl(reservation.getUser().getCurrentImage());
+        String imageUrlBook = s3Service.resolveFileUrl(reservation.getBook().getCurrentImage());
 
         return ReservationDTO.ReservationResponse.builder()
                 .reservationId(reservation.getReservationId())
@@ -331,6 +700,7 @@ public class ReservationService {
                 .expectedReturnDate(reservation.getExpectedReturnDate())
                 .status(reservation.getStatus())
                 .actualReturnDate(reservation.getActualReturnDate())
+                .holdExpiresAt(reservation.getHoldExpiresAt())
                 .isOverdue(reservation.isOverdue())
                 .build();
     }
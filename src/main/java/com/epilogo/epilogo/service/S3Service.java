@@ -1,48 +1,55 @@
 package com.epilogo.epilogo.service;
 
+import com.epilogo.epilogo.event.DomainEvent;
 import com.epilogo.epilogo.exception.S3FileException;
 import com.epilogo.epilogo.model.S3File;
 import com.epilogo.epilogo.model.S3File.EntityType;
 import com.epilogo.epilogo.repository.S3FileRepository;
+import com.epilogo.epilogo.storage.BlobStore;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Timed("epilogo.service")
 @Tag(name = "S3 Service", description = "Servicio para gestión de archivos en Amazon S3")
 public class S3Service {
 
-    private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
+    private final BlobStore blobStore;
     private final S3FileRepository s3FileRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     private static final Duration DEFAULT_URL_DURATION = Duration.ofDays(3);
     private static final Duration REFRESH_THRESHOLD = Duration.ofHours(12);
 
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
-
     @Value("${aws.s3.books-path}")
     private String booksPath;
 
@@ -55,25 +62,35 @@ public class S3Service {
     @Value("${aws.s3.users-path}")
     private String usersPath;
 
-    @Value("${aws.region}")
-    private String region;
+    @Value("${images.proxy.enabled:false}")
+    private boolean imageProxyEnabled;
+
+    @Value("${images.proxy.base-url:}")
+    private String imageProxyBaseUrl;
 
-    @Operation(summary = "Subir archivo", description = "Sube un archivo a S3 y guarda la referencia en la base de datos")
+    @Operation(summary = "Subir archivo", description = "Sube un archivo a S3 y guarda la referencia en la base de datos. Si ya existe un objeto con el mismo contenido se reutiliza sin volver a subirlo")
+    @Transactional
     public S3File uploadFile(MultipartFile file, EntityType entityType, Long entityId) {
         try {
             String originalFilename = file.getOriginalFilename();
             String extension = getFileExtension(originalFilename);
-            String uniqueName = UUID.randomUUID().toString() + extension;
+            String contentHash = computeContentHash(file);
 
-            String s3Key = getS3KeyForEntityType(entityType, uniqueName);
+            Optional<S3File> existingFile = s3FileRepository
+                    .findFirstByContentHashAndEntityTypeAndGcMarkedAtIsNullOrderByUploadDateDesc(contentHash, entityType);
 
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(s3Key)
-                    .contentType(file.getContentType())
-                    .build();
+            String s3Key = existingFile.map(S3File::getS3Key)
+                    .orElseGet(() -> getS3KeyForEntityType(entityType, contentHash + extension));
 
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+            // Hasta el commit ningún borrado puede llevarse el objeto: si la fila reutilizada ya no existe, se sube de nuevo
+            s3FileRepository.lockS3Key(s3Key);
+            if (existingFile.isPresent() && s3FileRepository.countByS3Key(s3Key) > 0) {
+                log.debug("Reusing S3 object {} for duplicate upload of {} {}", s3Key, entityType, entityId);
+            } else {
+                try (InputStream inputStream = file.getInputStream()) {
+                    blobStore.put(s3Key, file.getContentType(), inputStream, file.getSize());
+                }
+            }
 
             String fileUrl;
             LocalDateTime expirationTime = null;
@@ -91,40 +108,26 @@ public class S3Service {
                     .s3Key(s3Key)
                     .s3Url(fileUrl)
                     .urlExpirationTime(expirationTime)
+                    .contentHash(contentHash)
                     .fileName(originalFilename)
                     .fileType(file.getContentType())
                     .fileSize(file.getSize())
                     .isPublic(entityType != EntityType.USER)
                     .build();
 
-            return s3FileRepository.save(s3File);
+            S3File savedFile = s3FileRepository.save(s3File);
+            eventPublisher.publishEvent(new DomainEvent.ImageChanged(entityType, entityId, savedFile.getFileId()));
+
+            return savedFile;
         } catch (IOException e) {
             log.error("Error uploading file to S3: {}", e.getMessage());
             throw new S3FileException("Failed to upload file: " + e.getMessage());
-        } catch (S3Exception e) {
-            log.error("AWS S3 error uploading file: {}", e.getMessage());
-            throw new S3FileException("AWS S3 error: " + e.getMessage());
         }
     }
 
     @Operation(summary = "Generar URL pre-firmada", description = "Genera una URL pre-firmada para acceder a un archivo en S3 con duración específica")
     public String generatePresignedUrl(String s3Key, Duration duration) {
-        try {
-            GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(duration)
-                    .getObjectRequest(GetObjectRequest.builder()
-                            .bucket(bucketName)
-                            .key(s3Key)
-                            .build())
-                    .build();
-
-            PresignedGetObjectRequest presignedGetObjectRequest = s3Presigner.presignGetObject(getObjectPresignRequest);
-            URL url = presignedGetObjectRequest.url();
-            return url.toString();
-        } catch (Exception e) {
-            log.error("Error generating presigned URL: {}", e.getMessage());
-            throw new S3FileException("Failed to generate presigned URL: " + e.getMessage());
-        }
+        return blobStore.presignedUrl(s3Key, duration);
     }
 
     @Operation(summary = "Generar URL pre-firmada con duración predeterminada", description = "Genera una URL pre-firmada para acceder a un archivo en S3")
@@ -134,8 +137,23 @@ public class S3Service {
 
     @Operation(summary = "Generar URL pública", description = "Genera una URL pública para acceder a un archivo en S3")
     public String generatePublicUrl(String s3Key) {
-        return String.format("https://%s.s3.%s.amazonaws.com/%s",
-                bucketName, region, s3Key);
+        return blobStore.publicUrl(s3Key);
+    }
+
+    @Operation(summary = "Resolver URL de archivo", description = "Devuelve la URL que deben usar los clientes: la URL estable del proxy de imágenes para archivos públicos si está habilitado, o la URL de S3 en caso contrario")
+    public String resolveFileUrl(S3File s3File) {
+        if (s3File == null) {
+            return null;
+        }
+        if (imageProxyEnabled && s3File.isPublic()) {
+            return imageProxyBaseUrl + "/api/images/" + s3File.getFileId();
+        }
+        return s3File.getS3Url();
+    }
+
+    @Operation(summary = "Abrir contenido de archivo", description = "Abre un flujo de lectura sobre el contenido almacenado de un archivo")
+    public InputStream openFileContent(S3File s3File) throws IOException {
+        return blobStore.get(s3File.getS3Key());
     }
 
     @Operation(summary = "Refrescar URL pre-firmada", description = "Refresca la URL pre-firmada de un archivo S3")
@@ -179,28 +197,58 @@ public class S3Service {
         throw new S3FileException("File not found with ID: " + fileId);
     }
 
-    @Operation(summary = "Eliminar archivo", description = "Elimina un archivo de S3 y elimina la referencia de la base de datos")
+    @Operation(summary = "Eliminar archivo", description = "Elimina la referencia de la base de datos y borra el objeto de S3 cuando ningún otro archivo lo comparte")
+    @Transactional
     public void deleteFile(Long fileId) {
         Optional<S3File> optionalS3File = s3FileRepository.findById(fileId);
         if (optionalS3File.isPresent()) {
             S3File s3File = optionalS3File.get();
-            try {
-                DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(s3File.getS3Key())
-                        .build();
-
-                s3Client.deleteObject(deleteObjectRequest);
-                s3FileRepository.delete(s3File);
-            } catch (S3Exception e) {
-                log.error("AWS S3 error deleting file: {}", e.getMessage());
-                throw new S3FileException("AWS S3 error: " + e.getMessage());
+            // Borrado de la fila y recuento bajo el bloqueo de su clave: dos borrados simultáneos de filas que
+            // comparten objeto, o una subida que lo reutiliza, no pueden ver un recuento desfasado
+            s3FileRepository.lockS3Key(s3File.getS3Key());
+            s3FileRepository.delete(s3File);
+
+            if (s3FileRepository.countByS3Key(s3File.getS3Key()) > 0) {
+                log.debug("S3 object {} is still referenced by other files, keeping it", s3File.getS3Key());
+                return;
             }
+
+            // El objeto solo se borra si la baja de la fila se confirma; si la transacción se deshace la fila vuelve
+            // y seguiría apuntando a él
+            String s3Key = s3File.getS3Key();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteObjectIfUnreferenced(s3Key);
+                }
+            });
         } else {
             throw new S3FileException("File not found with ID: " + fileId);
         }
     }
 
+    /**
+     * Borra el objeto tras el commit de la baja de su última fila. Entre el commit y este borrado otra subida puede
+     * haber reutilizado la clave, así que el recuento se repite en una transacción nueva con la clave bloqueada.
+     */
+    private void deleteObjectIfUnreferenced(String s3Key) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                s3FileRepository.lockS3Key(s3Key);
+                if (s3FileRepository.countByS3Key(s3Key) > 0) {
+                    log.debug("S3 object {} was reused before it could be deleted, keeping it", s3Key);
+                    return;
+                }
+                blobStore.delete(s3Key);
+            });
+        } catch (RuntimeException e) {
+            // La fila ya no existe: el recolector no lo encontrará y el objeto queda huérfano en el almacenamiento
+            log.error("Error deleting S3 object {} after its last file was removed: {}", s3Key, e.getMessage(), e);
+        }
+    }
+
     @Operation(summary = "Obtener archivos para entidad", description = "Obtiene todos los archivos asociados a una entidad")
     public List<S3File> getFilesForEntity(EntityType entityType, Long entityId) {
         List<S3File> files = s3FileRepository.findByEntityTypeAndEntityId(entityType, entityId);
@@ -217,6 +265,21 @@ public class S3Service {
         return files;
     }
 
+    private String computeContentHash(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     private String getFileExtension(String filename) {
         if (filename == null) {
             return "";
@@ -33,7 +33,7 @@ public class S3UrlRefreshService {
 
         try {
             LocalDateTime expirationThreshold = LocalDateTime.now().plusHours(24);
-            List<S3File> expiringFiles = s3FileRepository.findByUrlExpirationTimeBefore(expirationThreshold);
+            List<S3File> expiringFiles = s3FileRepository.findByUrlExpirationTimeBeforeAndGcMarkedAtIsNull(expirationThreshold);
 
             log.info("Found {} S3 files with URLs about to expire", expiringFiles.size());
 
@@ -69,7 +69,7 @@ public class S3UrlRefreshService {
         log.info("Checking for S3 files without expiration times");
 
         try {
-            List<S3File> filesWithoutExpiration = s3FileRepository.findByUrlExpirationTimeIsNull();
+            List<S3File> filesWithoutExpiration = s3FileRepository.findByUrlExpirationTimeIsNullAndGcMarkedAtIsNull();
             log.info("Found {} S3 files without expiration time", filesWithoutExpiration.size());
 
             int updatedCount = 0;
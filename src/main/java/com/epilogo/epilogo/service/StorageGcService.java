@@ -0,0 +1,205 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.S3FileDTO;
+import com.epilogo.epilogo.model.S3File;
+import com.epilogo.epilogo.repository.S3FileRepository;
+import com.epilogo.epilogo.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recolector de archivos que ya no se usan: los reemplazados por una subida más reciente de la misma entidad
+ * y los de entidades eliminadas. Trabaja en dos fases: marca las filas con consultas por conjuntos y,
+ * pasado un periodo de gracia, borra los objetos por lotes y purga las filas.
+ * <p>
+ * Solo se ejecuta una recolección a la vez en todo el clúster, con un bloqueo consultivo de PostgreSQL. Cada lote se
+ * borra en una transacción que bloquea las claves de sus objetos, igual que las subidas que los reutilizan y
+ * {@link S3Service#deleteFile(Long)}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Storage GC Service", description = "Servicio de limpieza de archivos reemplazados o huérfanos")
+public class StorageGcService {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String RUN_LOCK = "epilogo.storage-gc";
+
+    private final S3FileRepository s3FileRepository;
+    private final BlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<S3FileDTO.StorageGcReport> lastReport = new AtomicReference<>();
+
+    @Value("${storage.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.gc.dry-run:false}")
+    private boolean dryRun;
+
+    @Value("${storage.gc.grace-period:P7D}")
+    private Duration gracePeriod;
+
+    @Value("${storage.gc.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${storage.gc.cron:0 30 3 * * *}")
+    @Hidden
+    public void scheduledCollect() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            collect(dryRun);
+        } catch (Exception e) {
+            log.error("Error during scheduled storage GC: {}", e.getMessage(), e);
+        }
+    }
+
+    @Operation(summary = "Ejecutar recolección", description = "Marca los archivos reemplazados o huérfanos y elimina los que superan el periodo de gracia. En modo simulación solo informa de lo que haría")
+    public S3FileDTO.StorageGcReport collect(boolean dryRun) {
+        // El bloqueo consultivo es de sesión: se toma y se libera en la misma conexión, que se retiene toda la recolección
+        return jdbcTemplate.execute((ConnectionCallback<S3FileDTO.StorageGcReport>) connection -> {
+            if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                throw new IllegalStateException("Ya hay una recolección de archivos en curso");
+            }
+            try {
+                return run(dryRun);
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock");
+            }
+        });
+    }
+
+    @Operation(summary = "Obtener último informe", description = "Devuelve el resultado de la última recolección ejecutada, o null si aún no se ha ejecutado ninguna")
+    public S3FileDTO.StorageGcReport getLastReport() {
+        return lastReport.get();
+    }
+
+    private S3FileDTO.StorageGcReport run(boolean dryRun) {
+        LocalDateTime now = LocalDateTime.now();
+        S3FileDTO.StorageGcReport report = S3FileDTO.StorageGcReport.builder()
+                .dryRun(dryRun)
+                .startedAt(now)
+                .build();
+
+        log.info("Starting storage GC (dryRun={}, gracePeriod={})", dryRun, gracePeriod);
+
+        if (dryRun) {
+            report.setSupersededMarked(s3FileRepository.countSupersededCandidates());
+            report.setOrphanedMarked(s3FileRepository.countOrphanedCandidates());
+        } else {
+            // El orden importa: un archivo reemplazado de una entidad borrada cuenta como reemplazado
+            report.setSupersededMarked(s3FileRepository.markSuperseded(now));
+            report.setOrphanedMarked(s3FileRepository.markOrphaned(now));
+        }
+
+        sweep(now.minus(gracePeriod), dryRun, report);
+
+        report.setFinishedAt(LocalDateTime.now());
+        lastReport.set(report);
+
+        log.info("Completed storage GC. Marked: {} superseded, {} orphaned. Purged rows: {}, deleted objects: {}, " +
+                        "retained objects: {}, reclaimed bytes: {}, errors: {}",
+                report.getSupersededMarked(), report.getOrphanedMarked(), report.getRowsPurged(),
+                report.getObjectsDeleted(), report.getObjectsRetained(), report.getBytesReclaimed(), report.getErrors());
+
+        return report;
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(hashtext(?))")) {
+            statement.setString(1, RUN_LOCK);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private void sweep(LocalDateTime cutoff, boolean dryRun, S3FileDTO.StorageGcReport report) {
+        PageRequest page = PageRequest.of(0, Math.min(Math.max(batchSize, 1), MAX_BATCH_SIZE));
+        long lastFileId = 0L;
+
+        while (true) {
+            List<S3File> batch = s3FileRepository
+                    .findByGcMarkedAtBeforeAndFileIdGreaterThanOrderByFileIdAsc(cutoff, lastFileId, page);
+            if (batch.isEmpty()) {
+                return;
+            }
+            lastFileId = batch.get(batch.size() - 1).getFileId();
+
+            if (dryRun) {
+                sweepBatch(batch, true, report);
+            } else {
+                transactionTemplate.executeWithoutResult(status -> sweepBatch(batch, false, report));
+            }
+        }
+    }
+
+    private void sweepBatch(List<S3File> batch, boolean dryRun, S3FileDTO.StorageGcReport report) {
+        Map<String, Long> sizeByKey = new HashMap<>();
+        List<Long> fileIds = batch.stream().map(S3File::getFileId).toList();
+        for (S3File file : batch) {
+            sizeByKey.putIfAbsent(file.getS3Key(), file.getFileSize() != null ? file.getFileSize() : 0L);
+        }
+
+        if (!dryRun) {
+            // En orden, para no interbloquearse con otra transacción que bloquee varias claves
+            sizeByKey.keySet().stream().sorted().forEach(s3FileRepository::lockS3Key);
+        }
+
+        // Las subidas deduplicadas comparten clave: solo se borra el objeto si ninguna fila fuera del lote lo usa
+        Set<String> retainedKeys = new HashSet<>(
+                s3FileRepository.findKeysReferencedOutside(sizeByKey.keySet(), fileIds));
+        List<String> deletableKeys = sizeByKey.keySet().stream()
+                .filter(key -> !retainedKeys.contains(key))
+                .toList();
+
+        Set<String> failedKeys = dryRun ? Set.of() : new HashSet<>(blobStore.deleteAll(deletableKeys));
+
+        List<Long> purgeableIds = batch.stream()
+                .filter(file -> !failedKeys.contains(file.getS3Key()))
+                .map(S3File::getFileId)
+                .toList();
+        if (!dryRun && !purgeableIds.isEmpty()) {
+            s3FileRepository.deleteAllByIdInBatch(purgeableIds);
+        }
+
+        long deletedObjects = deletableKeys.size() - failedKeys.size();
+        long reclaimedBytes = deletableKeys.stream()
+                .filter(key -> !failedKeys.contains(key))
+                .mapToLong(sizeByKey::get)
+                .sum();
+
+        report.setRowsPurged(report.getRowsPurged() + purgeableIds.size());
+        report.setObjectsDeleted(report.getObjectsDeleted() + deletedObjects);
+        report.setObjectsRetained(report.getObjectsRetained() + retainedKeys.size());
+        report.setBytesReclaimed(report.getBytesReclaimed() + reclaimedBytes);
+        report.setErrors(report.getErrors() + failedKeys.size());
+    }
+}
@@ -0,0 +1,336 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.UserDTO;
+import com.epilogo.epilogo.exception.ResourceNotFoundException;
+import com.epilogo.epilogo.model.Role;
+import com.epilogo.epilogo.model.User;
+import com.epilogo.epilogo.repository.RoleRepository;
+import com.epilogo.epilogo.repository.UserRepository;
+import com.epilogo.epilogo.utils.CsvRecordReader;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alta masiva de usuarios desde CSV (columnas {@code userName}, {@code email} y {@code password}). La petición solo
+ * lee y valida el fichero; el alta sigue en segundo plano y su progreso se consulta con {@link #getJob(String)}.
+ * <p>
+ * A diferencia de {@code AuthService.register}, no se emiten tokens ni se recarga cada usuario: el rol
+ * {@code ROLE_USER} se resuelve una vez, los correos ya registrados se comprueban con una consulta por lote, las
+ * contraseñas se cifran en paralelo en un pool acotado de hilos de plataforma ({@code users.provisioning.hash-threads},
+ * por defecto uno por núcleo, porque BCrypt es trabajo de CPU) y los usuarios se insertan en lotes JDBC. Solo se
+ * ejecuta un alta a la vez; el estado de las terminadas se conserva {@code users.provisioning.retention} en memoria
+ * del nodo que las atendió.
+ */
+@Service
+@Slf4j
+@Timed("epilogo.service")
+@Tag(name = "User Provisioning Service", description = "Servicio para el alta masiva de usuarios")
+public class UserProvisioningService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("userName", "email", "password");
+    private static final int MAX_EMAIL_LENGTH = 100;
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxRows;
+    private final int maxReportedErrors;
+    private final Duration retention;
+
+    private final ExecutorService hashPool;
+    private final ExecutorService jobRunner = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public UserProvisioningService(UserRepository userRepository,
+                                   RoleRepository roleRepository,
+                                   PasswordEncoder passwordEncoder,
+                                   TransactionTemplate transactionTemplate,
+                                   Validator validator,
+                                   @Value("${users.provisioning.chunk-size:500}") int chunkSize,
+                                   @Value("${users.provisioning.max-rows:50000}") int maxRows,
+                                   @Value("${users.provisioning.max-reported-errors:1000}") int maxReportedErrors,
+                                   @Value("${users.provisioning.retention:PT1H}") Duration retention,
+                                   @Value("${users.provisioning.hash-threads:0}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.maxReportedErrors = maxReportedErrors;
+        this.retention = retention;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.hashPool = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("password-hash-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobRunner.shutdownNow();
+        hashPool.shutdownNow();
+    }
+
+    @Operation(summary = "Iniciar alta masiva", description = "Lee y valida el CSV de usuarios e inicia el alta en segundo plano")
+    public UserDTO.UserProvisioningJob startProvisioning(InputStream input) throws IOException {
+        purgeFinishedJobs();
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay un alta masiva de usuarios en curso");
+        }
+
+        Job job;
+        List<PendingUser> rows;
+        Long roleId;
+        try {
+            roleId = roleRepository.findByRoleName(Role.RoleName.ROLE_USER)
+                    .orElseThrow(() -> new IllegalStateException("El rol de usuario no existe"))
+                    .getRoleId();
+            job = new Job(UUID.randomUUID().toString());
+            rows = read(input, job);
+        } catch (IOException | RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+
+        job.totalRows = rows.size();
+        jobs.put(job.id, job);
+        jobRunner.submit(() -> run(job, rows, roleId));
+        log.info("User provisioning {} started with {} valid rows ({} rejected on read)", job.id, rows.size(), job.failed.get());
+        return job.snapshot();
+    }
+
+    @Operation(summary = "Consultar alta masiva", description = "Devuelve el progreso de un alta masiva de usuarios")
+    public UserDTO.UserProvisioningJob getJob(String jobId) {
+        purgeFinishedJobs();
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Alta masiva de usuarios no encontrada: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    private List<PendingUser> read(InputStream input, Job job) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalStateException("El fichero CSV está vacío");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Faltan columnas obligatorias en la cabecera CSV: " + String.join(", ", missing));
+        }
+
+        List<PendingUser> rows = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (rows.size() + job.failed.get() >= maxRows) {
+                throw new IllegalStateException("El fichero supera el máximo de " + maxRows + " usuarios por alta");
+            }
+            UserDTO.UserRegistrationRequest request = UserDTO.UserRegistrationRequest.builder()
+                    .userName(field(record, columns.get("userName")))
+                    .email(field(record, columns.get("email")))
+                    .password(field(record, columns.get("password")))
+                    .build();
+
+            String error = validate(request);
+            String email = request.getEmail() != null ? request.getEmail().toLowerCase(Locale.ROOT).trim() : null;
+            if (error == null && !seenEmails.add(email)) {
+                error = "El correo electrónico está repetido en el fichero";
+            }
+            if (error != null) {
+                job.reject(csv.recordLine(), email, error);
+                continue;
+            }
+            rows.add(new PendingUser(csv.recordLine(), request.getUserName().trim(), email, request.getPassword()));
+        }
+        return rows;
+    }
+
+    private String validate(UserDTO.UserRegistrationRequest request) {
+        Set<ConstraintViolation<UserDTO.UserRegistrationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (request.getEmail().trim().length() > MAX_EMAIL_LENGTH) {
+            return "El correo electrónico no puede superar los " + MAX_EMAIL_LENGTH + " caracteres";
+        }
+        return null;
+    }
+
+    private void run(Job job, List<PendingUser> rows, Long roleId) {
+        try {
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, rows.size());
+                provisionChunk(job, rows.subList(from, to), roleId);
+                // Las contraseñas en claro del lote ya no hacen falta
+                Collections.fill(rows.subList(from, to), null);
+            }
+            job.finish(UserDTO.ProvisioningStatus.COMPLETED);
+            log.info("User provisioning {} completed: {} created, {} rejected", job.id, job.created.get(), job.failed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(UserDTO.ProvisioningStatus.FAILED);
+            log.warn("User provisioning {} interrupted after {} rows", job.id, job.processed.get());
+        } catch (RuntimeException | ExecutionException e) {
+            job.finish(UserDTO.ProvisioningStatus.FAILED);
+            log.error("User provisioning {} failed after {} rows: {}", job.id, job.processed.get(), e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void provisionChunk(Job job, List<PendingUser> chunk, Long roleId) throws InterruptedException, ExecutionException {
+        Set<String> existing = userRepository.findExistingEmails(chunk.stream().map(PendingUser::email).toList());
+        List<PendingUser> fresh = new ArrayList<>(chunk.size());
+        for (PendingUser pending : chunk) {
+            if (existing.contains(pending.email())) {
+                job.reject(pending.line(), pending.email(), "El correo electrónico ya está registrado");
+            } else {
+                fresh.add(pending);
+            }
+        }
+
+        List<Callable<String>> hashing = fresh.stream()
+                .map(pending -> (Callable<String>) () -> passwordEncoder.encode(pending.password()))
+                .toList();
+        List<Future<String>> hashes = hashPool.invokeAll(hashing);
+
+        List<String> passwordHashes = new ArrayList<>(hashes.size());
+        for (Future<String> hash : hashes) {
+            passwordHashes.add(hash.get());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Role userRole = roleRepository.getReferenceById(roleId);
+                List<User> users = new ArrayList<>(fresh.size());
+                for (int i = 0; i < fresh.size(); i++) {
+                    PendingUser pending = fresh.get(i);
+                    users.add(User.builder()
+                            .userName(pending.userName())
+                            .email(pending.email())
+                            .password(passwordHashes.get(i))
+                            .roles(new HashSet<>(Set.of(userRole)))
+                            .reservations(new ArrayList<>())
+                            .isActive(true)
+                            .build());
+                }
+                userRepository.saveAll(users);
+            });
+            job.created.addAndGet(fresh.size());
+        } catch (DataAccessException | TransactionException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("User provisioning {} chunk starting at line {} failed: {}", job.id, chunk.getFirst().line(), cause);
+            for (PendingUser pending : fresh) {
+                job.reject(pending.line(), pending.email(), "No se pudo guardar el lote de la fila: " + cause);
+            }
+        }
+        job.processed.addAndGet(chunk.size());
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private static String field(List<String> record, Integer index) {
+        return index != null && index < record.size() ? record.get(index) : null;
+    }
+
+    private record PendingUser(long line, String userName, String email, String password) {
+    }
+
+    private final class Job {
+        private final String id;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<UserDTO.UserProvisioningError> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile long totalRows;
+        private volatile UserDTO.ProvisioningStatus status = UserDTO.ProvisioningStatus.RUNNING;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id) {
+            this.id = id;
+        }
+
+        private void reject(long line, String email, String message) {
+            failed.incrementAndGet();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(UserDTO.UserProvisioningError.builder().line(line).email(email).message(message).build());
+            }
+        }
+
+        private void finish(UserDTO.ProvisioningStatus finalStatus) {
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private UserDTO.UserProvisioningJob snapshot() {
+            List<UserDTO.UserProvisioningError> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return UserDTO.UserProvisioningJob.builder()
+                    .jobId(id)
+                    .status(status)
+                    .totalRows(totalRows)
+                    .processed(processed.get())
+                    .created(created.get())
+                    .failed(failed.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .errors(reported)
+                    .build();
+        }
+    }
+}
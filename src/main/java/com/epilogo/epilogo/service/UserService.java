@@ -7,7 +7,6 @@ import com.epilogo.epilogo.model.Role;
 import com.epilogo.epilogo.model.S3File;
 import com.epilogo.epilogo.model.User;
 import com.epilogo.epilogo.repository.RoleRepository;
-import com.epilogo.epilogo.repository.S3FileRepository;
 import com.epilogo.epilogo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
@@ -22,7 +21,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,7 +32,6 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final S3Service s3Service;
-    private final S3FileRepository s3FileRepository;
 
     @Operation(summary = "Obtener usuario actual", description = "Obtiene los datos del usuario autenticado actual")
     public UserDTO.UserResponse getCurrentUser() {
@@ -110,7 +107,7 @@ public class UserService {
 
         S3File s3File = s3Service.uploadFile(file, S3File.EntityType.USER, user.getUserId());
 
-        user.setImageUrl(s3File.getS3Url());
+        user.setCurrentImage(s3File);
         User updatedUser = userRepository.save(user);
 
         return mapToUserResponse(updatedUser);
@@ -171,9 +168,7 @@ public class UserService {
     }
 
     private UserDTO.UserResponse mapToUserResponse(User user) {
-        Optional<S3File> latestFileOpt = s3FileRepository.findFirstByEntityIdAndEntityTypeOrderByUploadDateDesc(user.getUserId(), S3File.EntityType.USER);
-
-        String imageUrl = latestFileOpt.map(S3File::getS3Url).orElse(null);
+        String imageUrl = s3Service.resolveFileUrl(user.getCurrentImage());
 
         return UserDTO.UserResponse.builder()
                 .userId(user.getUserId())
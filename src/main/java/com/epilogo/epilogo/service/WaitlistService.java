@@ -0,0 +1,337 @@
+package com.epilogo.epilogo.service;
+
+import com.epilogo.epilogo.dto.WaitlistDTO;
+import com.epilogo.epilogo.event.DomainEvent;
+import com.epilogo.epilogo.exception.ResourceNotFoundException;
+import com.epilogo.epilogo.model.Book;
+import com.epilogo.epilogo.model.Reservation;
+import com.epilogo.epilogo.model.User;
+import com.epilogo.epilogo.model.WaitlistEntry;
+import com.epilogo.epilogo.repository.BookRepository;
+import com.epilogo.epilogo.repository.ReservationRepository;
+import com.epilogo.epilogo.repository.UserRepository;
+import com.epilogo.epilogo.repository.WaitlistEntryRepository;
+import com.epilogo.epilogo.utils.FenwickPositionIndex;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de espera por libro. Quien no encuentra ejemplares se apunta una vez en lugar de reintentar la reserva; cuando
+ * {@link ReservationService} libera un ejemplar (una reserva PENDING o ACTIVE pasa a COMPLETED o CANCELLED), se asigna
+ * al primero de la cola como reserva PENDING que debe recogerse antes de {@code waitlist.hold-window}.
+ * <p>
+ * La base de datos es la fuente de verdad y el orden de la cola es el de {@code entry_id}. Cada nodo mantiene además
+ * un {@link FenwickPositionIndex} por libro para responder la posición en O(log n); se reconstruye al arrancar y tras
+ * un {@link DomainEvent.Resync}, y se actualiza con los {@link DomainEvent.WaitlistChanged} locales y de otros nodos.
+ */
+@Service
+@Slf4j
+@Timed("epilogo.service")
+@Tag(name = "Waitlist Service", description = "Servicio para la lista de espera de libros")
+public class WaitlistService {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final ReservationRepository reservationRepository;
+    private final AvailabilityCalendarService availabilityCalendarService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration holdWindow;
+    private final int loanDays;
+
+    private final Map<Long, FenwickPositionIndex> queues = new ConcurrentHashMap<>();
+
+    public WaitlistService(WaitlistEntryRepository waitlistEntryRepository,
+                           BookRepository bookRepository,
+                           UserRepository userRepository,
+                           ReservationRepository reservationRepository,
+                           AvailabilityCalendarService availabilityCalendarService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${waitlist.hold-window:PT48H}") Duration holdWindow,
+                           @Value("${waitlist.loan-days:14}") int loanDays) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.reservationRepository = reservationRepository;
+        this.availabilityCalendarService = availabilityCalendarService;
+        this.eventPublisher = eventPublisher;
+        this.holdWindow = holdWindow;
+        this.loanDays = loanDays;
+    }
+
+    @Operation(summary = "Entrar en la lista de espera", description = "Apunta al usuario autenticado en la cola de un libro sin ejemplares disponibles")
+    @Transactional
+    public WaitlistDTO.WaitlistEntryResponse join(WaitlistDTO.WaitlistJoinRequest request) {
+        User user = currentUser();
+        // Bloqueado hasta el commit, como al reservar: una devolución no puede colarse entre la comprobación y el alta
+        Book book = bookRepository.findByIdForUpdate(request.getBookId())
+                .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + request.getBookId()));
+
+        // Con ejemplares en la estantería también se puede esperar si las reservas por adelantado ya los comprometen
+        if (book.getAvailableAmount() > 0
+                && availabilityCalendarService.isBookable(book, LocalDate.now(), LocalDate.now().plusDays(loanDays))) {
+            throw new IllegalStateException("Hay ejemplares disponibles de este libro; puede reservarlo directamente");
+        }
+        if (waitlistEntryRepository.existsByBookBookIdAndUserUserIdAndStatus(book.getBookId(), user.getUserId(), WaitlistEntry.WaitlistStatus.WAITING)) {
+            throw new IllegalStateException("Ya está en la lista de espera de este libro");
+        }
+
+        WaitlistEntry entry;
+        try {
+            entry = waitlistEntryRepository.saveAndFlush(WaitlistEntry.builder()
+                    .book(book)
+                    .user(user)
+                    .status(WaitlistEntry.WaitlistStatus.WAITING)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // El índice único de esperas activas rechazó un alta duplicada que se cruzó con esta
+            throw new IllegalStateException("Ya está en la lista de espera de este libro");
+        }
+        eventPublisher.publishEvent(new DomainEvent.WaitlistChanged(book.getBookId(), entry.getEntryId(), true));
+
+        // La cola en memoria se actualiza tras el commit: la nueva entrada va detrás de todas las que ya contiene
+        FenwickPositionIndex queue = queues.get(book.getBookId());
+        int ahead;
+        int length;
+        if (queue == null) {
+            ahead = 0;
+            length = 1;
+        } else {
+            synchronized (queue) {
+                ahead = queue.countBefore(entry.getEntryId());
+                length = queue.size() + 1;
+            }
+        }
+        return mapToResponse(entry, ahead + 1, length);
+    }
+
+    @Operation(summary = "Salir de la lista de espera", description = "Retira una entrada de la cola")
+    @Transactional
+    public void leave(Long entryId) {
+        WaitlistEntry entry = findAuthorized(entryId);
+        // Con el libro bloqueado, como al asignar: el estado que se comprueba no puede cambiar hasta el commit
+        bookRepository.findByIdForUpdate(entry.getBook().getBookId());
+        if (waitlistEntryRepository.findStatusById(entryId).orElse(null) != WaitlistEntry.WaitlistStatus.WAITING) {
+            throw new IllegalStateException("La entrada ya no está en la lista de espera");
+        }
+        entry.setStatus(WaitlistEntry.WaitlistStatus.CANCELLED);
+        eventPublisher.publishEvent(new DomainEvent.WaitlistChanged(entry.getBook().getBookId(), entryId, false));
+    }
+
+    /**
+     * Saca al usuario de la cola de un libro si estaba esperando, por ejemplo porque lo ha reservado directamente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void leaveIfWaiting(Long bookId, Long userId) {
+        waitlistEntryRepository.findByBookBookIdAndUserUserIdAndStatus(bookId, userId, WaitlistEntry.WaitlistStatus.WAITING)
+                .ifPresent(entry -> {
+                    entry.setStatus(WaitlistEntry.WaitlistStatus.CANCELLED);
+                    eventPublisher.publishEvent(new DomainEvent.WaitlistChanged(bookId, entry.getEntryId(), false));
+                });
+    }
+
+    @Operation(summary = "Consultar entrada", description = "Devuelve una entrada de la lista de espera con su posición actual")
+    @Transactional(readOnly = true)
+    public WaitlistDTO.WaitlistEntryResponse getEntry(Long entryId) {
+        WaitlistEntry entry = findAuthorized(entryId);
+        return mapToResponse(entry);
+    }
+
+    @Operation(summary = "Mis listas de espera", description = "Devuelve las colas en las que espera el usuario autenticado")
+    @Transactional(readOnly = true)
+    public List<WaitlistDTO.WaitlistEntryResponse> getMyEntries() {
+        User user = currentUser();
+        return waitlistEntryRepository.findByUserUserIdAndStatusOrderByEntryId(user.getUserId(), WaitlistEntry.WaitlistStatus.WAITING)
+                .stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    /**
+     * Asigna hasta {@code copies} ejemplares liberados de un libro a los primeros de su cola, como reservas PENDING
+     * con plazo de recogida. Cada asignación ocupa el calendario desde hoy durante {@code waitlist.loan-days}: si ese
+     * rango ya está lleno por reservas por adelantado, el ejemplar no se asigna. Devuelve cuántos se asignaron; el resto
+     * debe volver a la disponibilidad del libro. Se ejecuta dentro de la transacción que libera los ejemplares.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int allocate(Long bookId, int copies) {
+        if (copies <= 0) {
+            return 0;
+        }
+
+        // Primero la fila del libro y después la cola, en el mismo orden que reservar, apuntarse o salir de la cola. El
+        // calendario también exige el libro bloqueado hasta el commit
+        Book book = bookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Libro no encontrado con ID: " + bookId));
+        List<WaitlistEntry> next = waitlistEntryRepository.lockNextWaiting(bookId, copies);
+        if (next.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+        LocalDate end = today.plusDays(loanDays);
+        List<Reservation> reservations = new ArrayList<>(next.size());
+        for (WaitlistEntry entry : next) {
+            // Las asignaciones anteriores de este bucle ya están apuntadas en el calendario
+            if (!availabilityCalendarService.isBookable(book, today, end)) {
+                break;
+            }
+            Reservation reservation = reservationRepository.save(Reservation.builder()
+                    .user(entry.getUser())
+                    .book(book)
+                    .reservationDate(today)
+                    .expectedReturnDate(end)
+                    .status(Reservation.ReservationStatus.PENDING)
+                    .holdExpiresAt(now.plus(holdWindow))
+                    // Retiene el ejemplar liberado: recogerla no descuenta otro y cancelarla lo devuelve
+                    .copyHeld(true)
+                    .build());
+            availabilityCalendarService.reserve(book, reservation.getReservationId(), today, end);
+            reservations.add(reservation);
+        }
+        if (reservations.isEmpty()) {
+            return 0;
+        }
+
+        for (int i = 0; i < reservations.size(); i++) {
+            WaitlistEntry entry = next.get(i);
+            Reservation reservation = reservations.get(i);
+            entry.setStatus(WaitlistEntry.WaitlistStatus.ALLOCATED);
+            entry.setAllocatedAt(now);
+            entry.setReservation(reservation);
+            eventPublisher.publishEvent(new DomainEvent.WaitlistChanged(bookId, entry.getEntryId(), false));
+            eventPublisher.publishEvent(new DomainEvent.ReservationStatusChanged(reservation.getReservationId(), bookId, reservation.getStatus()));
+        }
+        log.info("Allocated {} freed copies of book {} from its waitlist", reservations.size(), bookId);
+        return reservations.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Hidden
+    public void rebuildQueues() {
+        Map<Long, FenwickPositionIndex> rebuilt = new HashMap<>();
+        for (Object[] row : waitlistEntryRepository.findAllWaiting()) {
+            rebuilt.computeIfAbsent((Long) row[0], key -> new FenwickPositionIndex()).append((Long) row[1]);
+        }
+        queues.keySet().retainAll(rebuilt.keySet());
+        queues.putAll(rebuilt);
+        log.info("Waitlist queues rebuilt: {} books, {} waiting entries", rebuilt.size(),
+                rebuilt.values().stream().mapToInt(FenwickPositionIndex::size).sum());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Hidden
+    public void onWaitlistChanged(DomainEvent.WaitlistChanged event) {
+        FenwickPositionIndex queue = queues.computeIfAbsent(event.bookId(), key -> new FenwickPositionIndex());
+        boolean appended;
+        synchronized (queue) {
+            if (!event.waiting()) {
+                queue.remove(event.entryId());
+                return;
+            }
+            appended = queue.append(event.entryId());
+        }
+        if (!appended) {
+            // Altas confirmadas fuera de orden (transacciones concurrentes u otro nodo): se recarga la cola del libro
+            reloadQueue(event.bookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Hidden
+    public void onResync(DomainEvent.Resync event) {
+        rebuildQueues();
+    }
+
+    private void reloadQueue(Long bookId) {
+        FenwickPositionIndex queue = new FenwickPositionIndex();
+        waitlistEntryRepository.findWaitingEntryIds(bookId).forEach(queue::append);
+        queues.put(bookId, queue);
+    }
+
+    private WaitlistDTO.WaitlistEntryResponse mapToResponse(WaitlistEntry entry) {
+        if (entry.getStatus() != WaitlistEntry.WaitlistStatus.WAITING) {
+            return mapToResponse(entry, null, null);
+        }
+        Long bookId = entry.getBook().getBookId();
+        FenwickPositionIndex queue = queues.get(bookId);
+        int position = -1;
+        int length = 0;
+        if (queue != null) {
+            synchronized (queue) {
+                position = queue.positionOf(entry.getEntryId());
+                length = queue.size();
+            }
+        }
+        if (position < 0) {
+            // La cola en memoria aún no refleja esta entrada
+            reloadQueue(bookId);
+            queue = queues.get(bookId);
+            synchronized (queue) {
+                position = queue.positionOf(entry.getEntryId());
+                length = queue.size();
+            }
+        }
+        return mapToResponse(entry, position > 0 ? position : null, length);
+    }
+
+    private WaitlistDTO.WaitlistEntryResponse mapToResponse(WaitlistEntry entry, Integer position, Integer queueLength) {
+        return WaitlistDTO.WaitlistEntryResponse.builder()
+                .entryId(entry.getEntryId())
+                .bookId(entry.getBook().getBookId())
+                .bookTitle(entry.getBook().getTitle())
+                .status(entry.getStatus())
+                .position(position)
+                .queueLength(queueLength)
+                .reservationId(entry.getReservation() != null ? entry.getReservation().getReservationId() : null)
+                .createdAt(entry.getCreatedAt())
+                .allocatedAt(entry.getAllocatedAt())
+                .build();
+    }
+
+    private WaitlistEntry findAuthorized(Long entryId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Entrada de la lista de espera no encontrada con ID: " + entryId));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdminOrLibrarian = authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN") ||
+                        authority.getAuthority().equals("ROLE_LIBRARIAN"));
+        if (!isAdminOrLibrarian && !currentUser().getUserId().equals(entry.getUser().getUserId())) {
+            throw new AccessDeniedException("No está autorizado para ver esta entrada de la lista de espera");
+        }
+        return entry;
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.epilogo.epilogo.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Almacenamiento de objetos binarios (imágenes, documentos) identificados por clave.
+ * La implementación activa se elige por perfil: S3 por defecto, disco local con el perfil "local-storage".
+ */
+public interface BlobStore {
+
+    void put(String key, String contentType, InputStream content, long contentLength) throws IOException;
+
+    InputStream get(String key) throws IOException;
+
+    void delete(String key);
+
+    /**
+     * Borra varios objetos en el menor número de llamadas posible.
+     *
+     * @return claves que no se pudieron borrar
+     */
+    List<String> deleteAll(Collection<String> keys);
+
+    String publicUrl(String key);
+
+    String presignedUrl(String key, Duration duration);
+}
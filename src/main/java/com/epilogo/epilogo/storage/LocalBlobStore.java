@@ -0,0 +1,152 @@
+package com.epilogo.epilogo.storage;
+
+import com.epilogo.epilogo.exception.S3FileException;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Guarda los objetos en disco local y los expone mediante URLs firmadas con HMAC
+ * servidas por {@link com.epilogo.epilogo.controller.LocalFileController}. Pensado para despliegues de un solo nodo y pruebas sin AWS.
+ */
+@Component
+@Profile("local-storage")
+@Slf4j
+@Hidden
+@Timed("epilogo.blob.store")
+public class LocalBlobStore implements BlobStore {
+
+    public static final String FILES_PATH = "/api/public/files/";
+
+    private final Path rootDir;
+    private final String baseUrl;
+    private final SecretKeySpec signingKey;
+
+    public LocalBlobStore(@Value("${storage.local.root-dir}") String rootDir,
+                          @Value("${storage.local.base-url}") String baseUrl,
+                          @Value("${storage.local.signing-secret}") String signingSecret) throws IOException {
+        this.rootDir = Path.of(rootDir).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.signingKey = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        Files.createDirectories(this.rootDir);
+        log.info("Local blob store rooted at {}", this.rootDir);
+    }
+
+    @Override
+    public void put(String key, String contentType, InputStream content, long contentLength) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+
+        Path tempFile = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(content, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            log.error("Error deleting local object {}: {}", key, e.getMessage());
+            throw new S3FileException("Failed to delete file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> deleteAll(Collection<String> keys) {
+        List<String> failedKeys = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException | IllegalArgumentException e) {
+                log.error("Error deleting local object {}: {}", key, e.getMessage());
+                failedKeys.add(key);
+            }
+        }
+        return failedKeys;
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return baseUrl + FILES_PATH + encodeKey(key) + "?signature=" + sign(key);
+    }
+
+    @Override
+    public String presignedUrl(String key, Duration duration) {
+        long expires = Instant.now().plus(duration).getEpochSecond();
+        return baseUrl + FILES_PATH + encodeKey(key) + "?expires=" + expires + "&signature=" + sign(key + ":" + expires);
+    }
+
+    /**
+     * Comprueba la firma de una URL generada por {@link #publicUrl} o {@link #presignedUrl}; {@code key} es la clave ya
+     * decodificada de la URL.
+     */
+    public boolean isValidSignature(String key, Long expires, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        if (expires != null && Instant.now().getEpochSecond() > expires) {
+            return false;
+        }
+
+        String expected = expires != null ? sign(key + ":" + expires) : sign(key);
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public Path resolve(String key) {
+        Path path = rootDir.resolve(key).normalize();
+        if (!path.startsWith(rootDir)) {
+            throw new IllegalArgumentException("Clave de archivo inválida: " + key);
+        }
+        return path;
+    }
+
+    /**
+     * Codifica la clave como ruta de URL; las barras se mantienen como separadores.
+     */
+    private static String encodeKey(String key) {
+        return UriUtils.encodePath(key, StandardCharsets.UTF_8);
+    }
+
+    private String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            return HexFormat.of().formatHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar la URL", e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.epilogo.epilogo.storage;
+
+import com.epilogo.epilogo.exception.S3FileException;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@Profile("!local-storage")
+@RequiredArgsConstructor
+@Slf4j
+@Hidden
+@Timed("epilogo.blob.store")
+public class S3BlobStore implements BlobStore {
+
+    /** Máximo de claves admitido por una llamada DeleteObjects. */
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${aws.region}")
+    private String region;
+
+    @Override
+    public void put(String key, String contentType, InputStream content, long contentLength) {
+        try {
+            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .build();
+
+            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(content, contentLength));
+        } catch (S3Exception e) {
+            log.error("AWS S3 error uploading object {}: {}", key, e.getMessage());
+            throw new S3FileException("AWS S3 error: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+        } catch (S3Exception e) {
+            log.error("AWS S3 error downloading object {}: {}", key, e.getMessage());
+            throw new S3FileException("AWS S3 error: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build();
+
+            s3Client.deleteObject(deleteObjectRequest);
+        } catch (S3Exception e) {
+            log.error("AWS S3 error deleting object {}: {}", key, e.getMessage());
+            throw new S3FileException("AWS S3 error: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> deleteAll(Collection<String> keys) {
+        List<String> pending = new ArrayList<>(keys);
+        List<String> failedKeys = new ArrayList<>();
+
+        for (int from = 0; from < pending.size(); from += MAX_KEYS_PER_DELETE) {
+            List<String> chunk = pending.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, pending.size()));
+            try {
+                DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder()
+                                .objects(chunk.stream()
+                                        .map(key -> ObjectIdentifier.builder().key(key).build())
+                                        .toList())
+                                .quiet(true)
+                                .build())
+                        .build();
+
+                DeleteObjectsResponse response = s3Client.deleteObjects(deleteObjectsRequest);
+                for (S3Error error : response.errors()) {
+                    log.error("AWS S3 error deleting object {}: {} {}", error.key(), error.code(), error.message());
+                    failedKeys.add(error.key());
+                }
+            } catch (S3Exception e) {
+                log.error("AWS S3 error deleting {} objects: {}", chunk.size(), e.getMessage());
+                failedKeys.addAll(chunk);
+            }
+        }
+
+        return failedKeys;
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, key);
+    }
+
+    @Override
+    public String presignedUrl(String key, Duration duration) {
+        try {
+            GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder()
+                    .signatureDuration(duration)
+                    .getObjectRequest(GetObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .build())
+                    .build();
+
+            return s3Presigner.presignGetObject(getObjectPresignRequest).url().toString();
+        } catch (Exception e) {
+            log.error("Error generating presigned URL: {}", e.getMessage());
+            throw new S3FileException("Failed to generate presigned URL: " + e.getMessage(), e);
+        }
+    }
+}
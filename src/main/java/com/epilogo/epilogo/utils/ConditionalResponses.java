@@ -0,0 +1,36 @@
+package com.epilogo.epilogo.utils;
+
+import com.epilogo.epilogo.service.CatalogVersionService.CatalogVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Respuestas GET condicionales: si el cliente ya tiene la versión actual (If-None-Match / If-Modified-Since)
+ * se responde 304 sin invocar al proveedor del cuerpo.
+ */
+public final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    public static <T> ResponseEntity<T> conditional(WebRequest webRequest, CatalogVersion version, Supplier<T> body) {
+        if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+        }
+        return headers(ResponseEntity.ok(), version).body(body.get());
+    }
+
+    private static ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder builder, CatalogVersion version) {
+        builder.eTag(version.etag())
+                .lastModified(version.lastModified())
+                .cacheControl(version.cacheControl());
+        if (version.perUser()) {
+            builder.varyBy(HttpHeaders.AUTHORIZATION);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,113 @@
+package com.epilogo.epilogo.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) que devuelve un registro cada vez, sin cargar el fichero en memoria. Admite campos entre
+ * comillas con comas, comillas dobladas y saltos de línea dentro, y finales de línea LF o CRLF.
+ */
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+    private int pushedBack = -2;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Siguiente registro, o {@code null} al final del fichero. Las líneas vacías se saltan.
+     */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        recordLine = line;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (empty && fields.isEmpty()) {
+                    return null;
+                }
+                if (quoted) {
+                    throw new IllegalStateException("Comillas sin cerrar en el registro de la línea " + recordLine);
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    empty = false;
+                }
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    empty = false;
+                }
+                case '\r' -> {
+                    // El \n que sigue cierra el registro
+                }
+                case '\n' -> {
+                    line++;
+                    if (empty && fields.isEmpty() && field.isEmpty()) {
+                        recordLine = line;
+                        continue;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                default -> {
+                    field.append((char) c);
+                    empty = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Línea del fichero en la que empieza el último registro devuelto por {@link #next()}.
+     */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
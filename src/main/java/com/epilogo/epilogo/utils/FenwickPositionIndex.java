@@ -0,0 +1,126 @@
+package com.epilogo.epilogo.utils;
+
+import java.util.Arrays;
+
+/**
+ * Cola ordenada de claves crecientes (ids de llegada) que responde en O(log n) la posición de cualquier clave, con
+ * altas al final y bajas en cualquier punto también en O(log n).
+ * <p>
+ * Cada clave ocupa una ranura en orden de llegada y un árbol de Fenwick cuenta las ranuras vivas: la posición de una
+ * clave es la suma de prefijo hasta su ranura. Las bajas dejan la ranura a cero y, cuando las ranuras muertas superan a
+ * las vivas, se compacta en O(n). No es seguro para hilos.
+ */
+public class FenwickPositionIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private boolean[] present = new boolean[INITIAL_CAPACITY];
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int slots;
+    private int live;
+
+    /**
+     * Añade una clave al final de la cola. Devuelve {@code false} sin cambiar nada si no es mayor que la última
+     * añadida: la cola ya no está en orden y hay que reconstruirla.
+     */
+    public boolean append(long key) {
+        if (slots > 0 && key <= keys[slots - 1]) {
+            return false;
+        }
+        if (slots == keys.length) {
+            grow();
+        }
+        keys[slots] = key;
+        present[slots] = true;
+        slots++;
+        // El nodo i cubre las ranuras (i - lowbit(i), i]: la nueva más las anteriores de ese tramo
+        int i = slots;
+        tree[i] = 1 + prefix(i - 1) - prefix(i - Integer.lowestOneBit(i));
+        live++;
+        return true;
+    }
+
+    /**
+     * Quita una clave de la cola; devuelve {@code false} si no estaba.
+     */
+    public boolean remove(long key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return false;
+        }
+        present[slot] = false;
+        for (int i = slot + 1; i <= slots; i += Integer.lowestOneBit(i)) {
+            tree[i]--;
+        }
+        live--;
+        if (slots > INITIAL_CAPACITY && live < slots / 2) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Posición (desde 1) de la clave en la cola, o -1 si no está.
+     */
+    public int positionOf(long key) {
+        int slot = slotOf(key);
+        return slot < 0 ? -1 : prefix(slot + 1);
+    }
+
+    /**
+     * Número de claves vivas menores que {@code key}, esté o no en la cola.
+     */
+    public int countBefore(long key) {
+        int insertion = Arrays.binarySearch(keys, 0, slots, key);
+        int slot = insertion >= 0 ? insertion : -insertion - 1;
+        return prefix(slot);
+    }
+
+    public int size() {
+        return live;
+    }
+
+    private int slotOf(long key) {
+        int slot = Arrays.binarySearch(keys, 0, slots, key);
+        return slot >= 0 && present[slot] ? slot : -1;
+    }
+
+    private int prefix(int index) {
+        int sum = 0;
+        for (int i = index; i > 0; i -= Integer.lowestOneBit(i)) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void grow() {
+        // Los nodos existentes solo dependen de ranuras anteriores, así que siguen siendo válidos al copiar
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        present = Arrays.copyOf(present, capacity);
+        tree = Arrays.copyOf(tree, capacity + 1);
+    }
+
+    private void compact() {
+        int kept = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (present[slot]) {
+                keys[kept++] = keys[slot];
+            }
+        }
+        Arrays.fill(present, 0, slots, false);
+        Arrays.fill(present, 0, kept, true);
+        Arrays.fill(tree, 0);
+        slots = kept;
+
+        // Construcción en O(n): cada nodo suma su valor y lo propaga a su padre
+        for (int i = 1; i <= slots; i++) {
+            tree[i]++;
+            int parent = i + Integer.lowestOneBit(i);
+            if (parent <= slots) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
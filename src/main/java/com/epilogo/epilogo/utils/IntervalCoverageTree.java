@@ -0,0 +1,239 @@
+package com.epilogo.epilogo.utils;
+
+import java.util.Arrays;
+
+/**
+ * Cuenta cuántos intervalos cerrados cubren cada posición de un dominio {@code [0, span)} y responde en O(log span) el
+ * máximo y el mínimo de cobertura en un rango y la primera posición cuya cobertura está por debajo de un límite. Altas
+ * y bajas de intervalos también son O(log span).
+ * <p>
+ * Es un árbol de segmentos disperso: los nodos se crean solo al tocar su tramo y un nodo ausente equivale a cobertura
+ * cero. Cada nodo guarda lo añadido a todo su tramo y el máximo y mínimo de su subárbol incluyendo ese añadido, así que
+ * no hace falta propagar nada hacia abajo. No es seguro para hilos.
+ */
+public class IntervalCoverageTree {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int ROOT = 1;
+
+    private final int span;
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+    private int[] added = new int[INITIAL_CAPACITY];
+    private int[] max = new int[INITIAL_CAPACITY];
+    private int[] min = new int[INITIAL_CAPACITY];
+    // El índice 0 hace de nodo ausente
+    private int nodes = ROOT + 1;
+
+    /**
+     * Receptor de tramos consecutivos de cobertura constante.
+     */
+    @FunctionalInterface
+    public interface RunConsumer {
+        void accept(int from, int to, int coverage);
+    }
+
+    public IntervalCoverageTree(int span) {
+        if (span <= 0) {
+            throw new IllegalArgumentException("span must be positive: " + span);
+        }
+        this.span = span;
+    }
+
+    public int span() {
+        return span;
+    }
+
+    /**
+     * Suma {@code delta} a la cobertura de {@code [from, to]}: 1 para dar de alta un intervalo y -1 para darlo de baja.
+     */
+    public void add(int from, int to, int delta) {
+        checkRange(from, to);
+        update(ROOT, 0, span - 1, from, to, delta);
+    }
+
+    /**
+     * Cobertura máxima en {@code [from, to]}.
+     */
+    public int max(int from, int to) {
+        checkRange(from, to);
+        return queryMax(ROOT, 0, span - 1, from, to);
+    }
+
+    /**
+     * Cobertura mínima en {@code [from, to]}.
+     */
+    public int min(int from, int to) {
+        checkRange(from, to);
+        return queryMin(ROOT, 0, span - 1, from, to);
+    }
+
+    /**
+     * Primera posición de {@code [from, to]} con cobertura menor que {@code limit}, o -1 si no hay ninguna.
+     */
+    public int firstBelow(int from, int to, int limit) {
+        checkRange(from, to);
+        return firstBelow(ROOT, 0, span - 1, from, to, limit);
+    }
+
+    /**
+     * Recorre {@code [from, to]} como tramos maximales de cobertura constante, en orden. Cuesta O(k log span) para k
+     * tramos.
+     */
+    public void forEachRun(int from, int to, RunConsumer consumer) {
+        checkRange(from, to);
+        RunCollector collector = new RunCollector(consumer);
+        collectRuns(ROOT, 0, span - 1, from, to, 0, collector);
+        collector.flush();
+    }
+
+    private void update(int node, int lo, int hi, int from, int to, int delta) {
+        if (from <= lo && hi <= to) {
+            added[node] += delta;
+            max[node] += delta;
+            min[node] += delta;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (from <= mid) {
+            if (left[node] == 0) {
+                // Crear antes de asignar: newNode puede cambiar los arrays
+                int child = newNode();
+                left[node] = child;
+            }
+            update(left[node], lo, mid, from, to, delta);
+        }
+        if (to > mid) {
+            if (right[node] == 0) {
+                int child = newNode();
+                right[node] = child;
+            }
+            update(right[node], mid + 1, hi, from, to, delta);
+        }
+        int l = left[node];
+        int r = right[node];
+        max[node] = added[node] + Math.max(l == 0 ? 0 : max[l], r == 0 ? 0 : max[r]);
+        min[node] = added[node] + Math.min(l == 0 ? 0 : min[l], r == 0 ? 0 : min[r]);
+    }
+
+    private int queryMax(int node, int lo, int hi, int from, int to) {
+        if (node == 0) {
+            return 0;
+        }
+        if (from <= lo && hi <= to) {
+            return max[node];
+        }
+        int mid = (lo + hi) >>> 1;
+        int best = Integer.MIN_VALUE;
+        if (from <= mid) {
+            best = queryMax(left[node], lo, mid, from, to);
+        }
+        if (to > mid) {
+            best = Math.max(best, queryMax(right[node], mid + 1, hi, from, to));
+        }
+        return added[node] + best;
+    }
+
+    private int queryMin(int node, int lo, int hi, int from, int to) {
+        if (node == 0) {
+            return 0;
+        }
+        if (from <= lo && hi <= to) {
+            return min[node];
+        }
+        int mid = (lo + hi) >>> 1;
+        int best = Integer.MAX_VALUE;
+        if (from <= mid) {
+            best = queryMin(left[node], lo, mid, from, to);
+        }
+        if (to > mid) {
+            best = Math.min(best, queryMin(right[node], mid + 1, hi, from, to));
+        }
+        return added[node] + best;
+    }
+
+    /**
+     * {@code limit} llega ya descontado de lo añadido en los ancestros.
+     */
+    private int firstBelow(int node, int lo, int hi, int from, int to, int limit) {
+        if (hi < from || lo > to) {
+            return -1;
+        }
+        if (node == 0) {
+            return limit > 0 ? Math.max(lo, from) : -1;
+        }
+        // Si ni el mínimo del tramo completo baja del límite, tampoco lo hará la parte que cae en el rango
+        if (min[node] >= limit) {
+            return -1;
+        }
+        if (lo == hi) {
+            return lo;
+        }
+        int mid = (lo + hi) >>> 1;
+        int found = firstBelow(left[node], lo, mid, from, to, limit - added[node]);
+        return found >= 0 ? found : firstBelow(right[node], mid + 1, hi, from, to, limit - added[node]);
+    }
+
+    private void collectRuns(int node, int lo, int hi, int from, int to, int base, RunCollector collector) {
+        if (hi < from || lo > to) {
+            return;
+        }
+        if (node == 0 || min[node] == max[node]) {
+            collector.accept(Math.max(lo, from), Math.min(hi, to), base + (node == 0 ? 0 : max[node]));
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        collectRuns(left[node], lo, mid, from, to, base + added[node], collector);
+        collectRuns(right[node], mid + 1, hi, from, to, base + added[node], collector);
+    }
+
+    private int newNode() {
+        if (nodes == left.length) {
+            int capacity = left.length * 2;
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            added = Arrays.copyOf(added, capacity);
+            max = Arrays.copyOf(max, capacity);
+            min = Arrays.copyOf(min, capacity);
+        }
+        return nodes++;
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to >= span || from > to) {
+            throw new IllegalArgumentException("invalid range [" + from + ", " + to + "] for span " + span);
+        }
+    }
+
+    /**
+     * Une los tramos contiguos con la misma cobertura antes de entregarlos.
+     */
+    private static final class RunCollector {
+        private final RunConsumer consumer;
+        private int from = -1;
+        private int to;
+        private int coverage;
+
+        private RunCollector(RunConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        private void accept(int runFrom, int runTo, int runCoverage) {
+            if (from >= 0 && runCoverage == coverage && runFrom == to + 1) {
+                to = runTo;
+                return;
+            }
+            flush();
+            from = runFrom;
+            to = runTo;
+            coverage = runCoverage;
+        }
+
+        private void flush() {
+            if (from >= 0) {
+                consumer.accept(from, to, coverage);
+                from = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Vencimiento materializado: overdue marca las reservas ACTIVE con la devolución prevista ya pasada. Lo recalcula
+-- cada día el job de vencimientos y lo mantienen al día los cambios de estado, en lugar de evaluarlo fila a fila.
+ALTER TABLE reservations ADD COLUMN overdue BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE reservations SET overdue = TRUE WHERE status = 'ACTIVE' AND expected_return_date < CURRENT_DATE;
+
+-- Listado paginado por clave (expected_return_date, reservation_id) y agregados de días de retraso
+CREATE INDEX IF NOT EXISTS idx_reservations_overdue
+    ON reservations (expected_return_date, reservation_id) WHERE overdue;
@@ -0,0 +1,18 @@
+-- Claves de idempotencia de los POST que los clientes reintentan (reservas y subidas de imágenes). La primera petición
+-- con una clave la reclama (IN_PROGRESS) y guarda su respuesta al terminar (COMPLETED); los reintentos reciben esa
+-- respuesta sin volver a ejecutarse. Las claves son de cada usuario y caducan en expires_at.
+CREATE TABLE idempotency_keys (
+    owner           VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(255) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_status INTEGER,
+    content_type    VARCHAR(255),
+    response_body   BYTEA,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (owner, idempotency_key)
+);
+
+-- Purga periódica de las claves caducadas
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
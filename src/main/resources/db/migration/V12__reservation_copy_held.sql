@@ -0,0 +1,8 @@
+-- copy_held marca las reservas que tienen descontado un ejemplar de la disponibilidad de su libro: las ACTIVE y las
+-- PENDING que lo tomaron al darse de alta o al asignarse desde la lista de espera. Las reservas por adelantado no lo
+-- toman hasta que se recogen, así que activarlas descuenta uno y cancelarlas no devuelve nada.
+ALTER TABLE reservations ADD COLUMN copy_held BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE reservations SET copy_held = TRUE
+WHERE status = 'ACTIVE'
+   OR (status = 'PENDING' AND COALESCE(CAST(created_at AS DATE) >= reservation_date, TRUE));
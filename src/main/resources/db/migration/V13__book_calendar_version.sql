@@ -0,0 +1,4 @@
+-- Contador de altas en el calendario de disponibilidad de cada libro. Toda reserva nueva que ocupa calendario lo sube
+-- con la fila del libro bloqueada; cada nodo recuerda el valor con el que está al día su calendario en memoria y solo
+-- lo recarga de la base de datos si otro nodo ha dado de alta reservas que aún no le han llegado por eventos.
+ALTER TABLE books ADD COLUMN calendar_version BIGINT NOT NULL DEFAULT 0;
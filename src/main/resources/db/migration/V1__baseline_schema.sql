@@ -0,0 +1,77 @@
+-- Esquema inicial, equivalente al que generaba ddl-auto=update antes de introducir las migraciones.
+-- Las bases de datos existentes se marcan directamente en esta versión (spring.flyway.baseline-version=1).
+
+CREATE TABLE roles (
+    role_id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    role_name VARCHAR(50) NOT NULL UNIQUE CHECK (role_name IN ('ROLE_USER', 'ROLE_ADMIN', 'ROLE_LIBRARIAN'))
+);
+
+CREATE TABLE users (
+    user_id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_name     VARCHAR(150) NOT NULL,
+    email         VARCHAR(100) NOT NULL UNIQUE,
+    password      VARCHAR(255) NOT NULL,
+    register_date TIMESTAMP(6),
+    is_active     BOOLEAN      NOT NULL
+);
+
+CREATE TABLE user_role (
+    user_id BIGINT NOT NULL REFERENCES users (user_id),
+    role_id BIGINT NOT NULL REFERENCES roles (role_id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE authors (
+    author_id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    author_name VARCHAR(100) NOT NULL,
+    biography   TEXT,
+    birth_year  INTEGER,
+    death_year  INTEGER
+);
+
+CREATE TABLE categories (
+    category_id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    category_name VARCHAR(50) NOT NULL UNIQUE,
+    description   TEXT
+);
+
+CREATE TABLE books (
+    book_id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(200) NOT NULL,
+    description      TEXT,
+    isbn             VARCHAR(20),
+    author_id        BIGINT       NOT NULL REFERENCES authors (author_id),
+    total_amount     INTEGER      NOT NULL,
+    available_amount INTEGER      NOT NULL,
+    book_status      VARCHAR(255) NOT NULL CHECK (book_status IN ('AVAILABLE', 'LOW_STOCK', 'UNAVAILABLE')),
+    category_id      BIGINT       NOT NULL REFERENCES categories (category_id),
+    register_date    TIMESTAMP(6),
+    publication_year INTEGER
+);
+
+CREATE TABLE reservations (
+    reservation_id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id              BIGINT       NOT NULL REFERENCES users (user_id),
+    book_id              BIGINT       NOT NULL REFERENCES books (book_id),
+    reservation_date     DATE         NOT NULL,
+    expected_return_date DATE         NOT NULL,
+    status               VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'ACTIVE', 'COMPLETED', 'CANCELLED')),
+    actual_return_date   DATE,
+    created_at           TIMESTAMP(6),
+    updated_at           TIMESTAMP(6)
+);
+
+CREATE TABLE s3_files (
+    file_id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type         VARCHAR(255) NOT NULL CHECK (entity_type IN ('USER', 'BOOK', 'AUTHOR', 'CATEGORY')),
+    entity_id           BIGINT       NOT NULL,
+    s3_url              VARCHAR(500) NOT NULL,
+    s3_key              VARCHAR(500) NOT NULL,
+    file_name           VARCHAR(255),
+    file_type           VARCHAR(100),
+    file_size           BIGINT,
+    upload_date         TIMESTAMP(6),
+    is_public           BOOLEAN      NOT NULL,
+    thumbnail_url       VARCHAR(500),
+    url_expiration_time TIMESTAMP(6)
+);
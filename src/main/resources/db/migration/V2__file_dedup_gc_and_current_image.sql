@@ -0,0 +1,55 @@
+-- Columnas añadidas mientras el esquema lo gestionaba ddl-auto=update. Se usan IF NOT EXISTS
+-- porque las bases de datos que ya pasaron por ddl-auto pueden tenerlas.
+
+ALTER TABLE s3_files ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE s3_files ADD COLUMN IF NOT EXISTS gc_marked_at TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_s3_files_content_hash ON s3_files (content_hash, entity_type);
+CREATE INDEX IF NOT EXISTS idx_s3_files_gc_marked_at ON s3_files (gc_marked_at) WHERE gc_marked_at IS NOT NULL;
+
+ALTER TABLE books ADD COLUMN IF NOT EXISTS current_image_file_id BIGINT;
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS current_image_file_id BIGINT;
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS current_image_file_id BIGINT;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS current_image_file_id BIGINT;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_books_current_image') THEN
+        ALTER TABLE books ADD CONSTRAINT fk_books_current_image
+            FOREIGN KEY (current_image_file_id) REFERENCES s3_files (file_id) ON DELETE SET NULL;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_authors_current_image') THEN
+        ALTER TABLE authors ADD CONSTRAINT fk_authors_current_image
+            FOREIGN KEY (current_image_file_id) REFERENCES s3_files (file_id) ON DELETE SET NULL;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_categories_current_image') THEN
+        ALTER TABLE categories ADD CONSTRAINT fk_categories_current_image
+            FOREIGN KEY (current_image_file_id) REFERENCES s3_files (file_id) ON DELETE SET NULL;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_users_current_image') THEN
+        ALTER TABLE users ADD CONSTRAINT fk_users_current_image
+            FOREIGN KEY (current_image_file_id) REFERENCES s3_files (file_id) ON DELETE SET NULL;
+    END IF;
+END
+$$;
+
+-- Puntero a la imagen vigente: el archivo más reciente de cada entidad
+UPDATE books t SET current_image_file_id = latest.file_id
+FROM (SELECT DISTINCT ON (entity_id) entity_id, file_id FROM s3_files
+      WHERE entity_type = 'BOOK' ORDER BY entity_id, upload_date DESC, file_id DESC) latest
+WHERE t.book_id = latest.entity_id AND t.current_image_file_id IS NULL;
+
+UPDATE authors t SET current_image_file_id = latest.file_id
+FROM (SELECT DISTINCT ON (entity_id) entity_id, file_id FROM s3_files
+      WHERE entity_type = 'AUTHOR' ORDER BY entity_id, upload_date DESC, file_id DESC) latest
+WHERE t.author_id = latest.entity_id AND t.current_image_file_id IS NULL;
+
+UPDATE categories t SET current_image_file_id = latest.file_id
+FROM (SELECT DISTINCT ON (entity_id) entity_id, file_id FROM s3_files
+      WHERE entity_type = 'CATEGORY' ORDER BY entity_id, upload_date DESC, file_id DESC) latest
+WHERE t.category_id = latest.entity_id AND t.current_image_file_id IS NULL;
+
+UPDATE users t SET current_image_file_id = latest.file_id
+FROM (SELECT DISTINCT ON (entity_id) entity_id, file_id FROM s3_files
+      WHERE entity_type = 'USER' ORDER BY entity_id, upload_date DESC, file_id DESC) latest
+WHERE t.user_id = latest.entity_id AND t.current_image_file_id IS NULL;
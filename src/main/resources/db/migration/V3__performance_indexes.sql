@@ -0,0 +1,29 @@
+-- Índices para las consultas más frecuentes. ddl-auto no creaba índices secundarios ni sobre las claves foráneas.
+
+-- countActiveReservationsByBookId: solo interesan las reservas abiertas
+CREATE INDEX IF NOT EXISTS idx_reservations_book_open
+    ON reservations (book_id) WHERE status IN ('PENDING', 'ACTIVE');
+
+-- findByUserIdAndStatus y el historial paginado del usuario
+CREATE INDEX IF NOT EXISTS idx_reservations_user_status ON reservations (user_id, status);
+
+-- findByBookBookId (historial paginado del libro)
+CREATE INDEX IF NOT EXISTS idx_reservations_book_id ON reservations (book_id);
+
+-- findOverdueReservations: status = 'ACTIVE' AND expected_return_date < :today
+CREATE INDEX IF NOT EXISTS idx_reservations_active_due
+    ON reservations (expected_return_date) WHERE status = 'ACTIVE';
+
+-- Archivos de una entidad, del más reciente al más antiguo (recolector y listados por entidad)
+CREATE INDEX IF NOT EXISTS idx_s3_files_entity_upload
+    ON s3_files (entity_type, entity_id, upload_date DESC);
+
+-- Refresco programado de URLs pre-firmadas: solo filas vigentes con caducidad
+CREATE INDEX IF NOT EXISTS idx_s3_files_url_expiration
+    ON s3_files (url_expiration_time) WHERE url_expiration_time IS NOT NULL AND gc_marked_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_books_category_id ON books (category_id);
+CREATE INDEX IF NOT EXISTS idx_books_author_id ON books (author_id);
+
+-- Tabla de unión recorrida desde roles hacia usuarios
+CREATE INDEX IF NOT EXISTS idx_user_role_role_id ON user_role (role_id);
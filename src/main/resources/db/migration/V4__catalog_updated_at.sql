@@ -0,0 +1,8 @@
+-- Marca de última modificación del catálogo, base de las cabeceras ETag y Last-Modified
+
+ALTER TABLE books ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- MAX(updated_at) se consulta en cada petición condicional sobre listados de libros
+CREATE INDEX IF NOT EXISTS idx_books_updated_at ON books (updated_at);
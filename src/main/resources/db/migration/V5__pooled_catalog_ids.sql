@@ -0,0 +1,6 @@
+-- Libros, autores y categorías pasan a generar el id con la secuencia de su columna identidad y el optimizador
+-- pooled de Hibernate (allocationSize = 50): cada nextval reserva 50 ids, lo que permite agrupar los INSERT en lotes
+-- JDBC. Las inserciones que usan el valor por defecto de la columna siguen siendo válidas, solo dejan huecos.
+ALTER TABLE books ALTER COLUMN book_id SET INCREMENT BY 50;
+ALTER TABLE authors ALTER COLUMN author_id SET INCREMENT BY 50;
+ALTER TABLE categories ALTER COLUMN category_id SET INCREMENT BY 50;
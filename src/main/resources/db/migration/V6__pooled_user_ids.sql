@@ -0,0 +1,3 @@
+-- Los usuarios pasan a generar el id con el optimizador pooled de Hibernate (allocationSize = 50), igual que el
+-- catálogo en V5, para que el alta masiva de usuarios inserte en lotes JDBC.
+ALTER TABLE users ALTER COLUMN user_id SET INCREMENT BY 50;
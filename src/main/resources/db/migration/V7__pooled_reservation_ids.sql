@@ -0,0 +1,3 @@
+-- Las reservas pasan a generar el id con el optimizador pooled de Hibernate (allocationSize = 50), igual que el
+-- catálogo en V5, para que la reserva de varios libros a la vez inserte todas las reservas en un lote JDBC.
+ALTER TABLE reservations ALTER COLUMN reservation_id SET INCREMENT BY 50;
@@ -0,0 +1,22 @@
+-- Lista de espera por libro: cuando se libera un ejemplar se asigna al primero de la cola (orden de entry_id) como
+-- reserva PENDING que caduca en hold_expires_at si no se recoge.
+ALTER TABLE reservations ADD COLUMN hold_expires_at TIMESTAMP(6);
+
+CREATE TABLE waitlist_entries (
+    entry_id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    book_id        BIGINT       NOT NULL REFERENCES books (book_id) ON DELETE CASCADE,
+    user_id        BIGINT       NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    status         VARCHAR(255) NOT NULL CHECK (status IN ('WAITING', 'ALLOCATED', 'CANCELLED')),
+    reservation_id BIGINT       REFERENCES reservations (reservation_id) ON DELETE SET NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    allocated_at   TIMESTAMP(6)
+);
+
+-- Cabeza de la cola de cada libro y reconstrucción de las colas al arrancar
+CREATE INDEX idx_waitlist_entries_waiting ON waitlist_entries (book_id, entry_id) WHERE status = 'WAITING';
+
+-- Un usuario solo puede esperar una vez por libro
+CREATE UNIQUE INDEX uq_waitlist_entries_waiting_user ON waitlist_entries (book_id, user_id) WHERE status = 'WAITING';
+
+-- Listas de espera de un usuario
+CREATE INDEX idx_waitlist_entries_user ON waitlist_entries (user_id, status);
@@ -0,0 +1,9 @@
+-- Las reservas PENDING retienen un ejemplar hasta hold_expires_at; pasado ese momento el barrido programado las
+-- cancela y devuelve el ejemplar. Las pendientes anteriores reciben el plazo por defecto (72 horas) desde su alta.
+UPDATE reservations
+SET hold_expires_at = COALESCE(created_at, CAST(reservation_date AS TIMESTAMP)) + INTERVAL '72 hours'
+WHERE status = 'PENDING' AND hold_expires_at IS NULL;
+
+-- Barrido de reservas pendientes caducadas, de la más antigua a la más reciente
+CREATE INDEX IF NOT EXISTS idx_reservations_pending_hold
+    ON reservations (hold_expires_at) WHERE status = 'PENDING';
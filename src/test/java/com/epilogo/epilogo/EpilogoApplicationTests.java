@@ -1,13 +1,192 @@
 package com.epilogo.epilogo;
 
+import com.epilogo.epilogo.model.Author;
+import com.epilogo.epilogo.model.Book;
+import com.epilogo.epilogo.model.Category;
+import com.epilogo.epilogo.model.Reservation;
+import com.epilogo.epilogo.model.Role;
+import com.epilogo.epilogo.model.User;
+import com.epilogo.epilogo.repository.AuthorRepository;
+import com.epilogo.epilogo.repository.BookRepository;
+import com.epilogo.epilogo.repository.CategoryRepository;
+import com.epilogo.epilogo.repository.ReservationRepository;
+import com.epilogo.epilogo.repository.RoleRepository;
+import com.epilogo.epilogo.repository.UserRepository;
+import com.epilogo.epilogo.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
-@SpringBootTest
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.epilogo.epilogo.support.SqlStatementBudget.statementCount;
+import static com.epilogo.epilogo.support.SqlStatementBudget.statementsAtMost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"catalog.response-cache.enabled=false",
+		"sql.diagnostics.enabled=true"
+})
+@AutoConfigureMockMvc
 class EpilogoApplicationTests {
 
+	/**
+	 * Sentencias máximas por listado: usuario autenticado, página, recuento, lotes de relaciones y reservas.
+	 * El número no debe depender del tamaño de la página.
+	 */
+	private static final int LIST_STATEMENT_BUDGET = 10;
+	private static final int SEEDED_ROWS = 12;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private UserDetailsService userDetailsService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	private User user;
+	private Author author;
+	private Category category;
+	private final List<Book> books = new ArrayList<>();
+	private final List<Reservation> reservations = new ArrayList<>();
+
+	@BeforeEach
+	void seedCatalog() {
+		String suffix = String.valueOf(System.nanoTime());
+
+		Set<Role> roles = new HashSet<>();
+		roles.add(roleRepository.findByRoleName(Role.RoleName.ROLE_ADMIN).orElseThrow());
+		user = User.builder()
+				.userName("budget" + suffix)
+				.email("budget" + suffix + "@epilogo.test")
+				.password("not-used")
+				.roles(roles)
+				.reservations(new ArrayList<>())
+				.isActive(true)
+				.build();
+		user = userRepository.save(user);
+
+		author = authorRepository.save(Author.builder()
+				.authorName("Autor " + suffix)
+				.books(new ArrayList<>())
+				.build());
+		category = categoryRepository.save(Category.builder()
+				.categoryName("Cat " + suffix)
+				.books(new ArrayList<>())
+				.build());
+
+		for (int i = 0; i < SEEDED_ROWS; i++) {
+			Book book = Book.builder()
+					.title("Libro " + suffix + " " + i)
+					.author(author)
+					.category(category)
+					.totalAmount(3)
+					.availableAmount(2)
+					.reservations(new ArrayList<>())
+					.build();
+			book.updateBookStatus();
+			books.add(bookRepository.save(book));
+		}
+
+		for (Book book : books) {
+			// El alta siempre nace PENDING (prePersist): se activa con una actualización, como en el mostrador
+			Reservation reservation = reservationRepository.save(Reservation.builder()
+					.user(user)
+					.book(book)
+					.reservationDate(LocalDate.now())
+					.expectedReturnDate(LocalDate.now().plusDays(14))
+					.build());
+			reservation.changeStatus(Reservation.ReservationStatus.ACTIVE);
+			reservations.add(reservationRepository.save(reservation));
+		}
+	}
+
+	@AfterEach
+	void removeCatalog() {
+		reservationRepository.deleteAll(reservations);
+		bookRepository.deleteAll(books);
+		categoryRepository.delete(category);
+		authorRepository.delete(author);
+		userRepository.delete(user);
+		reservations.clear();
+		books.clear();
+	}
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void bookSearchRunsConstantNumberOfStatementsForAnonymousUsers() throws Exception {
+		int smallPage = listStatements(get("/api/books").param("categoryId", category.getCategoryId().toString()).param("size", "3"));
+		int largePage = listStatements(get("/api/books").param("categoryId", category.getCategoryId().toString()).param("size", "10"));
+
+		assertEquals(smallPage, largePage, "El número de sentencias de /api/books crece con el tamaño de la página");
+	}
+
+	@Test
+	void bookSearchRunsConstantNumberOfStatementsForAuthenticatedUsers() throws Exception {
+		int smallPage = listStatements(authenticated(get("/api/books")
+				.param("categoryId", category.getCategoryId().toString()).param("size", "3")));
+		int largePage = listStatements(authenticated(get("/api/books")
+				.param("categoryId", category.getCategoryId().toString()).param("size", "10")));
+
+		assertEquals(smallPage, largePage, "El número de sentencias de /api/books crece con el tamaño de la página");
+	}
+
+	@Test
+	void reservationSearchRunsConstantNumberOfStatements() throws Exception {
+		int smallPage = listStatements(authenticated(get("/api/reservations")
+				.param("userId", user.getUserId().toString()).param("size", "3")));
+		int largePage = listStatements(authenticated(get("/api/reservations")
+				.param("userId", user.getUserId().toString()).param("size", "10")));
+
+		assertEquals(smallPage, largePage, "El número de sentencias de /api/reservations crece con el tamaño de la página");
+	}
+
+	private int listStatements(MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult result = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(statementsAtMost(LIST_STATEMENT_BUDGET))
+				.andReturn();
+		return statementCount(result);
+	}
+
+	private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+		String token = jwtService.generateToken(userDetailsService.loadUserByUsername(user.getEmail()));
+		return request.header("Authorization", "Bearer " + token);
+	}
 }
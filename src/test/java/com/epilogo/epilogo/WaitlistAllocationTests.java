@@ -0,0 +1,205 @@
+package com.epilogo.epilogo;
+
+import com.epilogo.epilogo.dto.ReservationDTO;
+import com.epilogo.epilogo.model.Author;
+import com.epilogo.epilogo.model.Book;
+import com.epilogo.epilogo.model.Category;
+import com.epilogo.epilogo.model.Reservation;
+import com.epilogo.epilogo.model.Role;
+import com.epilogo.epilogo.model.User;
+import com.epilogo.epilogo.model.WaitlistEntry;
+import com.epilogo.epilogo.repository.AuthorRepository;
+import com.epilogo.epilogo.repository.BookRepository;
+import com.epilogo.epilogo.repository.CategoryRepository;
+import com.epilogo.epilogo.repository.ReservationRepository;
+import com.epilogo.epilogo.repository.RoleRepository;
+import com.epilogo.epilogo.repository.UserRepository;
+import com.epilogo.epilogo.repository.WaitlistEntryRepository;
+import com.epilogo.epilogo.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Un ejemplar devuelto con gente esperando pasa a ser una reserva PENDING del primero de la cola sin volver a la
+ * disponibilidad del libro. Esa reserva ya retiene el ejemplar: recogerla no descuenta otro y cancelarla lo devuelve.
+ */
+@SpringBootTest(properties = "catalog.response-cache.enabled=false")
+@AutoConfigureMockMvc
+class WaitlistAllocationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private UserDetailsService userDetailsService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private WaitlistEntryRepository waitlistEntryRepository;
+
+	private User librarian;
+	private User reader;
+	private Author author;
+	private Category category;
+	private Book book;
+	private Reservation loan;
+	private WaitlistEntry entry;
+
+	@BeforeEach
+	void seedLoanAndWaitlist() {
+		String suffix = String.valueOf(System.nanoTime());
+
+		librarian = userRepository.save(user("librarian" + suffix, Role.RoleName.ROLE_ADMIN));
+		reader = userRepository.save(user("reader" + suffix, Role.RoleName.ROLE_USER));
+
+		author = authorRepository.save(Author.builder()
+				.authorName("Autor " + suffix)
+				.books(new ArrayList<>())
+				.build());
+		category = categoryRepository.save(Category.builder()
+				.categoryName("Cat " + suffix)
+				.books(new ArrayList<>())
+				.build());
+
+		// Un único ejemplar, ya prestado
+		Book seeded = Book.builder()
+				.title("Libro " + suffix)
+				.author(author)
+				.category(category)
+				.totalAmount(1)
+				.availableAmount(0)
+				.reservations(new ArrayList<>())
+				.build();
+		seeded.updateBookStatus();
+		book = bookRepository.save(seeded);
+
+		// El alta siempre nace PENDING: se activa después, como en el mostrador
+		loan = reservationRepository.save(Reservation.builder()
+				.user(librarian)
+				.book(book)
+				.reservationDate(LocalDate.now())
+				.expectedReturnDate(LocalDate.now().plusDays(14))
+				.build());
+		loan.changeStatus(Reservation.ReservationStatus.ACTIVE);
+		loan = reservationRepository.save(loan);
+
+		entry = waitlistEntryRepository.save(WaitlistEntry.builder()
+				.book(book)
+				.user(reader)
+				.status(WaitlistEntry.WaitlistStatus.WAITING)
+				.build());
+	}
+
+	@AfterEach
+	void removeSeed() {
+		waitlistEntryRepository.deleteById(entry.getEntryId());
+		reservationRepository.deleteAll(reservationRepository.findByBookBookId(book.getBookId(), Pageable.unpaged()).getContent());
+		bookRepository.deleteById(book.getBookId());
+		categoryRepository.delete(category);
+		authorRepository.delete(author);
+		userRepository.delete(reader);
+		userRepository.delete(librarian);
+	}
+
+	@Test
+	void activatingAllocatedHoldDoesNotTakeAnotherCopy() throws Exception {
+		Long hold = returnLoan();
+
+		transition(hold, Reservation.ReservationStatus.ACTIVE);
+
+		assertEquals(0, availableAmount(), "Recoger la reserva asignada no debe descontar un segundo ejemplar");
+	}
+
+	@Test
+	void cancellingAllocatedHoldReturnsItsCopy() throws Exception {
+		Long hold = returnLoan();
+
+		transition(hold, Reservation.ReservationStatus.CANCELLED);
+
+		assertEquals(1, availableAmount(), "Cancelar la reserva asignada debe devolver su ejemplar");
+	}
+
+	/**
+	 * Devuelve el préstamo y comprueba que el ejemplar va a la lista de espera. Devuelve la reserva asignada.
+	 */
+	private Long returnLoan() throws Exception {
+		transition(loan.getReservationId(), Reservation.ReservationStatus.COMPLETED);
+
+		assertEquals(0, availableAmount(), "El ejemplar devuelto debe asignarse a la lista de espera");
+		List<Reservation> holds = reservationRepository.findByBookBookId(book.getBookId(), Pageable.unpaged()).stream()
+				.filter(reservation -> reservation.getStatus() == Reservation.ReservationStatus.PENDING)
+				.toList();
+		assertEquals(1, holds.size(), "Debe haberse creado una reserva pendiente para el primero de la cola");
+		return holds.getFirst().getReservationId();
+	}
+
+	private void transition(Long reservationId, Reservation.ReservationStatus status) throws Exception {
+		String token = jwtService.generateToken(userDetailsService.loadUserByUsername(librarian.getEmail()));
+		mockMvc.perform(put("/api/reservations/" + reservationId)
+						.header("Authorization", "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(ReservationDTO.ReservationUpdateRequest.builder()
+								.status(status)
+								.build())))
+				.andExpect(status().isOk());
+	}
+
+	private int availableAmount() {
+		return bookRepository.findById(book.getBookId()).orElseThrow().getAvailableAmount();
+	}
+
+	private User user(String name, Role.RoleName roleName) {
+		Set<Role> roles = new HashSet<>();
+		roles.add(roleRepository.findByRoleName(roleName).orElseThrow());
+		return User.builder()
+				.userName(name)
+				.email(name + "@epilogo.test")
+				.password("not-used")
+				.roles(roles)
+				.reservations(new ArrayList<>())
+				.isActive(true)
+				.build();
+	}
+}
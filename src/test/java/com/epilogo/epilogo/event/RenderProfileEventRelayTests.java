@@ -0,0 +1,82 @@
+package com.epilogo.epilogo.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Arranca con el perfil {@code render}, donde el pool lo construye {@code DatabaseConfig} a partir de {@code DB_HOST},
+ * {@code DB_NAME}, etc. y {@code spring.datasource.url} apunta a una base de datos que no existe, como en producción
+ * sin {@code DB_URL}. La conexión de escucha debe seguir al pool y recibir los eventos de otros nodos.
+ */
+@SpringBootTest(properties = {
+		"DB_HOST=localhost",
+		"DB_PORT=5432",
+		"DB_NAME=db_epilogo",
+		"DB_USERNAME=postgres",
+		"DB_PASSWORD=12345",
+		"DB_URL=jdbc:postgresql://localhost:5432/epilogo_relay_missing",
+		"events.relay.flush-interval=PT0.01S"
+})
+@ActiveProfiles("render")
+class RenderProfileEventRelayTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private BlockingQueue<DomainEvent.Resync> received;
+
+	@TestConfiguration
+	static class ReceivedEvents {
+
+		@Bean
+		BlockingQueue<DomainEvent.Resync> received() {
+			return new LinkedBlockingQueue<>();
+		}
+
+		@Bean
+		ResyncRecorder resyncRecorder(BlockingQueue<DomainEvent.Resync> received) {
+			return new ResyncRecorder(received);
+		}
+	}
+
+	record ResyncRecorder(BlockingQueue<DomainEvent.Resync> received) {
+		@EventListener
+		public void onResync(DomainEvent.Resync event) {
+			if (PgNotifyEventRelay.isRemoteDispatch()) {
+				received.add(event);
+			}
+		}
+	}
+
+	@Test
+	void listenConnectionFollowsThePoolSettings() throws Exception {
+		String payload = objectMapper.writeValueAsString(
+				new PgNotifyEventRelay.Envelope("otro-nodo", List.<DomainEvent>of(new DomainEvent.Resync())));
+
+		// El hilo de escucha puede no haber hecho LISTEN todavía: se reenvía hasta que llegue o se agote el plazo
+		DomainEvent.Resync event = null;
+		for (int attempt = 0; attempt < 50 && event == null; attempt++) {
+			jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, "epilogo_domain_events", payload);
+			event = received.poll(200, TimeUnit.MILLISECONDS);
+		}
+		assertNotNull(event, "La conexión de escucha no recibió eventos de otros nodos con el perfil render");
+	}
+}
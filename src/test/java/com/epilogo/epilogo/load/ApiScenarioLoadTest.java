@@ -0,0 +1,219 @@
+package com.epilogo.epilogo.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Escenario de carga de extremo a extremo sobre una instancia ya arrancada y poblada con
+ * {@link SyntheticDatasetGenerator}. Cada usuario virtual inicia sesión con uno de los lectores generados y repite una
+ * mezcla de catálogo, detalle de libro y reservas propias; un administrador genera además un reporte cada
+ * {@code load.report-interval-seconds}.
+ * <p>
+ * {@code mvn test -Pload -Dtest=ApiScenarioLoadTest -Dload.users=200 -Dload.book-ids=1-1000000 -Dload.user-ids=1-100000}
+ * <p>
+ * Al terminar imprime por endpoint el throughput y los percentiles de latencia, y los deja en
+ * {@code target/load-scenario.csv}.
+ */
+@Tag("load")
+class ApiScenarioLoadTest {
+
+    private static final String BASE_URL = System.getProperty("load.base-url", "http://localhost:8080");
+    private static final int USERS = Integer.getInteger("load.users", 200);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 60));
+    private static final Duration REPORT_INTERVAL = Duration.ofSeconds(Long.getLong("load.report-interval-seconds", 10));
+    private static final long[] BOOK_IDS = range(System.getProperty("load.book-ids", "1-1000000"));
+    private static final long[] USER_IDS = range(System.getProperty("load.user-ids", "1-100000"));
+    private static final int CATALOG_PAGES = 50;
+    private static final int RELOGIN_EVERY = 100;
+    private static final double MAX_ERROR_RATIO = 0.01;
+    private static final Path RESULT_FILE = Path.of("target", "load-scenario.csv");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+    @Test
+    void mixedTrafficOnGeneratedDataset() throws Exception {
+        assumeTrue(isReachable(), "No hay ninguna instancia escuchando en " + BASE_URL);
+
+        long deadline = System.nanoTime() + DURATION.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < USERS; user++) {
+                workers.submit(() -> reader(deadline));
+            }
+            workers.submit(() -> administrator(deadline));
+        }
+
+        Map<String, LatencyStats> results = new TreeMap<>();
+        latencies.forEach((endpoint, samples) ->
+                results.put(endpoint, LatencyStats.of(samples, errors.getOrDefault(endpoint, new AtomicLong()).get(), DURATION)));
+        print(results);
+
+        results.forEach((endpoint, result) -> assertTrue(result.errorRatio() <= MAX_ERROR_RATIO,
+                "Demasiados errores en " + endpoint + ": " + result.errors() + "/" + result.requests()));
+    }
+
+    private void reader(long deadline) {
+        String email = "lector" + random(USER_IDS) + "@epilogo.test";
+        String token = login(email);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int iteration = 1; System.nanoTime() < deadline && !Thread.currentThread().isInterrupted(); iteration++) {
+            if (token == null || iteration % RELOGIN_EVERY == 0) {
+                token = login(email);
+                continue;
+            }
+            int roll = random.nextInt(100);
+            if (roll < 45) {
+                // Las primeras páginas del catálogo son las más visitadas
+                int page = (int) Math.min(CATALOG_PAGES - 1, Math.abs(random.nextGaussian()) * 5);
+                get("GET /api/books", "/api/books?size=20&page=" + page, token);
+            } else if (roll < 80) {
+                get("GET /api/books/{id}", "/api/books/" + random(BOOK_IDS), token);
+            } else {
+                get("GET /api/reservations", "/api/reservations?size=10", token);
+            }
+        }
+    }
+
+    private void administrator(long deadline) {
+        String token = login(SyntheticDatasetGenerator.ADMIN_EMAIL);
+        String body = "{\"format\":\"CSV\",\"startDate\":\"" + LocalDate.now().minusDays(7) + "\"}";
+
+        while (token != null && System.nanoTime() < deadline) {
+            send("POST /api/reports/generate", HttpRequest.newBuilder(URI.create(BASE_URL + "/api/reports/generate"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofMinutes(2))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build());
+            try {
+                Thread.sleep(REPORT_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private String login(String email) {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + SyntheticDatasetGenerator.PASSWORD + "\"}";
+        HttpResponse<String> response = send("POST /api/auth/login", HttpRequest.newBuilder(URI.create(BASE_URL + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        if (response == null || response.statusCode() != 200) {
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(response.body());
+            return json.path("accessToken").asText(null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void get(String endpoint, String path, String token) {
+        send(endpoint, HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build());
+    }
+
+    /**
+     * Envía la petición y anota su latencia en el endpoint; cuenta como error un 5xx, un 401/403 o un fallo de red.
+     */
+    private HttpResponse<String> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            if (status >= 500 || status == 401 || status == 403) {
+                errors.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+            }
+        } catch (IOException e) {
+            errors.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        latencies.computeIfAbsent(endpoint, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+        return response;
+    }
+
+    private void print(Map<String, LatencyStats> results) throws IOException {
+        System.out.printf("%n%-30s %9s %9s %9s %9s %9s %9s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "errors");
+        Files.createDirectories(RESULT_FILE.getParent());
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(RESULT_FILE))) {
+            csv.println("endpoint,requests,throughput,p50_ms,p90_ms,p99_ms,p999_ms,errors");
+            results.forEach((endpoint, result) -> {
+                System.out.printf("%-30s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %7d%n", endpoint, result.requests(),
+                        result.throughput(), result.percentile(0.50), result.percentile(0.90),
+                        result.percentile(0.99), result.percentile(0.999), result.errors());
+                csv.printf(Locale.ROOT, "%s,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%d%n", endpoint, result.requests(),
+                        result.throughput(), result.percentile(0.50), result.percentile(0.90),
+                        result.percentile(0.99), result.percentile(0.999), result.errors());
+            });
+        }
+        System.out.println("Results written to " + RESULT_FILE.toAbsolutePath());
+    }
+
+    private boolean isReachable() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/health"))
+                    .timeout(Duration.ofSeconds(2))
+                    .GET()
+                    .build();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long random(long[] range) {
+        return ThreadLocalRandom.current().nextLong(range[0], range[1] + 1);
+    }
+
+    private static long[] range(String value) {
+        String[] bounds = value.split("-");
+        return new long[]{Long.parseLong(bounds[0].trim()), Long.parseLong(bounds[1].trim())};
+    }
+}
@@ -0,0 +1,113 @@
+package com.epilogo.epilogo.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Prueba de carga contra una instancia ya arrancada. Mide el rendimiento de endpoints del catálogo que bloquean en
+ * JDBC con distintos niveles de concurrencia. Para comparar los dos modos de ejecución se lanza dos veces, con la
+ * aplicación arrancada con {@code VIRTUAL_THREADS_ENABLED=false} y con {@code true}.
+ * <p>
+ * No forma parte de la batería normal: {@code mvn test -Pload -Dload.base-url=http://localhost:8080}.
+ * Las rutas por defecto evitan la caché de respuestas para medir el camino completo hasta la base de datos.
+ */
+@Tag("load")
+class CatalogThroughputLoadTest {
+
+    private static final String BASE_URL = System.getProperty("load.base-url", "http://localhost:8080");
+    private static final List<String> PATHS = Arrays.asList(System.getProperty("load.paths",
+            "/api/books?query=a&size=20,/api/books?query=e&page=3,/api/authors/search?name=a").split(","));
+    private static final int[] CONCURRENCY = Arrays.stream(System.getProperty("load.concurrency", "50,200,1000").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 20));
+    private static final double MAX_ERROR_RATIO = 0.01;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void catalogThroughputAtIncreasingConcurrency() throws Exception {
+        assumeTrue(isReachable(), "No hay ninguna instancia escuchando en " + BASE_URL);
+
+        System.out.printf("%n%-12s %10s %10s %10s %10s %8s%n", "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        for (int concurrency : CONCURRENCY) {
+            LatencyStats result = run(concurrency);
+            System.out.printf("%-12d %10d %10.1f %10.1f %10.1f %8d%n", concurrency, result.requests(),
+                    result.throughput(), result.percentile(0.50), result.percentile(0.99), result.errors());
+
+            assertTrue(result.errorRatio() <= MAX_ERROR_RATIO,
+                    "Demasiados errores con concurrencia " + concurrency + ": " + result.errors() + "/" + result.requests());
+        }
+    }
+
+    private LatencyStats run(int concurrency) throws InterruptedException {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + DURATION.toNanos();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                int offset = worker;
+                workers.submit(() -> {
+                    int i = offset;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + PATHS.get(i++ % PATHS.size())))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+
+        return LatencyStats.of(latencies, errors.get(), DURATION);
+    }
+
+    private boolean isReachable() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/health"))
+                    .timeout(Duration.ofSeconds(2))
+                    .GET()
+                    .build();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
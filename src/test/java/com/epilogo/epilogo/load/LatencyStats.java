@@ -0,0 +1,42 @@
+package com.epilogo.epilogo.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Latencias de una ventana de carga, ordenadas, con el número de errores y la duración de la ventana.
+ */
+record LatencyStats(List<Long> sortedLatenciesNanos, long errors, Duration duration) {
+
+    static LatencyStats of(Collection<Long> latenciesNanos, long errors, Duration duration) {
+        List<Long> sorted = new ArrayList<>(latenciesNanos);
+        Collections.sort(sorted);
+        return new LatencyStats(sorted, errors, duration);
+    }
+
+    long requests() {
+        return sortedLatenciesNanos.size();
+    }
+
+    double throughput() {
+        return requests() / (duration.toMillis() / 1000.0);
+    }
+
+    double errorRatio() {
+        return requests() == 0 ? 1.0 : (double) errors / requests();
+    }
+
+    /**
+     * Percentil {@code p} (entre 0 y 1) en milisegundos.
+     */
+    double percentile(double p) {
+        if (sortedLatenciesNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sortedLatenciesNanos.size()) - 1;
+        return sortedLatenciesNanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,495 @@
+package com.epilogo.epilogo.load;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+
+/**
+ * Llena una base de datos Postgres ya migrada con un catálogo sintético a escala de producción, para reproducir
+ * fuera de producción los problemas de rendimiento. Los datos se cargan con {@code COPY} y las distribuciones son
+ * sesgadas como las reales: pocos autores escriben muchos libros, pocos libros concentran la mayoría de las reservas
+ * y las reservas antiguas están casi todas completadas.
+ * <p>
+ * Los volúmenes y la conexión se configuran con propiedades del sistema ({@code dataset.books},
+ * {@code dataset.users}, {@code dataset.reservations}, {@code dataset.files}, {@code dataset.url}, ...):
+ * <pre>
+ * mvn -Pload test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.epilogo.epilogo.load.SyntheticDatasetGenerator \
+ *     -Ddataset.books=1000000 -Ddataset.users=100000 -Ddataset.reservations=10000000 -Ddataset.files=2000000
+ * </pre>
+ * Todos los usuarios generados ({@code lector<id>@epilogo.test}) comparten la contraseña {@link #PASSWORD}, y se crea
+ * el administrador {@link #ADMIN_EMAIL} para los escenarios que generan reportes. Los identificadores continúan a
+ * partir de los existentes, así que se puede ejecutar sobre una base con datos.
+ */
+public final class SyntheticDatasetGenerator {
+
+    static final String PASSWORD = "LoadTest123!";
+    static final String ADMIN_EMAIL = "admin.carga@epilogo.test";
+
+    private static final int FLUSH_CHARS = 1 << 20;
+    private static final int HISTORY_DAYS = 3 * 365;
+    private static final int RECENT_DAYS = 30;
+    // Igual que reservations.pending-hold
+    private static final Duration PENDING_HOLD = Duration.ofHours(72);
+
+    private static final String[] GENRES = {
+            "Novela", "Novela histórica", "Ciencia ficción", "Fantasía", "Terror", "Misterio", "Novela negra",
+            "Romance", "Poesía", "Teatro", "Ensayo", "Biografía", "Autobiografía", "Historia", "Filosofía",
+            "Psicología", "Divulgación científica", "Matemáticas", "Informática", "Economía", "Política",
+            "Sociología", "Arte", "Música", "Cine", "Fotografía", "Cocina", "Viajes", "Deportes", "Salud",
+            "Autoayuda", "Religión", "Mitología", "Literatura infantil", "Literatura juvenil", "Cómic",
+            "Novela gráfica", "Humor", "Idiomas", "Derecho"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Gabriel", "Isabel", "Jorge", "Julio", "Mario", "Octavio", "Pablo", "Laura", "Elena", "Carmen",
+            "Rosa", "Juan", "Carlos", "Ana", "María", "Miguel", "Rubén", "Alejandra", "Horacio", "Clarice",
+            "Rosario", "Ernesto", "Mariana", "Samanta", "Álvaro", "Piedad", "Andrés", "Tomás", "Sofía", "Lucía"
+    };
+    private static final String[] LAST_NAMES = {
+            "García", "Allende", "Borges", "Cortázar", "Vargas", "Paz", "Neruda", "Esquivel", "Martín", "Montero",
+            "Rulfo", "Fuentes", "Bolaño", "Mistral", "Quiroga", "Lispector", "Castellanos", "Sábato", "Enríquez",
+            "Schweblin", "Mutis", "Bonnett", "Caicedo", "Restrepo", "Ospina", "Vallejo", "Onetti", "Benedetti"
+    };
+    private static final String[] NOUNS = {
+            "silencio", "jardín", "río", "laberinto", "espejo", "viento", "invierno", "ciudad", "sombra", "mar",
+            "tiempo", "olvido", "desierto", "puerto", "bosque", "camino", "memoria", "noche", "fuego", "reino"
+    };
+    private static final String[] ADJECTIVES = {
+            "perdido", "infinito", "secreto", "dormido", "roto", "eterno", "oscuro", "lejano", "quieto", "blanco",
+            "último", "primero", "antiguo", "invisible", "callado", "prometido", "salvaje", "profundo"
+    };
+    private static final String[] PLACES = {
+            "Macondo", "Comala", "Santa María", "Buenos Aires", "Bogotá", "Lima", "Ciudad de México", "Montevideo",
+            "Santiago", "La Habana", "Cartagena", "Quito", "Medellín", "Valparaíso", "Sevilla", "Barcelona"
+    };
+    private static final String[] EXTENSIONS = {".webp", ".jpg", ".png"};
+
+    private final Connection connection;
+    private final CopyManager copyManager;
+    private final SplittableRandom random;
+
+    private SyntheticDatasetGenerator(Connection connection, long seed) throws SQLException {
+        this.connection = connection;
+        this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        this.random = new SplittableRandom(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("dataset.url", "jdbc:postgresql://localhost:5432/db_epilogo");
+        String username = System.getProperty("dataset.username", "postgres");
+        String password = System.getProperty("dataset.password", "12345");
+
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            connection.setAutoCommit(true);
+            new SyntheticDatasetGenerator(connection, Long.getLong("dataset.seed", 42)).generate(
+                    Integer.getInteger("dataset.authors", 50_000),
+                    Integer.getInteger("dataset.categories", GENRES.length),
+                    Integer.getInteger("dataset.books", 1_000_000),
+                    Integer.getInteger("dataset.users", 100_000),
+                    Integer.getInteger("dataset.reservations", 10_000_000),
+                    Integer.getInteger("dataset.files", 2_000_000));
+        }
+    }
+
+    private void generate(int authors, int categories, int books, int users, int reservations, int files)
+            throws SQLException {
+        long started = System.nanoTime();
+        ensureRoles();
+
+        long authorBase = maxId("authors", "author_id");
+        long categoryBase = maxId("categories", "category_id");
+        long bookBase = maxId("books", "book_id");
+        long userBase = maxId("users", "user_id");
+        long reservationBase = maxId("reservations", "reservation_id");
+        long fileBase = maxId("s3_files", "file_id");
+
+        copyAuthors(authorBase, authors);
+        copyCategories(categoryBase, categories);
+        copyBooks(bookBase, books, authorBase, authors, categoryBase, categories);
+        copyUsers(userBase, users);
+        copyReservations(reservationBase, reservations, bookBase, books, userBase, users);
+        copyFiles(fileBase, files, bookBase, books, authorBase, authors, categoryBase, categories, userBase, users);
+
+        createAdmin();
+        reconcileAvailability(bookBase);
+        markOverdue(reservationBase);
+        linkCurrentImages(fileBase);
+        resetIdentities();
+        analyze();
+
+        System.out.printf("Dataset generated in %d s%n", (System.nanoTime() - started) / 1_000_000_000L);
+    }
+
+    private void copyAuthors(long base, int count) throws SQLException {
+        try (CopyWriter out = copy("authors", "author_id, author_name, biography, birth_year, death_year")) {
+            for (long id = base + 1; id <= base + count; id++) {
+                int birthYear = 1850 + random.nextInt(150);
+                Integer deathYear = birthYear < 1940 ? birthYear + 40 + random.nextInt(50) : null;
+                out.value(id).value(pick(FIRST_NAMES) + " " + pick(LAST_NAMES) + " " + pick(LAST_NAMES))
+                        .value("Autor nacido en " + pick(PLACES) + ".")
+                        .value(birthYear).value(deathYear).endRow();
+            }
+        }
+    }
+
+    private void copyCategories(long base, int count) throws SQLException {
+        try (CopyWriter out = copy("categories", "category_id, category_name, description")) {
+            for (int i = 0; i < count; i++) {
+                long id = base + 1 + i;
+                // Los nombres son únicos: con categorías previas o más categorías que géneros se añade el id
+                String name = base == 0 && i < GENRES.length ? GENRES[i] : GENRES[i % GENRES.length] + " " + id;
+                out.value(id).value(name).value("Libros de " + name.toLowerCase()).endRow();
+            }
+        }
+    }
+
+    private void copyBooks(long base, int count, long authorBase, int authors, long categoryBase, int categories)
+            throws SQLException {
+        Zipf authorProductivity = new Zipf(authors, 1.1);
+        Zipf categoryPopularity = new Zipf(categories, 0.8);
+        LocalDateTime now = LocalDateTime.now();
+
+        try (CopyWriter out = copy("books", "book_id, title, description, isbn, author_id, total_amount, "
+                + "available_amount, book_status, category_id, register_date, publication_year")) {
+            for (long id = base + 1; id <= base + count; id++) {
+                int totalAmount = 1 + random.nextInt(10);
+                String title = "El " + pick(NOUNS) + " " + pick(ADJECTIVES) + (random.nextInt(3) == 0 ? " de " + pick(PLACES) : "");
+                out.value(id).value(title)
+                        .value("Una historia sobre el " + pick(NOUNS) + " y el " + pick(NOUNS) + ".")
+                        .value(String.format("978-%010d", id % 10_000_000_000L))
+                        .value(authorBase + authorProductivity.sample(random))
+                        .value(totalAmount).value(totalAmount).value("AVAILABLE")
+                        .value(categoryBase + categoryPopularity.sample(random))
+                        .value(now.minusDays(random.nextInt(HISTORY_DAYS)))
+                        .value(1900 + random.nextInt(125))
+                        .endRow();
+            }
+        }
+    }
+
+    private void copyUsers(long base, int count) throws SQLException {
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+        LocalDateTime now = LocalDateTime.now();
+
+        try (CopyWriter out = copy("users", "user_id, user_name, email, password, register_date, is_active")) {
+            for (long id = base + 1; id <= base + count; id++) {
+                out.value(id).value(pick(FIRST_NAMES) + " " + pick(LAST_NAMES))
+                        .value("lector" + id + "@epilogo.test").value(passwordHash)
+                        .value(now.minusDays(random.nextInt(HISTORY_DAYS)))
+                        .value(random.nextInt(50) != 0)
+                        .endRow();
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO user_role (user_id, role_id) SELECT u.user_id, r.role_id FROM users u, roles r "
+                        + "WHERE r.role_name = 'ROLE_USER' AND u.user_id > ? AND u.user_id <= ?")) {
+            statement.setLong(1, base);
+            statement.setLong(2, base + count);
+            statement.executeUpdate();
+        }
+    }
+
+    private void copyReservations(long base, int count, long bookBase, int books, long userBase, int users)
+            throws SQLException {
+        Zipf bookPopularity = new Zipf(books, 1.0);
+        Zipf userActivity = new Zipf(users, 0.7);
+        LocalDate today = LocalDate.now();
+
+        try (CopyWriter out = copy("reservations", "reservation_id, user_id, book_id, reservation_date, "
+                + "expected_return_date, status, actual_return_date, created_at, updated_at, hold_expires_at, copy_held")) {
+            for (long id = base + 1; id <= base + count; id++) {
+                int age = random.nextInt(HISTORY_DAYS);
+                LocalDate reservationDate = today.minusDays(age);
+                String status = reservationStatus(age);
+                LocalDate actualReturnDate = status.equals("COMPLETED")
+                        ? reservationDate.plusDays(1 + random.nextInt(21))
+                        : null;
+                LocalDateTime createdAt = reservationDate.atTime(8 + random.nextInt(12), random.nextInt(60));
+                // Todas se crean el día que empiezan, así que las pendientes y activas retienen su ejemplar
+                boolean copyHeld = status.equals("PENDING") || status.equals("ACTIVE");
+                LocalDateTime holdExpiresAt = status.equals("PENDING") ? createdAt.plus(PENDING_HOLD) : null;
+
+                out.value(id).value(userBase + userActivity.sample(random)).value(bookBase + bookPopularity.sample(random))
+                        .value(reservationDate).value(reservationDate.plusDays(14)).value(status)
+                        .value(actualReturnDate).value(createdAt).value(createdAt).value(holdExpiresAt).value(copyHeld)
+                        .endRow();
+            }
+        }
+    }
+
+    private String reservationStatus(int ageDays) {
+        int roll = random.nextInt(100);
+        if (ageDays > RECENT_DAYS) {
+            return roll < 85 ? "COMPLETED" : "CANCELLED";
+        }
+        if (roll < 60) {
+            return "ACTIVE";
+        }
+        if (roll < 85) {
+            return "PENDING";
+        }
+        return roll < 95 ? "CANCELLED" : "COMPLETED";
+    }
+
+    private void copyFiles(long base, int count, long bookBase, int books, long authorBase, int authors,
+                           long categoryBase, int categories, long userBase, int users) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        HexFormat hex = HexFormat.of();
+        byte[] hash = new byte[32];
+
+        try (CopyWriter out = copy("s3_files", "file_id, entity_type, entity_id, s3_url, s3_key, file_name, "
+                + "file_type, file_size, upload_date, is_public, content_hash")) {
+            for (long id = base + 1; id <= base + count; id++) {
+                int roll = random.nextInt(100);
+                String entityType;
+                long entityId;
+                if (roll < 55) {
+                    entityType = "BOOK";
+                    entityId = bookBase + 1 + random.nextInt(books);
+                } else if (roll < 65) {
+                    entityType = "AUTHOR";
+                    entityId = authorBase + 1 + random.nextInt(authors);
+                } else if (roll < 66) {
+                    entityType = "CATEGORY";
+                    entityId = categoryBase + 1 + random.nextInt(categories);
+                } else {
+                    entityType = "USER";
+                    entityId = userBase + 1 + random.nextInt(users);
+                }
+                String extension = pick(EXTENSIONS);
+                String key = entityType.toLowerCase() + "s/" + id + extension;
+                random.nextBytes(hash);
+
+                out.value(id).value(entityType).value(entityId)
+                        .value("https://epilogo-carga.s3.amazonaws.com/" + key).value(key)
+                        .value("imagen-" + id + extension).value("image/" + extension.substring(1))
+                        .value(20_000L + random.nextInt(2_000_000))
+                        .value(now.minusMinutes(random.nextInt(HISTORY_DAYS * 24 * 60)))
+                        .value(!entityType.equals("USER"))
+                        .value(hex.formatHex(hash))
+                        .endRow();
+            }
+        }
+    }
+
+    private void ensureRoles() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO roles (role_name) VALUES ('ROLE_USER'), ('ROLE_ADMIN'), ('ROLE_LIBRARIAN') "
+                    + "ON CONFLICT (role_name) DO NOTHING");
+        }
+    }
+
+    private void createAdmin() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (user_name, email, password, register_date, is_active) "
+                        + "VALUES ('Administrador de carga', ?, ?, now(), true) ON CONFLICT (email) DO NOTHING")) {
+            statement.setString(1, ADMIN_EMAIL);
+            statement.setString(2, new BCryptPasswordEncoder().encode(PASSWORD));
+            statement.executeUpdate();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO user_role (user_id, role_id) SELECT u.user_id, r.role_id FROM users u, roles r "
+                        + "WHERE u.email = ? AND r.role_name = 'ROLE_ADMIN' ON CONFLICT DO NOTHING")) {
+            statement.setString(1, ADMIN_EMAIL);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Descuenta de las existencias las reservas pendientes y activas generadas, con la misma regla de estado que
+     * {@code Book.updateBookStatus()}.
+     */
+    private void reconcileAvailability(long bookBase) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE books b SET available_amount = GREATEST(b.total_amount - c.reserved, 0), "
+                        + "book_status = CASE WHEN b.total_amount - c.reserved <= 0 THEN 'UNAVAILABLE' "
+                        + "WHEN b.total_amount - c.reserved < b.total_amount * 0.2 THEN 'LOW_STOCK' ELSE 'AVAILABLE' END "
+                        + "FROM (SELECT book_id, COUNT(*) AS reserved FROM reservations "
+                        + "WHERE status IN ('PENDING', 'ACTIVE') AND book_id > ? GROUP BY book_id) c "
+                        + "WHERE b.book_id = c.book_id")) {
+            statement.setLong(1, bookBase);
+            log("books reconciled", statement.executeUpdate());
+        }
+    }
+
+    /**
+     * Igual que el job diario de vencimientos: las reservas copiadas no pasan por la entidad.
+     */
+    private void markOverdue(long reservationBase) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE reservations SET overdue = TRUE WHERE status = 'ACTIVE' AND expected_return_date < CURRENT_DATE "
+                        + "AND reservation_id > ?")) {
+            statement.setLong(1, reservationBase);
+            log("reservations marked overdue", statement.executeUpdate());
+        }
+    }
+
+    private void linkCurrentImages(long fileBase) throws SQLException {
+        String[][] targets = {
+                {"books", "book_id", "BOOK"},
+                {"authors", "author_id", "AUTHOR"},
+                {"categories", "category_id", "CATEGORY"},
+                {"users", "user_id", "USER"}
+        };
+        for (String[] target : targets) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE " + target[0] + " t SET current_image_file_id = latest.file_id "
+                            + "FROM (SELECT DISTINCT ON (entity_id) entity_id, file_id FROM s3_files "
+                            + "WHERE entity_type = ? AND file_id > ? ORDER BY entity_id, upload_date DESC, file_id DESC) latest "
+                            + "WHERE t." + target[1] + " = latest.entity_id AND t.current_image_file_id IS NULL")) {
+                statement.setString(1, target[2]);
+                statement.setLong(2, fileBase);
+                log(target[0] + " linked to images", statement.executeUpdate());
+            }
+        }
+    }
+
+    /**
+     * Las filas se copian con identificador explícito; las columnas identidad deben continuar desde el máximo.
+     */
+    private void resetIdentities() throws SQLException {
+        String[][] identities = {
+                {"authors", "author_id"}, {"categories", "category_id"}, {"books", "book_id"},
+                {"users", "user_id"}, {"reservations", "reservation_id"}, {"s3_files", "file_id"}
+        };
+        try (Statement statement = connection.createStatement()) {
+            for (String[] identity : identities) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + identity[0] + "', '" + identity[1] + "'), "
+                        + "GREATEST((SELECT MAX(" + identity[1] + ") FROM " + identity[0] + "), 1))");
+            }
+        }
+    }
+
+    private void analyze() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE authors, categories, books, users, user_role, reservations, s3_files");
+        }
+    }
+
+    private long maxId(String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private CopyWriter copy(String table, String columns) throws SQLException {
+        return new CopyWriter(table, copyManager.copyIn("COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)"));
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void log(String what, long rows) {
+        System.out.printf("%,12d %s%n", rows, what);
+    }
+
+    /**
+     * Escribe filas CSV en un {@code COPY} en curso, en bloques de {@link #FLUSH_CHARS} caracteres. Los textos van
+     * siempre entre comillas y los nulos como campo vacío sin comillas, que es como {@code COPY} los distingue.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final String table;
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 4096);
+        private boolean firstInRow = true;
+        private long rows;
+
+        private CopyWriter(String table, CopyIn copyIn) {
+            this.table = table;
+            this.copyIn = copyIn;
+        }
+
+        CopyWriter value(Object value) {
+            if (!firstInRow) {
+                buffer.append(',');
+            }
+            firstInRow = false;
+            if (value instanceof String text) {
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value != null) {
+                buffer.append(value);
+            }
+            return this;
+        }
+
+        void endRow() throws SQLException {
+            buffer.append('\n');
+            firstInRow = true;
+            rows++;
+            if (buffer.length() >= FLUSH_CHARS) {
+                flush();
+            }
+            if (rows % 1_000_000 == 0) {
+                log(table + " copied", rows);
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+            log(table + " copied", rows);
+        }
+    }
+
+    /**
+     * Distribución de Zipf sobre los rangos 1..n con exponente {@code s}: el rango 1 es el más frecuente. Se
+     * muestrea por búsqueda binaria en la función de distribución acumulada.
+     */
+    private static final class Zipf {
+
+        private final double[] cumulative;
+
+        private Zipf(int n, double s) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 1; rank <= n; rank++) {
+                sum += 1.0 / Math.pow(rank, s);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        long sample(SplittableRandom random) {
+            double target = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low + 1;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.epilogo.epilogo.support;
+
+import com.epilogo.epilogo.metrics.SqlStatementHeaderAdvice;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aserciones sobre el número de sentencias SQL de una petición MockMvc. Necesita {@code sql.diagnostics.enabled=true}
+ * para que la respuesta lleve la cabecera {@code X-Sql-Statement-Count}.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    public static int statementCount(MvcResult result) {
+        String header = result.getResponse().getHeader(SqlStatementHeaderAdvice.STATEMENT_COUNT_HEADER);
+        assertNotNull(header, "La respuesta no incluye " + SqlStatementHeaderAdvice.STATEMENT_COUNT_HEADER
+                + "; ¿está activado sql.diagnostics.enabled?");
+        return Integer.parseInt(header);
+    }
+
+    /**
+     * La petición no ejecutó más de {@code budget} sentencias.
+     */
+    public static ResultMatcher statementsAtMost(int budget) {
+        return result -> {
+            int statements = statementCount(result);
+            assertTrue(statements <= budget,
+                    "Presupuesto de SQL superado: " + statements + " sentencias, máximo " + budget);
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.epilogo.epilogo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FenwickPositionIndexTests {
+
+	@Test
+	void appendKeepsArrivalOrder() {
+		FenwickPositionIndex index = new FenwickPositionIndex();
+
+		assertTrue(index.append(10), "La primera clave siempre se acepta");
+		assertTrue(index.append(20), "Una clave mayor que la última se acepta");
+		assertTrue(index.append(35), "Una clave mayor que la última se acepta");
+
+		assertEquals(1, index.positionOf(10), "La primera clave ocupa la posición 1");
+		assertEquals(2, index.positionOf(20), "La segunda clave ocupa la posición 2");
+		assertEquals(3, index.positionOf(35), "La tercera clave ocupa la posición 3");
+		assertEquals(3, index.size(), "Se esperaban tres claves");
+	}
+
+	@Test
+	void appendRejectsKeysOutOfOrder() {
+		FenwickPositionIndex index = new FenwickPositionIndex();
+		index.append(10);
+		index.append(20);
+
+		assertFalse(index.append(20), "Una clave repetida no se acepta");
+		assertFalse(index.append(15), "Una clave menor que la última no se acepta");
+		assertEquals(2, index.size(), "Una clave rechazada no cambia la cola");
+		assertEquals(-1, index.positionOf(15), "Una clave rechazada no está en la cola");
+	}
+
+	@Test
+	void removalsShiftLaterPositions() {
+		FenwickPositionIndex index = new FenwickPositionIndex();
+		for (long key = 1; key <= 5; key++) {
+			index.append(key * 10);
+		}
+
+		assertTrue(index.remove(20), "La clave estaba en la cola");
+		assertFalse(index.remove(20), "Una clave ya quitada no está en la cola");
+		assertFalse(index.remove(25), "Una clave que nunca se añadió no está en la cola");
+
+		assertEquals(1, index.positionOf(10), "Las claves anteriores no se mueven");
+		assertEquals(-1, index.positionOf(20), "La clave quitada ya no tiene posición");
+		assertEquals(2, index.positionOf(30), "Las claves posteriores avanzan una posición");
+		assertEquals(4, index.positionOf(50), "Las claves posteriores avanzan una posición");
+		assertEquals(4, index.size(), "Quedan cuatro claves");
+	}
+
+	@Test
+	void countBeforeCountsLiveKeysBelow() {
+		FenwickPositionIndex index = new FenwickPositionIndex();
+		for (long key = 1; key <= 5; key++) {
+			index.append(key * 10);
+		}
+		index.remove(30);
+
+		assertEquals(0, index.countBefore(5), "No hay claves menores que la primera");
+		assertEquals(0, index.countBefore(10), "La propia clave no cuenta");
+		assertEquals(2, index.countBefore(35), "Una clave ausente cuenta las vivas menores que ella");
+		assertEquals(2, index.countBefore(30), "Las claves quitadas no cuentan");
+		assertEquals(4, index.countBefore(100), "Una clave posterior a todas cuenta la cola entera");
+	}
+
+	@Test
+	void compactionKeepsPositions() {
+		FenwickPositionIndex index = new FenwickPositionIndex();
+		for (long key = 1; key <= 100; key++) {
+			index.append(key);
+		}
+		// Quitar las pares deja más ranuras muertas que vivas y obliga a compactar
+		for (long key = 2; key <= 100; key += 2) {
+			index.remove(key);
+		}
+
+		assertEquals(50, index.size(), "Quedan las cincuenta claves impares");
+		for (long key = 1; key <= 99; key += 2) {
+			assertEquals((int) (key + 1) / 2, index.positionOf(key), "Posición incorrecta tras compactar para " + key);
+		}
+		assertTrue(index.append(101), "Tras compactar se siguen aceptando claves al final");
+		assertEquals(51, index.positionOf(101), "La nueva clave va al final de la cola");
+	}
+
+	@Test
+	void matchesSortedSetOnRandomOperations() {
+		FenwickPositionIndex index = new FenwickPositionIndex();
+		TreeSet<Long> expected = new TreeSet<>();
+		Random random = new Random(42);
+		long next = 0;
+
+		for (int step = 0; step < 5000; step++) {
+			if (!expected.isEmpty() && random.nextInt(5) < 2) {
+				long key = expected.first() + random.nextInt((int) (expected.last() - expected.first() + 1));
+				assertEquals(expected.remove(key), index.remove(key), "Baja distinta en el paso " + step);
+			} else {
+				next += 1 + random.nextInt(3);
+				index.append(next);
+				expected.add(next);
+			}
+
+			assertEquals(expected.size(), index.size(), "Tamaño distinto en el paso " + step);
+			long probe = random.nextInt((int) next + 2);
+			int before = expected.headSet(probe).size();
+			assertEquals(before, index.countBefore(probe), "Claves anteriores distintas en el paso " + step);
+			assertEquals(expected.contains(probe) ? before + 1 : -1, index.positionOf(probe),
+					"Posición distinta en el paso " + step);
+		}
+	}
+}
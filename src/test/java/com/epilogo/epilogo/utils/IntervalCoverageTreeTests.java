@@ -0,0 +1,145 @@
+package com.epilogo.epilogo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntervalCoverageTreeTests {
+
+	@Test
+	void emptyTreeHasNoCoverage() {
+		IntervalCoverageTree tree = new IntervalCoverageTree(100);
+
+		assertEquals(0, tree.max(0, 99), "Un árbol vacío no tiene cobertura");
+		assertEquals(0, tree.min(0, 99), "Un árbol vacío no tiene cobertura");
+		assertEquals(10, tree.firstBelow(10, 20, 1), "En un árbol vacío la primera posición libre es el inicio del rango");
+		assertEquals(-1, tree.firstBelow(10, 20, 0), "Ninguna cobertura está por debajo de cero");
+	}
+
+	@Test
+	void addAndRemoveIntervals() {
+		IntervalCoverageTree tree = new IntervalCoverageTree(100);
+		tree.add(10, 20, 1);
+		tree.add(15, 30, 1);
+
+		assertEquals(2, tree.max(0, 99), "Los intervalos se solapan en [15, 20]");
+		assertEquals(1, tree.max(21, 30), "Después del solape solo queda el segundo intervalo");
+		assertEquals(0, tree.min(0, 99), "Fuera de los intervalos no hay cobertura");
+		assertEquals(1, tree.min(10, 30), "Todo [10, 30] está cubierto al menos una vez");
+		assertEquals(2, tree.min(15, 20), "El solape está cubierto dos veces");
+
+		tree.add(10, 20, -1);
+
+		assertEquals(1, tree.max(0, 99), "Al quitar el primer intervalo no queda ningún solape");
+		assertEquals(0, tree.max(10, 14), "El tramo que solo cubría el primer intervalo queda libre");
+		assertEquals(1, tree.min(15, 30), "El segundo intervalo sigue cubriendo [15, 30]");
+	}
+
+	@Test
+	void firstBelowFindsFirstPositionUnderLimit() {
+		IntervalCoverageTree tree = new IntervalCoverageTree(64);
+		tree.add(0, 9, 2);
+		tree.add(10, 19, 1);
+
+		assertEquals(10, tree.firstBelow(0, 63, 2), "La primera posición con menos de 2 es el final del tramo doble");
+		assertEquals(20, tree.firstBelow(0, 63, 1), "La primera posición libre está después de ambos tramos");
+		assertEquals(12, tree.firstBelow(12, 63, 2), "La búsqueda empieza en el inicio del rango");
+		assertEquals(-1, tree.firstBelow(0, 9, 2), "En [0, 9] la cobertura nunca baja de 2");
+		assertEquals(-1, tree.firstBelow(0, 19, 1), "En [0, 19] siempre hay cobertura");
+	}
+
+	@Test
+	void forEachRunMergesAdjacentRunsWithSameCoverage() {
+		IntervalCoverageTree tree = new IntervalCoverageTree(32);
+		// Dos altas contiguas dejan un solo tramo de cobertura 1 aunque caigan en nodos distintos
+		tree.add(3, 7, 1);
+		tree.add(8, 12, 1);
+		tree.add(10, 11, 1);
+
+		List<int[]> runs = new ArrayList<>();
+		tree.forEachRun(0, 20, (from, to, coverage) -> runs.add(new int[]{from, to, coverage}));
+
+		assertEquals(5, runs.size(), "Se esperaban cinco tramos de cobertura constante");
+		assertRun(runs.get(0), 0, 2, 0);
+		assertRun(runs.get(1), 3, 9, 1);
+		assertRun(runs.get(2), 10, 11, 2);
+		assertRun(runs.get(3), 12, 12, 1);
+		assertRun(runs.get(4), 13, 20, 0);
+	}
+
+	@Test
+	void matchesBruteForceOnRandomIntervals() {
+		int span = 200;
+		IntervalCoverageTree tree = new IntervalCoverageTree(span);
+		int[] coverage = new int[span];
+		List<int[]> intervals = new ArrayList<>();
+		Random random = new Random(42);
+
+		for (int step = 0; step < 2000; step++) {
+			if (!intervals.isEmpty() && random.nextInt(3) == 0) {
+				int[] interval = intervals.remove(random.nextInt(intervals.size()));
+				tree.add(interval[0], interval[1], -1);
+				for (int i = interval[0]; i <= interval[1]; i++) {
+					coverage[i]--;
+				}
+			} else {
+				int from = random.nextInt(span);
+				int to = from + random.nextInt(span - from);
+				intervals.add(new int[]{from, to});
+				tree.add(from, to, 1);
+				for (int i = from; i <= to; i++) {
+					coverage[i]++;
+				}
+			}
+
+			int from = random.nextInt(span);
+			int to = from + random.nextInt(span - from);
+			int limit = random.nextInt(4);
+			int expectedMax = Integer.MIN_VALUE;
+			int expectedMin = Integer.MAX_VALUE;
+			int expectedFirst = -1;
+			for (int i = from; i <= to; i++) {
+				expectedMax = Math.max(expectedMax, coverage[i]);
+				expectedMin = Math.min(expectedMin, coverage[i]);
+				if (expectedFirst < 0 && coverage[i] < limit) {
+					expectedFirst = i;
+				}
+			}
+			assertEquals(expectedMax, tree.max(from, to), "Máximo distinto en el paso " + step);
+			assertEquals(expectedMin, tree.min(from, to), "Mínimo distinto en el paso " + step);
+			assertEquals(expectedFirst, tree.firstBelow(from, to, limit), "Primera posición distinta en el paso " + step);
+
+			int current = step;
+			int[] next = {from};
+			tree.forEachRun(from, to, (runFrom, runTo, runCoverage) -> {
+				assertEquals(next[0], runFrom, "Los tramos deben ser consecutivos");
+				for (int i = runFrom; i <= runTo; i++) {
+					assertEquals(coverage[i], runCoverage, "Cobertura distinta dentro de un tramo en el paso " + current);
+				}
+				next[0] = runTo + 1;
+			});
+			assertEquals(to + 1, next[0], "Los tramos deben cubrir todo el rango");
+		}
+	}
+
+	@Test
+	void rejectsInvalidRanges() {
+		IntervalCoverageTree tree = new IntervalCoverageTree(10);
+
+		assertThrows(IllegalArgumentException.class, () -> tree.add(-1, 5, 1));
+		assertThrows(IllegalArgumentException.class, () -> tree.max(0, 10));
+		assertThrows(IllegalArgumentException.class, () -> tree.min(6, 5));
+		assertThrows(IllegalArgumentException.class, () -> new IntervalCoverageTree(0));
+	}
+
+	private static void assertRun(int[] run, int from, int to, int coverage) {
+		assertEquals(from, run[0], "Inicio de tramo inesperado");
+		assertEquals(to, run[1], "Fin de tramo inesperado");
+		assertEquals(coverage, run[2], "Cobertura de tramo inesperada");
+	}
+}